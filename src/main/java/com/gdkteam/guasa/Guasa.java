@@ -7,6 +7,8 @@
 
 package com.gdkteam.guasa;
 
+import com.gdkteam.guasa.agent.AgentConfiguration;
+import com.gdkteam.guasa.agent.GuasaAgent;
 import com.gdkteam.guasa.core.GuasaCore;
 import com.gdkteam.guasa.gui.GuasaMainWindow;
 import com.gdkteam.guasa.config.GuasaConfiguration;
@@ -35,6 +37,12 @@ public class Guasa {
             logger.info("Initializing Guasa Visual Debugger v1.0.0");
 
             GuasaConfiguration config = GuasaConfiguration.getDefault();
+
+            AgentConfiguration agentConfig = GuasaAgent.getConfiguration();
+            if (agentConfig != null) {
+                config.setSamplingRate(agentConfig.isTrackAllObjects() ? 100 : agentConfig.getSamplingRate());
+            }
+
             core = new GuasaCore(config);
             core.start();
 
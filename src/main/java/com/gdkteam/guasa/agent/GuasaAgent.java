@@ -17,6 +17,7 @@ import java.lang.instrument.Instrumentation;
 public class GuasaAgent {
     private static final Logger logger = LoggerFactory.getLogger(GuasaAgent.class);
     private static Instrumentation instrumentation;
+    private static AgentConfiguration configuration;
     private static volatile boolean agentLoaded = false;
 
     public static void premain(String agentArgs, Instrumentation inst) {
@@ -39,6 +40,7 @@ public class GuasaAgent {
 
         try {
             AgentConfiguration config = AgentConfiguration.parse(agentArgs);
+            configuration = config;
 
             if (config.isEnableTransformation()) {
                 ClassTransformer transformer = new ClassTransformer(config);
@@ -69,6 +71,10 @@ public class GuasaAgent {
         return instrumentation;
     }
 
+    public static AgentConfiguration getConfiguration() {
+        return configuration;
+    }
+
     public static boolean isAgentLoaded() {
         return agentLoaded;
     }
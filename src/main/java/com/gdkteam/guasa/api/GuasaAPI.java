@@ -8,12 +8,23 @@
 package com.gdkteam.guasa.api;
 
 import com.gdkteam.guasa.Guasa;
+import com.gdkteam.guasa.config.GuasaConfiguration;
 import com.gdkteam.guasa.core.GuasaCore;
+import com.gdkteam.guasa.memory.ClassCounters;
+import com.gdkteam.guasa.memory.ClassRegistry;
+import com.gdkteam.guasa.memory.DeepSizeCalculator;
+import com.gdkteam.guasa.memory.DominatorTree;
+import com.gdkteam.guasa.memory.HeapTimeSeries;
+import com.gdkteam.guasa.memory.LeakDetector;
 import com.gdkteam.guasa.memory.ObjectTracker;
 import com.gdkteam.guasa.memory.ReferenceGraph;
+import com.gdkteam.guasa.memory.SnapshotDiff;
+import com.gdkteam.guasa.memory.TrackedObjectCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
 import java.util.*;
 
 public class GuasaAPI {
@@ -32,6 +43,32 @@ public class GuasaAPI {
         }
     }
 
+    public static void recordAllocation(Object obj) {
+        if (obj == null || !Guasa.isInitialized()) {
+            return;
+        }
+
+        try {
+            GuasaCore core = Guasa.getCore();
+            core.getObjectTracker().recordAllocation(obj);
+        } catch (Exception e) {
+            logger.debug("Failed to record allocation", e);
+        }
+    }
+
+    /**
+     * Called from the instrumented constructors of {@code constructedClass}. An object
+     * passes through the constructor of every instrumented class in its hierarchy, so it
+     * is only recorded from the constructor of its own class; instances of classes that
+     * are not instrumented themselves are not recorded.
+     */
+    public static void recordAllocation(Object obj, Class<?> constructedClass) {
+        if (obj == null || obj.getClass() != constructedClass) {
+            return;
+        }
+        recordAllocation(obj);
+    }
+
     public static void untrackObject(Object obj) {
         if (obj == null || !Guasa.isInitialized()) {
             return;
@@ -55,7 +92,7 @@ public class GuasaAPI {
 
         try {
             GuasaCore core = Guasa.getCore();
-            long id = core.getObjectTracker().trackObject(obj);
+            long id = core.getObjectTracker().trackObject(obj, tag);
             logger.debug("Tracked object with tag '{}': ID {}", tag, id);
         } catch (Exception e) {
             logger.debug("Failed to track object with tag", e);
@@ -100,6 +137,32 @@ public class GuasaAPI {
         }
     }
 
+    /**
+     * Sizes everything reachable from {@code obj}, tracked or not, within the configured
+     * depth and byte limits.
+     */
+    public static DeepSizeCalculator.DeepSize getDeepSize(Object obj) {
+        if (obj == null || !Guasa.isInitialized()) {
+            return null;
+        }
+
+        GuasaConfiguration configuration = Guasa.getCore().getConfiguration();
+        return getDeepSize(obj, configuration.getDeepSizeMaxDepth(), configuration.getDeepSizeMaxBytes());
+    }
+
+    public static DeepSizeCalculator.DeepSize getDeepSize(Object obj, int maxDepth, long maxBytes) {
+        if (obj == null || !Guasa.isInitialized()) {
+            return null;
+        }
+
+        try {
+            return Guasa.getCore().getDeepSizeCalculator().calculate(obj, maxDepth, maxBytes);
+        } catch (Exception e) {
+            logger.error("Failed to calculate deep size", e);
+            return null;
+        }
+    }
+
     public static List<Object> getTrackedObjectsByClass(Class<?> clazz) {
         if (clazz == null || !Guasa.isInitialized()) {
             return Collections.emptyList();
@@ -107,14 +170,15 @@ public class GuasaAPI {
 
         try {
             GuasaCore core = Guasa.getCore();
-            Collection<ObjectTracker.TrackedObject> allTracked = core.getObjectTracker().getAllTrackedObjects();
+            TrackedObjectCursor cursor = core.getObjectTracker().cursor();
 
             List<Object> result = new ArrayList<>();
-            String targetClassName = clazz.getName();
+            int targetClassId = ClassRegistry.getId(clazz);
 
-            for (ObjectTracker.TrackedObject tracked : allTracked) {
-                if (tracked.isAlive() && tracked.getClassName().equals(targetClassName)) {
-                    Object obj = tracked.getObject();
+            while (cursor.next()) {
+                if (cursor.getClassId() == targetClassId) {
+                    // Null as well if the row was reused after the class ID was read
+                    Object obj = cursor.getObject();
                     if (obj != null) {
                         result.add(obj);
                     }
@@ -129,6 +193,82 @@ public class GuasaAPI {
         }
     }
 
+    public static List<Object> getTrackedObjectsByTag(String tag) {
+        if (tag == null || !Guasa.isInitialized()) {
+            return Collections.emptyList();
+        }
+
+        try {
+            GuasaCore core = Guasa.getCore();
+            List<Object> result = new ArrayList<>();
+
+            for (ObjectTracker.TrackedObject tracked : core.getObjectTracker().getTrackedObjectsByTag(tag)) {
+                Object obj = tracked.getObject();
+                if (obj != null) {
+                    result.add(obj);
+                }
+            }
+
+            return result;
+
+        } catch (Exception e) {
+            logger.error("Failed to get tracked objects by tag", e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Returns the bytes that would be freed if {@code obj} became unreachable, counting
+     * only tracked objects, as of the last reference graph update; -1 if unknown.
+     */
+    public static long getRetainedSize(Object obj) {
+        if (obj == null || !Guasa.isInitialized()) {
+            return -1;
+        }
+
+        try {
+            GuasaCore core = Guasa.getCore();
+            Long objectId = core.getObjectTracker().getObjectId(obj);
+            if (objectId == null) {
+                return -1;
+            }
+            return core.getReferenceGraph().getDominatorTree().getRetainedSizeById(objectId);
+
+        } catch (Exception e) {
+            logger.error("Failed to get retained size", e);
+            return -1;
+        }
+    }
+
+    public static List<DominatorInfo> getTopDominators(int limit) {
+        if (limit <= 0 || !Guasa.isInitialized()) {
+            return Collections.emptyList();
+        }
+
+        try {
+            GuasaCore core = Guasa.getCore();
+            DominatorTree tree = core.getReferenceGraph().getDominatorTree();
+            List<DominatorInfo> result = new ArrayList<>();
+
+            for (int node : tree.getTopDominators(limit)) {
+                int dominator = tree.getImmediateDominator(node);
+                result.add(new DominatorInfo(
+                    tree.getObjectId(node),
+                    ClassRegistry.getName(tree.getClassId(node)),
+                    tree.getShallowSize(node),
+                    tree.getRetainedSize(node),
+                    dominator != DominatorTree.ROOT ? tree.getObjectId(dominator) : -1
+                ));
+            }
+
+            return result;
+
+        } catch (Exception e) {
+            logger.error("Failed to get top dominators", e);
+            return Collections.emptyList();
+        }
+    }
+
     public static int getTrackedObjectCount() {
         if (!Guasa.isInitialized()) {
             return 0;
@@ -165,14 +305,76 @@ public class GuasaAPI {
 
         try {
             GuasaCore core = Guasa.getCore();
-            core.getHeapAnalyzer().analyze();
-            core.getReferenceGraph().update();
+            core.analyzeNow();
             logger.info("Snapshot taken via API");
         } catch (Exception e) {
             logger.error("Failed to take snapshot", e);
         }
     }
 
+    /**
+     * Analyzes the heap now and keeps the result as the baseline for
+     * {@link #diffFromBaseline()}.
+     */
+    public static void markBaseline() {
+        if (!Guasa.isInitialized()) {
+            return;
+        }
+
+        try {
+            GuasaCore core = Guasa.getCore();
+            core.analyzeNow();
+            core.getHeapAnalyzer().markBaseline();
+            logger.info("Heap baseline marked via API");
+        } catch (Exception e) {
+            logger.error("Failed to mark baseline", e);
+        }
+    }
+
+    /**
+     * Analyzes the heap now and compares it with the baseline; {@code null} if no
+     * baseline was marked.
+     */
+    public static SnapshotDiff diffFromBaseline() {
+        if (!Guasa.isInitialized()) {
+            return null;
+        }
+
+        try {
+            GuasaCore core = Guasa.getCore();
+            core.analyzeNow();
+            return core.getHeapAnalyzer().diffFromBaseline();
+        } catch (Exception e) {
+            logger.error("Failed to diff from baseline", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the classes the leak detector currently suspects, fastest growing first.
+     */
+    public static List<LeakDetector.LeakSuspect> getLeakSuspects() {
+        if (!Guasa.isInitialized()) {
+            return Collections.emptyList();
+        }
+
+        LeakDetector leakDetector = Guasa.getCore().getLeakDetector();
+        return leakDetector != null ? leakDetector.getSuspects() : Collections.emptyList();
+    }
+
+    /**
+     * Returns the recorded heap metrics between two times, in milliseconds since the
+     * epoch, at the finest resolution still kept for that range; {@code null} if Guasa
+     * is not initialized.
+     */
+    public static HeapTimeSeries.Series getHeapHistory(long fromMillis, long toMillis) {
+        if (!Guasa.isInitialized()) {
+            return null;
+        }
+
+        return Guasa.getCore().getHeapHistory().query(fromMillis, toMillis);
+    }
+
     public static MemoryStats getMemoryStats() {
         if (!Guasa.isInitialized()) {
             return new MemoryStats(0, 0, 0, 0);
@@ -180,17 +382,14 @@ public class GuasaAPI {
 
         try {
             GuasaCore core = Guasa.getCore();
-            var snapshot = core.getHeapAnalyzer().getLastSnapshot();
-
-            if (snapshot == null) {
-                return new MemoryStats(0, 0, 0, 0);
-            }
+            MemoryUsage heapUsage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            ClassCounters counters = core.getObjectTracker().getClassCounters();
 
             return new MemoryStats(
-                snapshot.getHeapUsed(),
-                snapshot.getHeapMax(),
-                snapshot.getTrackedObjectCount(),
-                snapshot.getTotalTrackedMemory()
+                heapUsage.getUsed(),
+                heapUsage.getMax(),
+                (int) Math.min(counters.getTotalLiveCount(), Integer.MAX_VALUE),
+                counters.getTotalLiveBytes()
             );
 
         } catch (Exception e) {
@@ -228,6 +427,28 @@ public class GuasaAPI {
         public long getTrackingTimestamp() { return trackingTimestamp; }
     }
 
+    public static class DominatorInfo {
+        private final long id;
+        private final String className;
+        private final long shallowSize;
+        private final long retainedSize;
+        private final long dominatorId;
+
+        public DominatorInfo(long id, String className, long shallowSize, long retainedSize, long dominatorId) {
+            this.id = id;
+            this.className = className;
+            this.shallowSize = shallowSize;
+            this.retainedSize = retainedSize;
+            this.dominatorId = dominatorId;
+        }
+
+        public long getId() { return id; }
+        public String getClassName() { return className; }
+        public long getShallowSize() { return shallowSize; }
+        public long getRetainedSize() { return retainedSize; }
+        public long getDominatorId() { return dominatorId; }
+    }
+
     public static class MemoryStats {
         private final long heapUsed;
         private final long heapMax;
@@ -17,7 +17,27 @@ public class GuasaConfiguration {
     private int schedulerThreads = 2;
     private int workerThreads = 4;
     private long updateIntervalMs = 1000;
+    private boolean enableAdaptiveAnalysis = true;
+    private long analysisMaxIntervalMs = 30000;
+    private int analysisCpuBudgetPercent = 5;
+    private long analysisCpuBurstMs = 1000;
     private int maxTrackedObjects = 100000;
+    private String evictionPolicy = "reject-new";
+    private boolean enableOffHeapStorage = false;
+    private int samplingRate = 100;
+    private boolean enableBufferedTracking = false;
+    private int allocationBufferSize = 4096;
+    private long allocationDrainIntervalMs = 10;
+    private boolean enableAllocationSites = false;
+    private int allocationSiteSamplingRate = 1;
+    private int allocationSiteMaxFrames = 8;
+    private int analysisChangeLogSize = 65536;
+    private boolean enableLeakDetection = true;
+    private int leakDetectionWindow = 30;
+    private int historyMemoryBudgetKb = 1024;
+    private int historyTopClasses = 10;
+    private int deepSizeMaxDepth = 1000000;
+    private long deepSizeMaxBytes = 1073741824;
     private boolean enableAutoTracking = true;
     private boolean enablePythonIntegration = true;
     private int guiRefreshRateMs = 500;
@@ -39,7 +59,27 @@ public class GuasaConfiguration {
                 schedulerThreads = Integer.parseInt(props.getProperty("scheduler.threads", "2"));
                 workerThreads = Integer.parseInt(props.getProperty("worker.threads", "4"));
                 updateIntervalMs = Long.parseLong(props.getProperty("update.interval.ms", "1000"));
+                enableAdaptiveAnalysis = Boolean.parseBoolean(props.getProperty("enable.adaptive.analysis", "true"));
+                analysisMaxIntervalMs = Long.parseLong(props.getProperty("analysis.max.interval.ms", "30000"));
+                analysisCpuBudgetPercent = Integer.parseInt(props.getProperty("analysis.cpu.budget.percent", "5"));
+                analysisCpuBurstMs = Long.parseLong(props.getProperty("analysis.cpu.burst.ms", "1000"));
                 maxTrackedObjects = Integer.parseInt(props.getProperty("max.tracked.objects", "100000"));
+                evictionPolicy = props.getProperty("eviction.policy", "reject-new");
+                enableOffHeapStorage = Boolean.parseBoolean(props.getProperty("enable.offheap.storage", "false"));
+                samplingRate = Integer.parseInt(props.getProperty("sampling.rate", "100"));
+                enableBufferedTracking = Boolean.parseBoolean(props.getProperty("enable.buffered.tracking", "false"));
+                allocationBufferSize = Integer.parseInt(props.getProperty("allocation.buffer.size", "4096"));
+                allocationDrainIntervalMs = Long.parseLong(props.getProperty("allocation.drain.interval.ms", "10"));
+                enableAllocationSites = Boolean.parseBoolean(props.getProperty("enable.allocation.sites", "false"));
+                allocationSiteSamplingRate = Integer.parseInt(props.getProperty("allocation.site.sampling.rate", "1"));
+                allocationSiteMaxFrames = Integer.parseInt(props.getProperty("allocation.site.max.frames", "8"));
+                analysisChangeLogSize = Integer.parseInt(props.getProperty("analysis.change.log.size", "65536"));
+                enableLeakDetection = Boolean.parseBoolean(props.getProperty("enable.leak.detection", "true"));
+                leakDetectionWindow = Integer.parseInt(props.getProperty("leak.detection.window", "30"));
+                historyMemoryBudgetKb = Integer.parseInt(props.getProperty("history.memory.budget.kb", "1024"));
+                historyTopClasses = Integer.parseInt(props.getProperty("history.top.classes", "10"));
+                deepSizeMaxDepth = Integer.parseInt(props.getProperty("deep.size.max.depth", "1000000"));
+                deepSizeMaxBytes = Long.parseLong(props.getProperty("deep.size.max.bytes", "1073741824"));
                 enableAutoTracking = Boolean.parseBoolean(props.getProperty("enable.auto.tracking", "true"));
                 enablePythonIntegration = Boolean.parseBoolean(props.getProperty("enable.python.integration", "true"));
                 guiRefreshRateMs = Integer.parseInt(props.getProperty("gui.refresh.rate.ms", "500"));
@@ -60,9 +100,103 @@ public class GuasaConfiguration {
     public long getUpdateIntervalMs() { return updateIntervalMs; }
     public void setUpdateIntervalMs(long updateIntervalMs) { this.updateIntervalMs = updateIntervalMs; }
 
+    public boolean isEnableAdaptiveAnalysis() { return enableAdaptiveAnalysis; }
+    public void setEnableAdaptiveAnalysis(boolean enableAdaptiveAnalysis) {
+        this.enableAdaptiveAnalysis = enableAdaptiveAnalysis;
+    }
+
+    public long getAnalysisMaxIntervalMs() { return analysisMaxIntervalMs; }
+    public void setAnalysisMaxIntervalMs(long analysisMaxIntervalMs) {
+        this.analysisMaxIntervalMs = analysisMaxIntervalMs;
+    }
+
+    public int getAnalysisCpuBudgetPercent() { return analysisCpuBudgetPercent; }
+    public void setAnalysisCpuBudgetPercent(int analysisCpuBudgetPercent) {
+        this.analysisCpuBudgetPercent = analysisCpuBudgetPercent;
+    }
+
+    public long getAnalysisCpuBurstMs() { return analysisCpuBurstMs; }
+    public void setAnalysisCpuBurstMs(long analysisCpuBurstMs) {
+        this.analysisCpuBurstMs = analysisCpuBurstMs;
+    }
+
     public int getMaxTrackedObjects() { return maxTrackedObjects; }
     public void setMaxTrackedObjects(int maxTrackedObjects) { this.maxTrackedObjects = maxTrackedObjects; }
 
+    public String getEvictionPolicy() { return evictionPolicy; }
+    public void setEvictionPolicy(String evictionPolicy) { this.evictionPolicy = evictionPolicy; }
+
+    public boolean isEnableOffHeapStorage() { return enableOffHeapStorage; }
+    public void setEnableOffHeapStorage(boolean enableOffHeapStorage) {
+        this.enableOffHeapStorage = enableOffHeapStorage;
+    }
+
+    public int getSamplingRate() { return samplingRate; }
+    public void setSamplingRate(int samplingRate) { this.samplingRate = samplingRate; }
+
+    public boolean isEnableBufferedTracking() { return enableBufferedTracking; }
+    public void setEnableBufferedTracking(boolean enableBufferedTracking) {
+        this.enableBufferedTracking = enableBufferedTracking;
+    }
+
+    public int getAllocationBufferSize() { return allocationBufferSize; }
+    public void setAllocationBufferSize(int allocationBufferSize) { this.allocationBufferSize = allocationBufferSize; }
+
+    public long getAllocationDrainIntervalMs() { return allocationDrainIntervalMs; }
+    public void setAllocationDrainIntervalMs(long allocationDrainIntervalMs) {
+        this.allocationDrainIntervalMs = allocationDrainIntervalMs;
+    }
+
+    public boolean isEnableAllocationSites() { return enableAllocationSites; }
+    public void setEnableAllocationSites(boolean enableAllocationSites) {
+        this.enableAllocationSites = enableAllocationSites;
+    }
+
+    public int getAllocationSiteSamplingRate() { return allocationSiteSamplingRate; }
+    public void setAllocationSiteSamplingRate(int allocationSiteSamplingRate) {
+        this.allocationSiteSamplingRate = allocationSiteSamplingRate;
+    }
+
+    public int getAllocationSiteMaxFrames() { return allocationSiteMaxFrames; }
+    public void setAllocationSiteMaxFrames(int allocationSiteMaxFrames) {
+        this.allocationSiteMaxFrames = allocationSiteMaxFrames;
+    }
+
+    public int getAnalysisChangeLogSize() { return analysisChangeLogSize; }
+    public void setAnalysisChangeLogSize(int analysisChangeLogSize) {
+        this.analysisChangeLogSize = analysisChangeLogSize;
+    }
+
+    public boolean isEnableLeakDetection() { return enableLeakDetection; }
+    public void setEnableLeakDetection(boolean enableLeakDetection) {
+        this.enableLeakDetection = enableLeakDetection;
+    }
+
+    public int getLeakDetectionWindow() { return leakDetectionWindow; }
+    public void setLeakDetectionWindow(int leakDetectionWindow) {
+        this.leakDetectionWindow = leakDetectionWindow;
+    }
+
+    public int getHistoryMemoryBudgetKb() { return historyMemoryBudgetKb; }
+    public void setHistoryMemoryBudgetKb(int historyMemoryBudgetKb) {
+        this.historyMemoryBudgetKb = historyMemoryBudgetKb;
+    }
+
+    public int getHistoryTopClasses() { return historyTopClasses; }
+    public void setHistoryTopClasses(int historyTopClasses) {
+        this.historyTopClasses = historyTopClasses;
+    }
+
+    public int getDeepSizeMaxDepth() { return deepSizeMaxDepth; }
+    public void setDeepSizeMaxDepth(int deepSizeMaxDepth) {
+        this.deepSizeMaxDepth = deepSizeMaxDepth;
+    }
+
+    public long getDeepSizeMaxBytes() { return deepSizeMaxBytes; }
+    public void setDeepSizeMaxBytes(long deepSizeMaxBytes) {
+        this.deepSizeMaxBytes = deepSizeMaxBytes;
+    }
+
     public boolean isEnableAutoTracking() { return enableAutoTracking; }
     public void setEnableAutoTracking(boolean enableAutoTracking) { this.enableAutoTracking = enableAutoTracking; }
 
@@ -90,7 +224,27 @@ public class GuasaConfiguration {
                "schedulerThreads=" + schedulerThreads +
                ", workerThreads=" + workerThreads +
                ", updateIntervalMs=" + updateIntervalMs +
+               ", enableAdaptiveAnalysis=" + enableAdaptiveAnalysis +
+               ", analysisMaxIntervalMs=" + analysisMaxIntervalMs +
+               ", analysisCpuBudgetPercent=" + analysisCpuBudgetPercent +
+               ", analysisCpuBurstMs=" + analysisCpuBurstMs +
                ", maxTrackedObjects=" + maxTrackedObjects +
+               ", evictionPolicy='" + evictionPolicy + '\'' +
+               ", enableOffHeapStorage=" + enableOffHeapStorage +
+               ", samplingRate=" + samplingRate +
+               ", enableBufferedTracking=" + enableBufferedTracking +
+               ", allocationBufferSize=" + allocationBufferSize +
+               ", allocationDrainIntervalMs=" + allocationDrainIntervalMs +
+               ", enableAllocationSites=" + enableAllocationSites +
+               ", allocationSiteSamplingRate=" + allocationSiteSamplingRate +
+               ", allocationSiteMaxFrames=" + allocationSiteMaxFrames +
+               ", analysisChangeLogSize=" + analysisChangeLogSize +
+               ", enableLeakDetection=" + enableLeakDetection +
+               ", leakDetectionWindow=" + leakDetectionWindow +
+               ", historyMemoryBudgetKb=" + historyMemoryBudgetKb +
+               ", historyTopClasses=" + historyTopClasses +
+               ", deepSizeMaxDepth=" + deepSizeMaxDepth +
+               ", deepSizeMaxBytes=" + deepSizeMaxBytes +
                ", enableAutoTracking=" + enableAutoTracking +
                ", enablePythonIntegration=" + enablePythonIntegration +
                ", guiRefreshRateMs=" + guiRefreshRateMs +
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.core;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs heap analysis after garbage collections and backs off exponentially while nothing changes.
+ */
+public class AnalysisScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisScheduler.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final Runnable analysis;
+    private final LongSupplier changeCount;
+    private final LongSupplier collectedCount;
+    private final long minIntervalNanos;
+    private final long maxIntervalNanos;
+    private final OverheadGovernor governor;
+    private final NotificationListener gcListener;
+    private final List<NotificationEmitter> emitters;
+    private final LongSupplier nanoClock;
+    private final List<GarbageCollectorMXBean> gcBeans;
+
+    private boolean running;
+    private boolean analyzing;
+    private boolean gcSinceLastRun;
+    private long intervalNanos;
+    private long lastChangeCount;
+    private ScheduledFuture<?> pending;
+    private long pendingAt;
+    private long scheduleGeneration;
+    private long analysisCount;
+    private long gcTriggeredCount;
+
+    /**
+     * @param changeCount    grows whenever an object is tracked or released
+     * @param collectedCount grows whenever an object is released because it was collected
+     */
+    public AnalysisScheduler(ScheduledExecutorService scheduler, Runnable analysis, LongSupplier changeCount,
+                             LongSupplier collectedCount, long minIntervalMs, long maxIntervalMs,
+                             OverheadGovernor governor) {
+        this(scheduler, analysis, changeCount, collectedCount, minIntervalMs, maxIntervalMs, governor,
+            System::nanoTime, ManagementFactory.getGarbageCollectorMXBeans());
+    }
+
+    AnalysisScheduler(ScheduledExecutorService scheduler, Runnable analysis, LongSupplier changeCount,
+                      LongSupplier collectedCount, long minIntervalMs, long maxIntervalMs,
+                      OverheadGovernor governor, LongSupplier nanoClock, List<GarbageCollectorMXBean> gcBeans) {
+        this.scheduler = scheduler;
+        this.analysis = analysis;
+        this.changeCount = changeCount;
+        this.collectedCount = collectedCount;
+        this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, minIntervalMs));
+        this.maxIntervalNanos = Math.max(minIntervalNanos, TimeUnit.MILLISECONDS.toNanos(maxIntervalMs));
+        this.governor = governor;
+        this.gcListener = this::handleNotification;
+        this.emitters = new ArrayList<>();
+        this.nanoClock = nanoClock;
+        this.gcBeans = gcBeans;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        intervalNanos = minIntervalNanos;
+        lastChangeCount = changeCount.getAsLong();
+
+        for (GarbageCollectorMXBean gcBean : gcBeans) {
+            if (gcBean instanceof NotificationEmitter) {
+                NotificationEmitter emitter = (NotificationEmitter) gcBean;
+                emitter.addNotificationListener(gcListener, null, null);
+                emitters.add(emitter);
+            }
+        }
+        if (emitters.isEmpty()) {
+            logger.warn("No garbage collection notifications available, analyzing on a timer only");
+        }
+
+        scheduleAt(nanoClock.getAsLong());
+        logger.info("AnalysisScheduler started with interval {}-{} ms",
+            TimeUnit.NANOSECONDS.toMillis(minIntervalNanos), TimeUnit.NANOSECONDS.toMillis(maxIntervalNanos));
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(gcListener);
+            } catch (ListenerNotFoundException e) {
+                logger.debug("GC listener already removed", e);
+            }
+        }
+        emitters.clear();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        logger.info("AnalysisScheduler stopped after {} analyses, {} triggered by GC", analysisCount,
+            gcTriggeredCount);
+    }
+
+    public synchronized long getAnalysisCount() {
+        return analysisCount;
+    }
+
+    public synchronized long getGcTriggeredCount() {
+        return gcTriggeredCount;
+    }
+
+    /**
+     * Returns the delay before the next analysis if nothing triggers one earlier.
+     */
+    public synchronized long getCurrentIntervalMs() {
+        return TimeUnit.NANOSECONDS.toMillis(intervalNanos);
+    }
+
+    private void handleNotification(Notification notification, Object handback) {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            onGarbageCollection();
+        }
+    }
+
+    synchronized void onGarbageCollection() {
+        if (!running) {
+            return;
+        }
+        gcSinceLastRun = true;
+        if (analyzing) {
+            // The running analysis reschedules itself once it sees the collection
+            return;
+        }
+        long at = nanoClock.getAsLong() + governor.getDelayNanos();
+        if (pending == null || at < pendingAt) {
+            gcTriggeredCount++;
+            scheduleAt(at);
+        }
+    }
+
+    private void runAnalysis(long generation) {
+        boolean gcSeen;
+        synchronized (this) {
+            // A run replaced by scheduleAt after it had already started is dropped here
+            if (!running || analyzing || generation != scheduleGeneration) {
+                return;
+            }
+            analyzing = true;
+            pending = null;
+            gcSeen = gcSinceLastRun;
+            gcSinceLastRun = false;
+        }
+
+        long changesBefore = changeCount.getAsLong();
+        long collectedBefore = collectedCount.getAsLong();
+        boolean changed = gcSeen || changesBefore != lastChangeCount;
+        try {
+            analysis.run();
+        } finally {
+            long collected = collectedCount.getAsLong() - collectedBefore;
+            long end = nanoClock.getAsLong();
+            synchronized (this) {
+                // Other changes made while the analysis ran still count at the next run
+                lastChangeCount = changesBefore + collected;
+                analyzing = false;
+                analysisCount++;
+                intervalNanos = changed ? minIntervalNanos : Math.min(intervalNanos * 2, maxIntervalNanos);
+
+                if (running) {
+                    long next = end + intervalNanos;
+                    if (gcSinceLastRun) {
+                        gcTriggeredCount++;
+                        next = end;
+                    }
+                    scheduleAt(Math.max(next, end + governor.getDelayNanos()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the pending analysis with one at {@code at}, a reading of the nanosecond
+     * clock. Must be called with the monitor held.
+     */
+    private void scheduleAt(long at) {
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        pendingAt = at;
+        long generation = ++scheduleGeneration;
+        pending = scheduler.schedule(() -> runAnalysis(generation), Math.max(0, at - nanoClock.getAsLong()),
+            TimeUnit.NANOSECONDS);
+    }
+}
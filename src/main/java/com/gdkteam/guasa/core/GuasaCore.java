@@ -10,7 +10,11 @@ package com.gdkteam.guasa.core;
 import com.gdkteam.guasa.config.GuasaConfiguration;
 import com.gdkteam.guasa.event.EventBus;
 import com.gdkteam.guasa.event.GuasaEvent;
+import com.gdkteam.guasa.memory.DeepSizeCalculator;
+import com.gdkteam.guasa.memory.EvictionPolicy;
 import com.gdkteam.guasa.memory.HeapAnalyzer;
+import com.gdkteam.guasa.memory.HeapTimeSeries;
+import com.gdkteam.guasa.memory.LeakDetector;
 import com.gdkteam.guasa.memory.ObjectTracker;
 import com.gdkteam.guasa.memory.ReferenceGraph;
 import com.gdkteam.guasa.python.PythonBridge;
@@ -21,26 +25,64 @@ import java.util.concurrent.*;
 
 public class GuasaCore {
     private static final Logger logger = LoggerFactory.getLogger(GuasaCore.class);
+    private static final ThreadLocal<Boolean> GUASA_THREAD = ThreadLocal.withInitial(() -> false);
 
     private final GuasaConfiguration configuration;
     private final ObjectTracker objectTracker;
     private final HeapAnalyzer heapAnalyzer;
     private final ReferenceGraph referenceGraph;
+    private final LeakDetector leakDetector;
+    private final HeapTimeSeries heapHistory;
+    private final DeepSizeCalculator deepSizeCalculator;
     private final EventBus eventBus;
     private final PythonBridge pythonBridge;
     private final ScheduledExecutorService scheduler;
     private final ExecutorService workerPool;
+    private final AnalysisScheduler analysisScheduler;
+    private final OverheadGovernor overheadGovernor;
+
+    private final Object analysisLock = new Object();
 
     private volatile boolean running = false;
     private ScheduledFuture<?> analysisTask;
+    private ScheduledFuture<?> drainTask;
 
     public GuasaCore(GuasaConfiguration configuration) {
         this.configuration = configuration;
         this.eventBus = new EventBus();
-        this.objectTracker = new ObjectTracker(eventBus);
+        this.objectTracker = new ObjectTracker(
+            eventBus,
+            configuration.getMaxTrackedObjects(),
+            EvictionPolicy.Type.fromConfigName(configuration.getEvictionPolicy()),
+            configuration.isEnableOffHeapStorage()
+        );
+        this.objectTracker.setSamplingRate(configuration.getSamplingRate());
+        this.objectTracker.setChangeLogCapacity(configuration.getAnalysisChangeLogSize());
+        if (configuration.isEnableBufferedTracking()) {
+            this.objectTracker.enableBufferedRegistration(configuration.getAllocationBufferSize());
+        }
+        if (configuration.isEnableAllocationSites()) {
+            this.objectTracker.enableAllocationSites(
+                configuration.getAllocationSiteSamplingRate(),
+                configuration.getAllocationSiteMaxFrames()
+            );
+        }
         this.heapAnalyzer = new HeapAnalyzer(objectTracker, eventBus);
         this.referenceGraph = new ReferenceGraph(objectTracker, eventBus);
+        this.leakDetector = configuration.isEnableLeakDetection()
+            ? new LeakDetector(eventBus, configuration.getLeakDetectionWindow())
+            : null;
+        this.heapHistory = new HeapTimeSeries(
+            eventBus,
+            configuration.getHistoryMemoryBudgetKb() * 1024L,
+            configuration.getHistoryTopClasses()
+        );
+        this.deepSizeCalculator = new DeepSizeCalculator(objectTracker.getSizeEstimator());
         this.pythonBridge = new PythonBridge();
+        this.overheadGovernor = new OverheadGovernor(
+            configuration.getAnalysisCpuBudgetPercent(),
+            configuration.getAnalysisCpuBurstMs()
+        );
 
         this.scheduler = Executors.newScheduledThreadPool(
             configuration.getSchedulerThreads(),
@@ -51,6 +93,21 @@ public class GuasaCore {
             configuration.getWorkerThreads(),
             this::createThread
         );
+        this.heapAnalyzer.setWorkerPool(workerPool, configuration.getWorkerThreads());
+        this.referenceGraph.setWorkerPool(workerPool, configuration.getWorkerThreads());
+        this.heapAnalyzer.setOverheadGovernor(overheadGovernor);
+        this.referenceGraph.setOverheadGovernor(overheadGovernor);
+        this.deepSizeCalculator.setWorkerPool(workerPool, configuration.getWorkerThreads());
+        this.analysisScheduler = configuration.isEnableAdaptiveAnalysis()
+            ? new AnalysisScheduler(
+                scheduler,
+                this::performAnalysis,
+                objectTracker::getChangeCount,
+                objectTracker::getCollectedCount,
+                configuration.getUpdateIntervalMs(),
+                configuration.getAnalysisMaxIntervalMs(),
+                overheadGovernor)
+            : null;
 
         logger.info("GuasaCore initialized with configuration: {}", configuration);
     }
@@ -67,14 +124,32 @@ public class GuasaCore {
         objectTracker.start();
         heapAnalyzer.start();
         referenceGraph.start();
+        heapHistory.start();
+        if (leakDetector != null) {
+            leakDetector.start();
+        }
 
-        long updateInterval = configuration.getUpdateIntervalMs();
-        analysisTask = scheduler.scheduleAtFixedRate(
-            this::performAnalysis,
-            0,
-            updateInterval,
-            TimeUnit.MILLISECONDS
-        );
+        if (objectTracker.isBufferedRegistration()) {
+            long drainInterval = configuration.getAllocationDrainIntervalMs();
+            drainTask = scheduler.scheduleWithFixedDelay(
+                this::drainAllocations,
+                drainInterval,
+                drainInterval,
+                TimeUnit.MILLISECONDS
+            );
+        }
+
+        if (analysisScheduler != null) {
+            analysisScheduler.start();
+        } else {
+            long updateInterval = configuration.getUpdateIntervalMs();
+            analysisTask = scheduler.scheduleAtFixedRate(
+                this::performAnalysis,
+                0,
+                updateInterval,
+                TimeUnit.MILLISECONDS
+            );
+        }
 
         running = true;
         eventBus.publish(new GuasaEvent.CoreStarted());
@@ -89,10 +164,21 @@ public class GuasaCore {
         logger.info("Stopping GuasaCore");
         running = false;
 
+        if (analysisScheduler != null) {
+            analysisScheduler.stop();
+        }
         if (analysisTask != null) {
             analysisTask.cancel(false);
         }
+        if (drainTask != null) {
+            drainTask.cancel(false);
+            drainAllocations();
+        }
 
+        if (leakDetector != null) {
+            leakDetector.stop();
+        }
+        heapHistory.stop();
         referenceGraph.stop();
         heapAnalyzer.stop();
         objectTracker.stop();
@@ -118,10 +204,56 @@ public class GuasaCore {
         logger.info("GuasaCore stopped");
     }
 
+    private void drainAllocations() {
+        try {
+            objectTracker.drainAllocationBuffers();
+        } catch (Exception e) {
+            logger.error("Error draining allocation buffers", e);
+        }
+    }
+
+    /**
+     * Runs an analysis on a Guasa thread and waits for it to finish. Returns early, with
+     * the interrupt status set, if the calling thread is interrupted.
+     *
+     * @throws RejectedExecutionException if Guasa has been stopped
+     */
+    public void analyzeNow() {
+        if (GUASA_THREAD.get()) {
+            performAnalysis();
+            return;
+        }
+        Future<?> analysis = scheduler.submit(this::performAnalysis);
+        try {
+            analysis.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Error during analysis", e.getCause());
+        }
+    }
+
     private void performAnalysis() {
+        synchronized (analysisLock) {
+            analyzeUnderBudget();
+        }
+    }
+
+    private void analyzeUnderBudget() {
         try {
+            long throttledBefore = overheadGovernor.getThrottledNanos();
+            overheadGovernor.awaitBudget();
             heapAnalyzer.analyze();
+            overheadGovernor.awaitBudget();
             referenceGraph.update();
+
+            long throttled = overheadGovernor.getThrottledNanos() - throttledBefore;
+            if (throttled > 0) {
+                long throttledMs = TimeUnit.NANOSECONDS.toMillis(throttled);
+                int budget = overheadGovernor.getBudgetPercent();
+                logger.debug("Analysis delayed {}ms by the {}% CPU budget", throttledMs, budget);
+                eventBus.publish(new GuasaEvent.AnalysisThrottled(throttledMs, budget));
+            }
             eventBus.publish(new GuasaEvent.AnalysisComplete());
         } catch (Exception e) {
             logger.error("Error during analysis", e);
@@ -129,7 +261,11 @@ public class GuasaCore {
     }
 
     private Thread createThread(Runnable r) {
-        Thread thread = new Thread(r);
+        Thread thread = new Thread(() -> {
+            GUASA_THREAD.set(true);
+            overheadGovernor.register(Thread.currentThread());
+            r.run();
+        });
         thread.setDaemon(true);
         thread.setName("Guasa-Worker-" + thread.getId());
         return thread;
@@ -147,6 +283,33 @@ public class GuasaCore {
         return referenceGraph;
     }
 
+    /**
+     * Returns the leak detector, or {@code null} if leak detection is disabled.
+     */
+    public LeakDetector getLeakDetector() {
+        return leakDetector;
+    }
+
+    /**
+     * Returns the adaptive analysis scheduler, or {@code null} if analysis runs at the
+     * fixed update interval.
+     */
+    public AnalysisScheduler getAnalysisScheduler() {
+        return analysisScheduler;
+    }
+
+    public OverheadGovernor getOverheadGovernor() {
+        return overheadGovernor;
+    }
+
+    public HeapTimeSeries getHeapHistory() {
+        return heapHistory;
+    }
+
+    public DeepSizeCalculator getDeepSizeCalculator() {
+        return deepSizeCalculator;
+    }
+
     public EventBus getEventBus() {
         return eventBus;
     }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that throttles registered threads to a share of one core's CPU time on average.
+ */
+public class OverheadGovernor {
+    private static final Logger logger = LoggerFactory.getLogger(OverheadGovernor.class);
+    private static final long MAX_SLEEP_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int budgetPercent;
+    private final long maxCreditNanos;
+    private final LongSupplier nanoClock;
+    private final Function<long[], long[]> threadCpuTimes;
+
+    private long[] threadIds = new long[0];
+    private long[] lastThreadCpu = new long[0];
+    private long totalCpuNanos;
+    private long lastCheck;
+    private long credit;
+    private int waitingThreads;
+    private long waitStart;
+    private long throttledNanos;
+
+    public OverheadGovernor(int budgetPercent, long burstMillis) {
+        this(budgetPercent, burstMillis, System::nanoTime, threadMXBeanCpuTimes());
+    }
+
+    /**
+     * @param threadCpuTimes returns the CPU time of each thread, or -1 for a thread that
+     *                       has terminated
+     */
+    OverheadGovernor(int budgetPercent, long burstMillis, LongSupplier nanoClock,
+                     Function<long[], long[]> threadCpuTimes) {
+        if (budgetPercent <= 0 || budgetPercent > 100) {
+            throw new IllegalArgumentException("CPU budget must be between 1 and 100 percent: " + budgetPercent);
+        }
+        this.budgetPercent = budgetPercent;
+        this.maxCreditNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, burstMillis)) * budgetPercent / 100;
+        this.nanoClock = nanoClock;
+        this.threadCpuTimes = threadCpuTimes;
+        this.lastCheck = nanoClock.getAsLong();
+        this.credit = maxCreditNanos;
+    }
+
+    /**
+     * Counts the CPU time of {@code thread} against the budget from now on.
+     */
+    public synchronized void register(Thread thread) {
+        long id = thread.getId();
+        threadIds = Arrays.copyOf(threadIds, threadIds.length + 1);
+        lastThreadCpu = Arrays.copyOf(lastThreadCpu, lastThreadCpu.length + 1);
+        threadIds[threadIds.length - 1] = id;
+        lastThreadCpu[lastThreadCpu.length - 1] = Math.max(0, threadCpuTimes.apply(new long[] {id})[0]);
+    }
+
+    /**
+     * Blocks while Guasa's threads are over budget. Returns at once if the calling
+     * thread is interrupted, with its interrupt status set.
+     */
+    public void awaitBudget() {
+        long delay = getDelayNanos();
+        if (delay <= 0) {
+            return;
+        }
+
+        beginWait();
+        try {
+            while (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(Math.min(delay, MAX_SLEEP_NANOS));
+                delay = getDelayNanos();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            endWait();
+        }
+    }
+
+    /**
+     * Returns how long Guasa's threads must stay idle to get back within budget.
+     */
+    public synchronized long getDelayNanos() {
+        update();
+        return credit < 0 ? -credit * 100 / budgetPercent : 0;
+    }
+
+    public synchronized boolean isOverBudget() {
+        update();
+        return credit < 0;
+    }
+
+    public int getBudgetPercent() {
+        return budgetPercent;
+    }
+
+    /**
+     * Returns the wall-clock time during which at least one thread waited in
+     * {@link #awaitBudget()}; overlapping waits are counted once.
+     */
+    public synchronized long getThrottledNanos() {
+        return throttledNanos + (waitingThreads > 0 ? nanoClock.getAsLong() - waitStart : 0);
+    }
+
+    /**
+     * Returns the CPU time used by registered threads since they were registered.
+     */
+    public synchronized long getCpuNanos() {
+        update();
+        return totalCpuNanos;
+    }
+
+    private synchronized void beginWait() {
+        if (waitingThreads++ == 0) {
+            waitStart = nanoClock.getAsLong();
+        }
+    }
+
+    private synchronized void endWait() {
+        if (--waitingThreads == 0) {
+            throttledNanos += nanoClock.getAsLong() - waitStart;
+        }
+    }
+
+    private void update() {
+        long now = nanoClock.getAsLong();
+        long used = sampleCpu();
+        totalCpuNanos += used;
+        credit = Math.min(maxCreditNanos, credit + (now - lastCheck) * budgetPercent / 100) - used;
+        lastCheck = now;
+    }
+
+    /**
+     * Returns the CPU time registered threads used since the previous call, dropping
+     * threads that have terminated.
+     */
+    private long sampleCpu() {
+        if (threadIds.length == 0) {
+            return 0;
+        }
+
+        long[] cpu = threadCpuTimes.apply(threadIds);
+
+        long used = 0;
+        int live = 0;
+        for (int i = 0; i < threadIds.length; i++) {
+            if (cpu[i] < 0) {
+                continue;
+            }
+            used += cpu[i] - lastThreadCpu[i];
+            threadIds[live] = threadIds[i];
+            lastThreadCpu[live] = cpu[i];
+            live++;
+        }
+        if (live < threadIds.length) {
+            threadIds = Arrays.copyOf(threadIds, live);
+            lastThreadCpu = Arrays.copyOf(lastThreadCpu, live);
+        }
+        return used;
+    }
+
+    private static Function<long[], long[]> threadMXBeanCpuTimes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!threadMXBean.isThreadCpuTimeSupported()) {
+            logger.warn("Thread CPU time not supported, Guasa CPU budget is not enforced");
+            return ids -> {
+                long[] cpu = new long[ids.length];
+                Arrays.fill(cpu, -1);
+                return cpu;
+            };
+        }
+        if (!threadMXBean.isThreadCpuTimeEnabled()) {
+            threadMXBean.setThreadCpuTimeEnabled(true);
+        }
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bulkThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            return bulkThreadMXBean::getThreadCpuTime;
+        }
+        return ids -> {
+            long[] cpu = new long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                cpu[i] = threadMXBean.getThreadCpuTime(ids[i]);
+            }
+            return cpu;
+        };
+    }
+}
@@ -7,6 +7,7 @@
 
 package com.gdkteam.guasa.event;
 
+import com.gdkteam.guasa.memory.ClassRegistry;
 import com.gdkteam.guasa.memory.HeapAnalyzer;
 
 public abstract class GuasaEvent {
@@ -26,15 +27,16 @@ public abstract class GuasaEvent {
 
     public static class ObjectTracked extends GuasaEvent {
         private final long objectId;
-        private final String className;
+        private final int classId;
 
-        public ObjectTracked(long objectId, String className) {
+        public ObjectTracked(long objectId, int classId) {
             this.objectId = objectId;
-            this.className = className;
+            this.classId = classId;
         }
 
         public long getObjectId() { return objectId; }
-        public String getClassName() { return className; }
+        public int getClassId() { return classId; }
+        public String getClassName() { return ClassRegistry.getName(classId); }
     }
 
     public static class ObjectUntracked extends GuasaEvent {
@@ -47,6 +49,23 @@ public abstract class GuasaEvent {
         public long getObjectId() { return objectId; }
     }
 
+    public static class ObjectCollected extends GuasaEvent {
+        private final long objectId;
+        private final int classId;
+        private final long lifetimeMs;
+
+        public ObjectCollected(long objectId, int classId, long lifetimeMs) {
+            this.objectId = objectId;
+            this.classId = classId;
+            this.lifetimeMs = lifetimeMs;
+        }
+
+        public long getObjectId() { return objectId; }
+        public int getClassId() { return classId; }
+        public String getClassName() { return ClassRegistry.getName(classId); }
+        public long getLifetimeMs() { return lifetimeMs; }
+    }
+
     public static class HeapAnalyzed extends GuasaEvent {
         private final HeapAnalyzer.HeapSnapshot snapshot;
 
@@ -57,10 +76,47 @@ public abstract class GuasaEvent {
         public HeapAnalyzer.HeapSnapshot getSnapshot() { return snapshot; }
     }
 
+    public static class LeakSuspected extends GuasaEvent {
+        private final int classId;
+        private final long instanceCount;
+        private final long memorySize;
+        private final double bytesPerSecond;
+        private final double growthScore;
+
+        public LeakSuspected(int classId, long instanceCount, long memorySize, double bytesPerSecond,
+                             double growthScore) {
+            this.classId = classId;
+            this.instanceCount = instanceCount;
+            this.memorySize = memorySize;
+            this.bytesPerSecond = bytesPerSecond;
+            this.growthScore = growthScore;
+        }
+
+        public int getClassId() { return classId; }
+        public String getClassName() { return ClassRegistry.getName(classId); }
+        public long getInstanceCount() { return instanceCount; }
+        public long getMemorySize() { return memorySize; }
+        public double getBytesPerSecond() { return bytesPerSecond; }
+        public double getGrowthScore() { return growthScore; }
+    }
+
     public static class ReferenceGraphUpdated extends GuasaEvent {}
 
     public static class AnalysisComplete extends GuasaEvent {}
 
+    public static class AnalysisThrottled extends GuasaEvent {
+        private final long delayMs;
+        private final int budgetPercent;
+
+        public AnalysisThrottled(long delayMs, int budgetPercent) {
+            this.delayMs = delayMs;
+            this.budgetPercent = budgetPercent;
+        }
+
+        public long getDelayMs() { return delayMs; }
+        public int getBudgetPercent() { return budgetPercent; }
+    }
+
     public static class ObjectSelected extends GuasaEvent {
         private final long objectId;
 
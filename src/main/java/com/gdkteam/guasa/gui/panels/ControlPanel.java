@@ -89,8 +89,7 @@ public class ControlPanel extends JPanel {
     }
 
     private void takeSnapshot() {
-        core.getHeapAnalyzer().analyze();
-        core.getReferenceGraph().update();
+        core.analyzeNow();
         JOptionPane.showMessageDialog(this, "Snapshot taken successfully");
     }
 }
@@ -8,18 +8,24 @@
 package com.gdkteam.guasa.gui.panels;
 
 import com.gdkteam.guasa.core.GuasaCore;
+import com.gdkteam.guasa.memory.ClassRegistry;
+import com.gdkteam.guasa.memory.DominatorTree;
 import com.gdkteam.guasa.memory.HeapAnalyzer;
+import com.gdkteam.guasa.memory.LogHistogram;
+import com.gdkteam.guasa.memory.SnapshotDiff;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.*;
-import java.util.List;
+import java.util.Arrays;
 
 public class HeapViewPanel extends JPanel {
     private final GuasaCore core;
     private final JTable classStatsTable;
     private final DefaultTableModel tableModel;
+    private final DefaultTableModel diffTableModel;
+    private final JCheckBox compareCheckBox;
+    private final JLabel baselineLabel;
     private final HeapVisualizationPanel visualizationPanel;
 
     public HeapViewPanel(GuasaCore core) {
@@ -29,7 +35,8 @@ public class HeapViewPanel extends JPanel {
         setBorder(BorderFactory.createTitledBorder("Heap View"));
 
         tableModel = new DefaultTableModel(
-            new String[]{"Class", "Instances", "Total Memory", "Avg Size", "% of Tracked"},
+            new String[]{"Class", "Instances", "Total Memory", "Retained", "Avg Size", "p50 Size", "p90 Size",
+                "p99 Size", "Max Size", "% of Tracked", "Median Age", "Collected", "Median Lifetime", "p90 Lifetime"},
             0
         ) {
             @Override
@@ -38,6 +45,30 @@ public class HeapViewPanel extends JPanel {
             }
         };
 
+        diffTableModel = new DefaultTableModel(
+            new String[]{"Class", "Change", "Baseline Instances", "Instances", "Instance Delta",
+                "Baseline Memory", "Memory", "Memory Delta", "Growth/s"},
+            0
+        ) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+
+        JButton baselineButton = new JButton("Set Baseline");
+        compareCheckBox = new JCheckBox("Compare to Baseline");
+        compareCheckBox.setEnabled(false);
+        baselineLabel = new JLabel("No baseline");
+        baselineButton.addActionListener(e -> setBaseline());
+        compareCheckBox.addActionListener(e -> updateView());
+
+        JPanel baselinePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        baselinePanel.add(baselineButton);
+        baselinePanel.add(compareCheckBox);
+        baselinePanel.add(baselineLabel);
+        add(baselinePanel, BorderLayout.NORTH);
+
         classStatsTable = new JTable(tableModel);
         classStatsTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
 
@@ -61,35 +92,102 @@ public class HeapViewPanel extends JPanel {
             return;
         }
 
-        updateTable(snapshot);
+        SnapshotDiff diff = compareCheckBox.isSelected() ? core.getHeapAnalyzer().diffFromBaseline() : null;
+        if (diff != null) {
+            updateDiffTable(diff);
+        } else {
+            updateTable(snapshot);
+        }
         visualizationPanel.updateVisualization(snapshot);
     }
 
+    private void setBaseline() {
+        HeapAnalyzer.HeapSnapshot baseline = core.getHeapAnalyzer().markBaseline();
+        if (baseline == null) {
+            return;
+        }
+        baselineLabel.setText(String.format("Baseline: %d objects, %s",
+            baseline.getTrackedObjectCount(), formatBytes(baseline.getTotalTrackedMemory())));
+        compareCheckBox.setEnabled(true);
+        updateView();
+    }
+
+    private void updateDiffTable(SnapshotDiff diff) {
+        if (classStatsTable.getModel() != diffTableModel) {
+            classStatsTable.setModel(diffTableModel);
+        }
+        diffTableModel.setRowCount(0);
+
+        Integer[] order = new Integer[diff.getClassCount()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i1, i2) -> Long.compare(diff.getMemorySizeDelta(i2), diff.getMemorySizeDelta(i1)));
+
+        for (int index : order) {
+            diffTableModel.addRow(new Object[]{
+                ClassRegistry.getSimpleName(diff.getClassId(index)),
+                diff.getChange(index),
+                diff.getBaselineInstanceCount(index),
+                diff.getCurrentInstanceCount(index),
+                formatSigned(diff.getInstanceCountDelta(index)),
+                formatBytes(diff.getBaselineMemorySize(index)),
+                formatBytes(diff.getCurrentMemorySize(index)),
+                formatSignedBytes(diff.getMemorySizeDelta(index)),
+                formatSignedBytes(Math.round(diff.getMemoryGrowthRate(index))) + "/s"
+            });
+        }
+    }
+
+    private String formatSigned(long value) {
+        return value > 0 ? "+" + value : String.valueOf(value);
+    }
+
+    private String formatSignedBytes(long bytes) {
+        return (bytes < 0 ? "-" : "+") + formatBytes(Math.abs(bytes));
+    }
+
     private void updateTable(HeapAnalyzer.HeapSnapshot snapshot) {
+        if (classStatsTable.getModel() != tableModel) {
+            classStatsTable.setModel(tableModel);
+        }
         tableModel.setRowCount(0);
 
-        Map<String, Integer> objectCounts = snapshot.getObjectCountByClass();
-        Map<String, Long> memorySizes = snapshot.getMemorySizeByClass();
-
-        List<Map.Entry<String, Long>> sortedEntries = new ArrayList<>(memorySizes.entrySet());
-        sortedEntries.sort((e1, e2) -> Long.compare(e2.getValue(), e1.getValue()));
+        Integer[] order = new Integer[snapshot.getClassCount()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i1, i2) -> Long.compare(snapshot.getMemorySize(i2), snapshot.getMemorySize(i1)));
 
         long totalMemory = snapshot.getTotalTrackedMemory();
+        DominatorTree dominators = core.getReferenceGraph().getDominatorTree();
 
-        for (Map.Entry<String, Long> entry : sortedEntries) {
-            String className = entry.getKey();
-            String shortName = className.substring(className.lastIndexOf('.') + 1);
-            int count = objectCounts.getOrDefault(className, 0);
-            long memory = entry.getValue();
+        for (int index : order) {
+            String shortName = ClassRegistry.getSimpleName(snapshot.getClassId(index));
+            int count = snapshot.getInstanceCount(index);
+            long memory = snapshot.getMemorySize(index);
+            long retained = dominators.getClassRetainedSize(snapshot.getClassId(index));
             long avgSize = count > 0 ? memory / count : 0;
             double percentage = totalMemory > 0 ? (memory * 100.0 / totalMemory) : 0;
+            LogHistogram.Snapshot ages = snapshot.getAgeHistogram(index);
+            LogHistogram.Snapshot lifetimes = snapshot.getLifetimeHistogram(index);
+            LogHistogram.Snapshot sizes = snapshot.getSizeHistogram(index);
 
             tableModel.addRow(new Object[]{
                 shortName,
                 count,
                 formatBytes(memory),
+                retained > 0 ? formatBytes(retained) : "-",
                 formatBytes(avgSize),
-                String.format("%.2f%%", percentage)
+                sizes.isEmpty() ? "-" : formatBytes(sizes.getValueAtPercentile(50)),
+                sizes.isEmpty() ? "-" : formatBytes(sizes.getValueAtPercentile(90)),
+                sizes.isEmpty() ? "-" : formatBytes(sizes.getValueAtPercentile(99)),
+                sizes.isEmpty() ? "-" : formatBytes(sizes.getMax()),
+                String.format("%.2f%%", percentage),
+                ages.isEmpty() ? "-" : formatDuration(ages.getValueAtPercentile(50)),
+                lifetimes.getTotalCount(),
+                lifetimes.isEmpty() ? "-" : formatDuration(lifetimes.getValueAtPercentile(50)),
+                lifetimes.isEmpty() ? "-" : formatDuration(lifetimes.getValueAtPercentile(90))
             });
         }
     }
@@ -101,6 +199,13 @@ public class HeapViewPanel extends JPanel {
         return String.format("%.2f GB", bytes / (1024.0 * 1024 * 1024));
     }
 
+    private String formatDuration(long millis) {
+        if (millis < 1000) return millis + " ms";
+        if (millis < 60_000) return String.format("%.1f s", millis / 1000.0);
+        if (millis < 3_600_000) return String.format("%.1f min", millis / 60_000.0);
+        return String.format("%.1f h", millis / 3_600_000.0);
+    }
+
     private class HeapVisualizationPanel extends JPanel {
         private HeapAnalyzer.HeapSnapshot currentSnapshot;
 
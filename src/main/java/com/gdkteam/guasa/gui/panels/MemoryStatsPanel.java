@@ -8,18 +8,28 @@
 package com.gdkteam.guasa.gui.panels;
 
 import com.gdkteam.guasa.core.GuasaCore;
+import com.gdkteam.guasa.core.OverheadGovernor;
 import com.gdkteam.guasa.memory.HeapAnalyzer;
+import com.gdkteam.guasa.memory.HeapTimeSeries;
 
 import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 
 public class MemoryStatsPanel extends JPanel {
+    private static final long HISTORY_WINDOW_MS = 5 * 60 * 1000;
+
     private final GuasaCore core;
     private final JLabel heapUsedLabel;
     private final JLabel heapMaxLabel;
     private final JLabel trackedObjectsLabel;
     private final JLabel trackedMemoryLabel;
+    private final JLabel allocationRateLabel;
+    private final JLabel snapshotAgeLabel;
+    private final DefaultTableModel poolTableModel;
     private final JProgressBar heapUsageBar;
+    private final HistoryChart historyChart;
+    private long lastThrottledNanos;
 
     public MemoryStatsPanel(GuasaCore core) {
         this.core = core;
@@ -35,6 +45,21 @@ public class MemoryStatsPanel extends JPanel {
         heapMaxLabel = new JLabel("Heap Max: --");
         trackedObjectsLabel = new JLabel("Tracked Objects: --");
         trackedMemoryLabel = new JLabel("Tracked Memory: --");
+        allocationRateLabel = new JLabel("Allocation Rate: --");
+        snapshotAgeLabel = new JLabel("Snapshot Age: --");
+
+        poolTableModel = new DefaultTableModel(
+            new String[]{"Memory Pool", "Used", "Committed", "Max", "Peak", "After GC"},
+            0
+        ) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable poolTable = new JTable(poolTableModel);
+        poolTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
+        poolTable.setPreferredScrollableViewportSize(new Dimension(600, poolTable.getRowHeight() * 6));
 
         heapUsageBar = new JProgressBar(0, 100);
         heapUsageBar.setStringPainted(true);
@@ -61,6 +86,24 @@ public class MemoryStatsPanel extends JPanel {
 
         gbc.gridx = 3;
         add(trackedMemoryLabel, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 2;
+        gbc.gridwidth = 2;
+        add(allocationRateLabel, gbc);
+
+        gbc.gridx = 2;
+        add(snapshotAgeLabel, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 3;
+        gbc.gridwidth = 4;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        add(new JScrollPane(poolTable), gbc);
+
+        historyChart = new HistoryChart();
+        gbc.gridy = 4;
+        add(historyChart, gbc);
     }
 
     public void updateStats() {
@@ -70,11 +113,42 @@ public class MemoryStatsPanel extends JPanel {
             return;
         }
 
+        long now = System.currentTimeMillis();
+        HeapTimeSeries.Series history = core.getHeapHistory().query(now - HISTORY_WINDOW_MS, now);
+
+        // Stale when the governor held analysis back since the previous refresh
+        OverheadGovernor governor = core.getOverheadGovernor();
+        long throttledNanos = governor.getThrottledNanos();
+        boolean throttled = throttledNanos != lastThrottledNanos || governor.isOverBudget();
+        lastThrottledNanos = throttledNanos;
+        String snapshotAge = String.format("Snapshot Age: %.1f s", (now - snapshot.getTimestamp()) / 1000.0)
+            + (throttled ? " (stale, throttled to " + governor.getBudgetPercent() + "% CPU)" : "");
+
         SwingUtilities.invokeLater(() -> {
+            historyChart.setSeries(history, now);
+            snapshotAgeLabel.setText(snapshotAge);
+            snapshotAgeLabel.setForeground(throttled ? Color.ORANGE.darker() : getForeground());
             heapUsedLabel.setText("Heap Used: " + formatBytes(snapshot.getHeapUsed()));
             heapMaxLabel.setText("Heap Max: " + formatBytes(snapshot.getHeapMax()));
-            trackedObjectsLabel.setText("Tracked Objects: " + snapshot.getTrackedObjectCount());
-            trackedMemoryLabel.setText("Tracked Memory: " + formatBytes(snapshot.getTotalTrackedMemory()));
+            if (snapshot.isSampled()) {
+                trackedObjectsLabel.setText(String.format("Tracked Objects: %d (est. %d @ %d%%)",
+                    snapshot.getTrackedObjectCount(),
+                    snapshot.getEstimatedObjectCount(),
+                    snapshot.getSamplingRate()));
+                trackedMemoryLabel.setText("Tracked Memory: " + formatBytes(snapshot.getTotalTrackedMemory()) +
+                    " (est. " + formatBytes(snapshot.getEstimatedTotalMemory()) + ")");
+            } else {
+                trackedObjectsLabel.setText("Tracked Objects: " + snapshot.getTrackedObjectCount());
+                trackedMemoryLabel.setText("Tracked Memory: " + formatBytes(snapshot.getTotalTrackedMemory()));
+            }
+
+            if (snapshot.getAllocationRate() >= 0) {
+                allocationRateLabel.setText("Allocation Rate: " + formatBytes((long) snapshot.getAllocationRate())
+                    + "/s (" + formatBytes(snapshot.getAllocatedBytes()) + " total)");
+            } else {
+                allocationRateLabel.setText("Allocation Rate: --");
+            }
+            updatePoolTable(snapshot);
 
             int usagePercent = (int) snapshot.getHeapUsagePercentage();
             heapUsageBar.setValue(usagePercent);
@@ -90,6 +164,110 @@ public class MemoryStatsPanel extends JPanel {
         });
     }
 
+    /**
+     * Heap pools first, so eden, survivor and old generation usage can be compared.
+     */
+    private void updatePoolTable(HeapAnalyzer.HeapSnapshot snapshot) {
+        poolTableModel.setRowCount(0);
+        for (boolean heap : new boolean[]{true, false}) {
+            for (int i = 0; i < snapshot.getMemoryPoolCount(); i++) {
+                HeapAnalyzer.MemoryPoolStats pool = snapshot.getMemoryPool(i);
+                if (pool.isHeap() != heap) {
+                    continue;
+                }
+                poolTableModel.addRow(new Object[]{
+                    pool.getName(),
+                    formatBytes(pool.getUsed()),
+                    formatBytes(pool.getCommitted()),
+                    pool.getMax() >= 0 ? formatBytes(pool.getMax()) : "--",
+                    pool.getPeakUsed() >= 0 ? formatBytes(pool.getPeakUsed()) : "--",
+                    pool.getUsedAfterCollection() >= 0 ? formatBytes(pool.getUsedAfterCollection()) : "--"
+                });
+            }
+        }
+    }
+
+    /**
+     * Heap used over the last few minutes: the average as a line over the band between
+     * the minimum and maximum of each bucket, with heap committed as a second line.
+     */
+    private class HistoryChart extends JComponent {
+        private HeapTimeSeries.Series series;
+        private long now;
+
+        HistoryChart() {
+            setPreferredSize(new Dimension(600, 120));
+            setToolTipText("Heap used (blue) and committed (gray), last "
+                + HISTORY_WINDOW_MS / 60_000 + " minutes");
+        }
+
+        void setSeries(HeapTimeSeries.Series series, long now) {
+            this.series = series;
+            this.now = now;
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2d = (Graphics2D) g.create();
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setColor(Color.WHITE);
+            g2d.fillRect(0, 0, getWidth(), getHeight());
+            g2d.setColor(Color.LIGHT_GRAY);
+            g2d.drawRect(0, 0, getWidth() - 1, getHeight() - 1);
+
+            if (series == null || series.getPointCount() == 0) {
+                g2d.dispose();
+                return;
+            }
+
+            int points = series.getPointCount();
+            long maxValue = 1;
+            for (int i = 0; i < points; i++) {
+                maxValue = Math.max(maxValue, series.getMax(i, HeapTimeSeries.Metric.HEAP_COMMITTED));
+                maxValue = Math.max(maxValue, series.getMax(i, HeapTimeSeries.Metric.HEAP_USED));
+            }
+
+            int[] xs = new int[points];
+            int[] minYs = new int[points];
+            int[] maxYs = new int[points];
+            int[] averageYs = new int[points];
+            int[] committedYs = new int[points];
+            for (int i = 0; i < points; i++) {
+                long center = series.getTimestamp(i) + series.getResolutionMillis() / 2;
+                xs[i] = (int) ((getWidth() - 1) * (1.0 - (double) (now - center) / HISTORY_WINDOW_MS));
+                minYs[i] = toY(series.getMin(i, HeapTimeSeries.Metric.HEAP_USED), maxValue);
+                maxYs[i] = toY(series.getMax(i, HeapTimeSeries.Metric.HEAP_USED), maxValue);
+                averageYs[i] = toY(series.getAverage(i, HeapTimeSeries.Metric.HEAP_USED), maxValue);
+                committedYs[i] = toY(series.getAverage(i, HeapTimeSeries.Metric.HEAP_COMMITTED), maxValue);
+            }
+
+            int[] bandXs = new int[points * 2];
+            int[] bandYs = new int[points * 2];
+            for (int i = 0; i < points; i++) {
+                bandXs[i] = xs[i];
+                bandYs[i] = maxYs[i];
+                bandXs[points * 2 - 1 - i] = xs[i];
+                bandYs[points * 2 - 1 - i] = minYs[i];
+            }
+            g2d.setColor(new Color(100, 150, 255, 60));
+            g2d.fillPolygon(bandXs, bandYs, points * 2);
+
+            g2d.setColor(Color.GRAY);
+            g2d.drawPolyline(xs, committedYs, points);
+            g2d.setColor(new Color(100, 150, 255));
+            g2d.drawPolyline(xs, averageYs, points);
+
+            g2d.setColor(Color.DARK_GRAY);
+            g2d.drawString(formatBytes(maxValue), 4, 12);
+            g2d.dispose();
+        }
+
+        private int toY(double value, long maxValue) {
+            return (int) ((getHeight() - 1) * (1.0 - value / maxValue));
+        }
+    }
+
     private String formatBytes(long bytes) {
         if (bytes < 1024) return bytes + " B";
         if (bytes < 1024 * 1024) return String.format("%.2f KB", bytes / 1024.0);
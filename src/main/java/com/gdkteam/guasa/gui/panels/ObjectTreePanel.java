@@ -9,9 +9,11 @@ package com.gdkteam.guasa.gui.panels;
 
 import com.gdkteam.guasa.core.GuasaCore;
 import com.gdkteam.guasa.event.GuasaEvent;
-import com.gdkteam.guasa.memory.ObjectTracker;
+import com.gdkteam.guasa.memory.ClassRegistry;
+import com.gdkteam.guasa.memory.TrackedObjectCursor;
 
 import javax.swing.*;
+import javax.swing.Timer;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
 import javax.swing.tree.TreePath;
@@ -75,19 +77,31 @@ public class ObjectTreePanel extends JPanel {
 
     private void refreshTree() {
         String filterText = filterField.getText().toLowerCase();
-        Collection<ObjectTracker.TrackedObject> trackedObjects = core.getObjectTracker().getAllTrackedObjects();
+        TrackedObjectCursor cursor = core.getObjectTracker().cursor();
 
         Map<String, List<ObjectNode>> objectsByClass = new HashMap<>();
+        Map<Integer, List<ObjectNode>> objectsByClassId = new HashMap<>();
+        Set<Integer> filteredClassIds = new HashSet<>();
+
+        while (cursor.next()) {
+            int classId = cursor.getClassId();
+            long id = cursor.getId();
+            int identityHashCode = cursor.getIdentityHashCode();
+            if (filteredClassIds.contains(classId) || cursor.peekObject() == null) {
+                continue;
+            }
 
-        for (ObjectTracker.TrackedObject tracked : trackedObjects) {
-            if (tracked.isAlive()) {
-                String className = tracked.getClassName();
-
-                if (filterText.isEmpty() || className.toLowerCase().contains(filterText)) {
-                    objectsByClass.computeIfAbsent(className, k -> new ArrayList<>())
-                        .add(new ObjectNode(tracked.getId(), className, tracked.getIdentityHashCode()));
+            List<ObjectNode> objects = objectsByClassId.get(classId);
+            if (objects == null) {
+                String className = ClassRegistry.getName(classId);
+                if (!filterText.isEmpty() && !className.toLowerCase().contains(filterText)) {
+                    filteredClassIds.add(classId);
+                    continue;
                 }
+                objects = objectsByClass.computeIfAbsent(className, k -> new ArrayList<>());
+                objectsByClassId.put(classId, objects);
             }
+            objects.add(new ObjectNode(id, ClassRegistry.getName(classId), identityHashCode));
         }
 
         SwingUtilities.invokeLater(() -> {
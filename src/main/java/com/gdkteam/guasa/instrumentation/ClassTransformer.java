@@ -17,6 +17,7 @@ import java.security.ProtectionDomain;
 
 public class ClassTransformer implements ClassFileTransformer {
     private static final Logger logger = LoggerFactory.getLogger(ClassTransformer.class);
+    static final String CLASS_FIELD = "guasa$class";
 
     private final AgentConfiguration config;
     private long transformCount = 0;
@@ -36,7 +37,8 @@ public class ClassTransformer implements ClassFileTransformer {
             ClassReader reader = new ClassReader(classfileBuffer);
             ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
 
-            ObjectTrackingVisitor visitor = new ObjectTrackingVisitor(Opcodes.ASM9, writer, className);
+            ObjectTrackingVisitor visitor = new ObjectTrackingVisitor(Opcodes.ASM9, writer, className,
+                classBeingRedefined == null || hasClassField(classBeingRedefined));
             reader.accept(visitor, ClassReader.EXPAND_FRAMES);
 
             transformCount++;
@@ -56,12 +58,39 @@ public class ClassTransformer implements ClassFileTransformer {
         return transformCount;
     }
 
+    /**
+     * A redefinition cannot add fields, so a class loaded before the agent has no field
+     * to hold its class object.
+     */
+    private static boolean hasClassField(Class<?> type) {
+        try {
+            type.getDeclaredField(CLASS_FIELD);
+            return true;
+        } catch (NoSuchFieldException | SecurityException e) {
+            return false;
+        }
+    }
+
     private static class ObjectTrackingVisitor extends ClassVisitor {
         private final String className;
+        private final boolean canAddField;
+        private ClassSource classSource = ClassSource.LITERAL;
+        private boolean classFieldUsed;
 
-        public ObjectTrackingVisitor(int api, ClassVisitor cv, String className) {
+        public ObjectTrackingVisitor(int api, ClassVisitor cv, String className, boolean canAddField) {
             super(api, cv);
             this.className = className;
+            this.canAddField = canAddField;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName,
+                          String[] interfaces) {
+            super.visit(version, access, name, signature, superName, interfaces);
+            // ldc of a class constant needs a Java 5 class file
+            if ((version & 0xFFFF) < Opcodes.V1_5) {
+                classSource = canAddField ? ClassSource.FIELD : ClassSource.NONE;
+            }
         }
 
         @Override
@@ -69,39 +98,106 @@ public class ClassTransformer implements ClassFileTransformer {
                                         String signature, String[] exceptions) {
             MethodVisitor mv = super.visitMethod(access, name, descriptor, signature, exceptions);
 
-            if (name.equals("<init>")) {
-                return new ConstructorTrackingVisitor(api, mv, className);
+            if (name.equals("<init>") && classSource != ClassSource.NONE) {
+                classFieldUsed |= classSource == ClassSource.FIELD;
+                return new ConstructorTrackingVisitor(api, mv, className, classSource);
             }
 
             return mv;
         }
+
+        @Override
+        public void visitEnd() {
+            if (classFieldUsed) {
+                super.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC, CLASS_FIELD,
+                    "Ljava/lang/Class;", null, null).visitEnd();
+            }
+            super.visitEnd();
+        }
     }
 
+    /**
+     * How an instrumented constructor gets its declaring class: a class literal, or, in
+     * class files older than Java 5, a synthetic static field filled by
+     * {@link Class#forName(String)} on first use, as compilers of that time did.
+     * Constructors of old classes that cannot get a new field are not instrumented.
+     */
+    private enum ClassSource {
+        LITERAL,
+        FIELD,
+        NONE
+    }
+
+    /**
+     * Inserts the allocation hook after the constructor's own {@code super(...)} call.
+     * Constructors of objects created while evaluating the arguments of that call are
+     * matched to their {@code new} instructions and skipped. Constructors that delegate
+     * with {@code this(...)} get no hook, since the constructor they call has one, and the
+     * hook passes the declaring class so that an object running the constructors of its
+     * superclasses is only recorded, and sampled, once.
+     */
     private static class ConstructorTrackingVisitor extends MethodVisitor {
         private final String className;
+        private final ClassSource classSource;
+        private int pendingNews = 0;
         private boolean constructorCallFound = false;
 
-        public ConstructorTrackingVisitor(int api, MethodVisitor mv, String className) {
+        public ConstructorTrackingVisitor(int api, MethodVisitor mv, String className, ClassSource classSource) {
             super(api, mv);
             this.className = className;
+            this.classSource = classSource;
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            super.visitTypeInsn(opcode, type);
+
+            if (opcode == Opcodes.NEW && !constructorCallFound) {
+                pendingNews++;
+            }
         }
 
         @Override
         public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
             super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
 
-            if (opcode == Opcodes.INVOKESPECIAL && name.equals("<init>") && !constructorCallFound) {
-                constructorCallFound = true;
-
-                super.visitVarInsn(Opcodes.ALOAD, 0);
-                super.visitMethodInsn(
-                    Opcodes.INVOKESTATIC,
-                    "com/gdkteam/guasa/api/GuasaAPI",
-                    "trackObject",
-                    "(Ljava/lang/Object;)V",
-                    false
-                );
+            if (opcode != Opcodes.INVOKESPECIAL || !name.equals("<init>") || constructorCallFound) {
+                return;
+            }
+            if (pendingNews > 0) {
+                pendingNews--;
+                return;
+            }
+
+            constructorCallFound = true;
+            if (owner.equals(className)) {
+                return;
+            }
+
+            super.visitVarInsn(Opcodes.ALOAD, 0);
+            if (classSource == ClassSource.LITERAL) {
+                super.visitLdcInsn(Type.getObjectType(className));
+            } else {
+                // Class files older than Java 6 have no stack map frames to update
+                Label loaded = new Label();
+                super.visitFieldInsn(Opcodes.GETSTATIC, className, CLASS_FIELD, "Ljava/lang/Class;");
+                super.visitInsn(Opcodes.DUP);
+                super.visitJumpInsn(Opcodes.IFNONNULL, loaded);
+                super.visitInsn(Opcodes.POP);
+                super.visitLdcInsn(Type.getObjectType(className).getClassName());
+                super.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Class", "forName",
+                    "(Ljava/lang/String;)Ljava/lang/Class;", false);
+                super.visitInsn(Opcodes.DUP);
+                super.visitFieldInsn(Opcodes.PUTSTATIC, className, CLASS_FIELD, "Ljava/lang/Class;");
+                super.visitLabel(loaded);
             }
+            super.visitMethodInsn(
+                Opcodes.INVOKESTATIC,
+                "com/gdkteam/guasa/api/GuasaAPI",
+                "recordAllocation",
+                "(Ljava/lang/Object;Ljava/lang/Class;)V",
+                false
+            );
         }
     }
 }
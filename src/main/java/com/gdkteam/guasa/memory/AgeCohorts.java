@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import java.util.Arrays;
+
+/**
+ * Per-class counts of live tracked objects grouped into tracking-time cohorts; not thread-safe.
+ */
+class AgeCohorts {
+    private final int subBucketBits;
+    private final int maxValueBits;
+    private Cohorts[] byClass = new Cohorts[0];
+
+    AgeCohorts(int subBucketBits, int maxValueBits) {
+        this.subBucketBits = subBucketBits;
+        this.maxValueBits = maxValueBits;
+    }
+
+    void add(int classId, long trackingTimestamp) {
+        cohortsFor(classId).add(trackingTimestamp);
+    }
+
+    void remove(int classId, long trackingTimestamp) {
+        if (classId < byClass.length && byClass[classId] != null) {
+            byClass[classId].remove(trackingTimestamp);
+        }
+    }
+
+    /**
+     * Replaces the cohorts of {@code classId} with one cohort per non-empty bucket of
+     * {@code ages}, a histogram of object ages measured at {@code now}.
+     */
+    void reset(int classId, LogHistogram.Snapshot ages, long now) {
+        Cohorts cohorts = cohortsFor(classId);
+        cohorts.clear();
+        for (int bucket = ages.getBucketCount() - 1; bucket >= 0; bucket--) {
+            long count = ages.getBucketValueCount(bucket);
+            if (count > 0) {
+                cohorts.append(now - ages.getBucketUpperBound(bucket), now - ages.getBucketLowerBound(bucket), count);
+            }
+        }
+        cohorts.sealed = cohorts.size;
+    }
+
+    void clear() {
+        byClass = new Cohorts[0];
+    }
+
+    /**
+     * Closes the open cohort of every class and merges cohorts that have become narrow
+     * compared to their age at {@code now}.
+     */
+    void seal(long now) {
+        for (Cohorts cohorts : byClass) {
+            if (cohorts != null) {
+                cohorts.sealed = cohorts.size;
+                cohorts.compact(now, subBucketBits);
+            }
+        }
+    }
+
+    LogHistogram.Snapshot snapshot(int classId, long now) {
+        if (classId >= byClass.length || byClass[classId] == null) {
+            return LogHistogram.Snapshot.empty(subBucketBits);
+        }
+
+        Cohorts cohorts = byClass[classId];
+        LogHistogram histogram = new LogHistogram(subBucketBits, maxValueBits);
+        for (int i = 0; i < cohorts.size; i++) {
+            if (cohorts.counts[i] > 0) {
+                long midpoint = cohorts.starts[i] + (cohorts.ends[i] - cohorts.starts[i]) / 2;
+                histogram.record(now - midpoint, cohorts.counts[i]);
+            }
+        }
+        return histogram.snapshot();
+    }
+
+    private Cohorts cohortsFor(int classId) {
+        if (classId >= byClass.length) {
+            byClass = Arrays.copyOf(byClass, Math.max(classId + 1, ClassRegistry.size()));
+        }
+        if (byClass[classId] == null) {
+            byClass[classId] = new Cohorts();
+        }
+        return byClass[classId];
+    }
+
+    private static final class Cohorts {
+        long[] starts = new long[4];
+        long[] ends = new long[4];
+        long[] counts = new long[4];
+        int size;
+        int sealed;
+
+        void add(long timestamp) {
+            if (size == sealed && (sealed == 0 || timestamp > ends[sealed - 1])) {
+                append(timestamp, timestamp, 1);
+                return;
+            }
+            int i = indexOf(timestamp);
+            starts[i] = Math.min(starts[i], timestamp);
+            ends[i] = Math.max(ends[i], timestamp);
+            counts[i]++;
+        }
+
+        void remove(long timestamp) {
+            if (size == 0) {
+                return;
+            }
+            int i = indexOf(timestamp);
+            if (counts[i] > 0) {
+                counts[i]--;
+            }
+        }
+
+        /**
+         * Returns the open cohort for timestamps after the sealed ones, otherwise the
+         * last cohort starting at or before {@code timestamp}.
+         */
+        int indexOf(long timestamp) {
+            if (size > sealed && (sealed == 0 || timestamp > ends[sealed - 1])) {
+                return size - 1;
+            }
+            int low = 0;
+            int high = Math.min(size, sealed) - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (starts[mid] <= timestamp) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+
+        void append(long start, long end, long count) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            counts[size] = count;
+            size++;
+        }
+
+        void compact(long now, int subBucketBits) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (counts[i] == 0) {
+                    continue;
+                }
+                if (kept > 0 && ends[i] - starts[kept - 1] <= (now - ends[i]) >> (subBucketBits + 1)) {
+                    ends[kept - 1] = ends[i];
+                    counts[kept - 1] += counts[i];
+                    continue;
+                }
+                starts[kept] = starts[i];
+                ends[kept] = ends[i];
+                counts[kept] = counts[i];
+                kept++;
+            }
+            size = kept;
+            sealed = kept;
+        }
+
+        void clear() {
+            size = 0;
+            sealed = 0;
+        }
+    }
+}
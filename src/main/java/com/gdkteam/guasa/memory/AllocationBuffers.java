@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-thread single-producer/single-consumer ring buffers of pending allocations.
+ */
+public class AllocationBuffers {
+    public static final long NO_ID = -1;
+
+    private static final int ID_BLOCK_SIZE = 1024;
+
+    private final int capacity;
+    private final AtomicLong idGenerator;
+    private final AtomicInteger generation;
+    private final Queue<ThreadBuffer> buffers;
+    private final ThreadLocal<ThreadBuffer> localBuffer;
+
+    public AllocationBuffers(int capacity, AtomicLong idGenerator) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+
+        this.capacity = size;
+        this.idGenerator = idGenerator;
+        this.generation = new AtomicInteger();
+        this.buffers = new ConcurrentLinkedQueue<>();
+        this.localBuffer = ThreadLocal.withInitial(this::registerBuffer);
+    }
+
+    public long offer(Object obj, float sampleWeight, int siteId) {
+        return localBuffer.get().offer(obj, sampleWeight, siteId);
+    }
+
+    public synchronized int drain(Sink sink) {
+        int drained = 0;
+        int currentGeneration = generation.get();
+
+        Iterator<ThreadBuffer> it = buffers.iterator();
+        while (it.hasNext()) {
+            ThreadBuffer buffer = it.next();
+            drained += buffer.drain(sink, currentGeneration);
+
+            if (!buffer.owner.isAlive() && buffer.isEmpty()) {
+                it.remove();
+            }
+        }
+
+        return drained;
+    }
+
+    public int getPendingCount() {
+        int pending = 0;
+        for (ThreadBuffer buffer : buffers) {
+            pending += buffer.size();
+        }
+        return pending;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Discards pending entries and forces every thread to take a fresh ID block, so IDs
+     * handed out before a tracker reset are never reused after it.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        drain((obj, id, weight, siteId) -> { });
+    }
+
+    private ThreadBuffer registerBuffer() {
+        ThreadBuffer buffer = new ThreadBuffer(Thread.currentThread(), capacity);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    @FunctionalInterface
+    public interface Sink {
+        void accept(Object obj, long id, float sampleWeight, int siteId);
+    }
+
+    private final class ThreadBuffer {
+        private final Thread owner;
+        private final int mask;
+        private final WeakReference<?>[] refs;
+        private final long[] ids;
+        private final float[] weights;
+        private final int[] siteIds;
+        private final int[] generations;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+        private long nextId;
+        private long idLimit;
+        private int idGeneration = -1;
+
+        ThreadBuffer(Thread owner, int capacity) {
+            this.owner = owner;
+            this.mask = capacity - 1;
+            this.refs = new WeakReference<?>[capacity];
+            this.ids = new long[capacity];
+            this.weights = new float[capacity];
+            this.siteIds = new int[capacity];
+            this.generations = new int[capacity];
+        }
+
+        long offer(Object obj, float sampleWeight, int siteId) {
+            long t = tail.get();
+            if (t - head.get() > mask) {
+                return NO_ID;
+            }
+
+            int currentGeneration = generation.get();
+            if (nextId == idLimit || idGeneration != currentGeneration) {
+                nextId = idGenerator.getAndAdd(ID_BLOCK_SIZE);
+                idLimit = nextId + ID_BLOCK_SIZE;
+                idGeneration = currentGeneration;
+            }
+
+            long id = nextId++;
+            int index = (int) t & mask;
+            refs[index] = new WeakReference<>(obj);
+            ids[index] = id;
+            weights[index] = sampleWeight;
+            siteIds[index] = siteId;
+            generations[index] = currentGeneration;
+            tail.lazySet(t + 1);
+            return id;
+        }
+
+        int drain(Sink sink, int currentGeneration) {
+            long h = head.get();
+            long t = tail.get();
+
+            for (long i = h; i < t; i++) {
+                int index = (int) i & mask;
+                WeakReference<?> ref = refs[index];
+                refs[index] = null;
+
+                Object obj = ref.get();
+                if (obj != null && generations[index] == currentGeneration) {
+                    sink.accept(obj, ids[index], weights[index], siteIds[index]);
+                }
+            }
+
+            head.lazySet(t);
+            return (int) (t - h);
+        }
+
+        boolean isEmpty() {
+            return head.get() == tail.get();
+        }
+
+        int size() {
+            return (int) (tail.get() - head.get());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import com.sun.management.ThreadMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Running total of bytes allocated by all JVM threads, from bulk per-thread counters; not thread-safe.
+ */
+final class AllocationCounter {
+    private static final Logger logger = LoggerFactory.getLogger(AllocationCounter.class);
+
+    private final ThreadMXBean threadMXBean;
+    private LongIntHashMap previousIndex;
+    private long[] previousBytes;
+    private long totalBytes;
+    private boolean sampled;
+
+    AllocationCounter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        ThreadMXBean allocationBean = null;
+        if (bean instanceof ThreadMXBean && ((ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            allocationBean = (ThreadMXBean) bean;
+            if (!allocationBean.isThreadAllocatedMemoryEnabled()) {
+                allocationBean.setThreadAllocatedMemoryEnabled(true);
+            }
+        } else {
+            logger.info("Thread allocation counters not supported, allocation rate unavailable");
+        }
+        this.threadMXBean = allocationBean;
+        this.previousIndex = new LongIntHashMap(64);
+        this.previousBytes = new long[0];
+    }
+
+    boolean isSupported() {
+        return threadMXBean != null;
+    }
+
+    /**
+     * Returns the bytes allocated since the first sample, or {@code -1} if thread
+     * allocation counters are not available.
+     */
+    long sample() {
+        if (threadMXBean == null) {
+            return -1;
+        }
+
+        long[] threadIds = threadMXBean.getAllThreadIds();
+        long[] allocated = threadMXBean.getThreadAllocatedBytes(threadIds);
+        LongIntHashMap index = new LongIntHashMap(threadIds.length);
+
+        for (int i = 0; i < threadIds.length; i++) {
+            if (allocated[i] < 0) {
+                // Thread died between the two calls
+                continue;
+            }
+            index.put(threadIds[i], i);
+            if (sampled) {
+                int previous = previousIndex.get(threadIds[i]);
+                totalBytes += allocated[i] - (previous != LongIntHashMap.NO_VALUE ? previousBytes[previous] : 0);
+            }
+        }
+
+        previousIndex = index;
+        previousBytes = allocated;
+        sampled = true;
+        return totalBytes;
+    }
+}
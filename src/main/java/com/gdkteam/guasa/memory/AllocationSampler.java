@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Samples allocations with per-thread geometric countdowns at {@code samplingRate} percent.
+ */
+public class AllocationSampler {
+    public static final int MAX_SAMPLING_RATE = 100;
+
+    private final int samplingRate;
+    private final double logComplement;
+    private final float sampleWeight;
+    private final ThreadLocal<Countdown> countdown;
+
+    public AllocationSampler(int samplingRate) {
+        this.samplingRate = Math.max(1, Math.min(MAX_SAMPLING_RATE, samplingRate));
+        double probability = this.samplingRate / (double) MAX_SAMPLING_RATE;
+        this.logComplement = Math.log1p(-probability);
+        this.sampleWeight = (float) (1.0 / probability);
+        this.countdown = ThreadLocal.withInitial(() -> new Countdown(nextInterval()));
+    }
+
+    public boolean shouldSample() {
+        if (samplingRate == MAX_SAMPLING_RATE) {
+            return true;
+        }
+
+        Countdown state = countdown.get();
+        if (--state.remaining > 0) {
+            return false;
+        }
+
+        state.remaining = nextInterval();
+        return true;
+    }
+
+    public boolean isSamplingAll() {
+        return samplingRate == MAX_SAMPLING_RATE;
+    }
+
+    public int getSamplingRate() {
+        return samplingRate;
+    }
+
+    public float getSampleWeight() {
+        return sampleWeight;
+    }
+
+    private long nextInterval() {
+        if (samplingRate == MAX_SAMPLING_RATE) {
+            return 1;
+        }
+        double u = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return (long) (Math.log(u) / logComplement) + 1;
+    }
+
+    private static final class Countdown {
+        private long remaining;
+
+        Countdown(long remaining) {
+            this.remaining = remaining;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+/**
+ * Captures and interns the allocation site of a sampled fraction of tracked objects.
+ */
+public class AllocationSiteRecorder {
+    private static final String GUASA_PACKAGE = "com.gdkteam.guasa.";
+
+    private final StackTable stackTable;
+    private final AllocationSampler sampler;
+    private final StackWalker walker;
+    private final int maxFrames;
+
+    public AllocationSiteRecorder(int samplingRate, int maxFrames) {
+        this.stackTable = new StackTable();
+        this.sampler = new AllocationSampler(samplingRate);
+        this.walker = StackWalker.getInstance();
+        this.maxFrames = Math.max(1, maxFrames);
+    }
+
+    /**
+     * Returns the stack ID of the caller's allocation site, or {@link StackTable#EMPTY_STACK}
+     * when this allocation is not sampled.
+     */
+    public int capture() {
+        if (!sampler.shouldSample()) {
+            return StackTable.EMPTY_STACK;
+        }
+
+        StackWalker.StackFrame[] frames = walker.walk(stream -> stream
+            .dropWhile(frame -> frame.getClassName().startsWith(GUASA_PACKAGE))
+            .limit(maxFrames)
+            .toArray(StackWalker.StackFrame[]::new));
+        return stackTable.intern(frames);
+    }
+
+    public StackTable getStackTable() {
+        return stackTable;
+    }
+
+    public int getSamplingRate() {
+        return sampler.getSamplingRate();
+    }
+
+    /**
+     * Factor by which per-site figures are scaled to estimate all tracked objects.
+     */
+    public float getSampleWeight() {
+        return sampler.getSampleWeight();
+    }
+
+    public int getMaxFrames() {
+        return maxFrames;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import com.gdkteam.guasa.core.OverheadGovernor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Scans the tracked objects in slot-range chunks, on a worker pool and under the CPU budget.
+ */
+final class ChunkedScan {
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final int SLICE_SLOTS = 8192;
+
+    private ChunkedScan() {
+    }
+
+    static <R> List<R> run(ObjectTracker objectTracker, ExecutorService workerPool, int parallelism,
+                           OverheadGovernor governor, Function<TrackedObjectCursor, R> task) {
+        int chunks = workerPool != null && parallelism > 1 ? parallelism * CHUNKS_PER_WORKER : 1;
+        if (governor != null) {
+            chunks = Math.max(chunks, objectTracker.getStore().getHighWaterMark() / SLICE_SLOTS);
+        }
+        List<TrackedObjectCursor> cursors = objectTracker.splitCursors(chunks);
+        List<R> results = new ArrayList<>(cursors.size());
+
+        if (workerPool == null || cursors.size() == 1) {
+            for (TrackedObjectCursor cursor : cursors) {
+                results.add(runSlice(governor, task, cursor));
+            }
+            return results;
+        }
+
+        List<Callable<R>> tasks = new ArrayList<>(cursors.size());
+        for (TrackedObjectCursor cursor : cursors) {
+            tasks.add(() -> runSlice(governor, task, cursor));
+        }
+
+        try {
+            for (Future<R> future : workerPool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scanning tracked objects", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Tracked object scan failed", cause);
+        }
+        return results;
+    }
+
+    private static <R> R runSlice(OverheadGovernor governor, Function<TrackedObjectCursor, R> task,
+                                  TrackedObjectCursor cursor) {
+        if (governor != null) {
+            governor.awaitBudget();
+        }
+        return task.apply(cursor);
+    }
+}
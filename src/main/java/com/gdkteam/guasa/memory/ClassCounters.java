@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counts and shallow bytes per dense int key, raw and sample-weighted.
+ */
+public class ClassCounters {
+    private volatile Counter[] counters = new Counter[0];
+
+    public void add(int id, long shallowSize, float sampleWeight) {
+        counterFor(id).add(1, shallowSize, sampleWeight);
+    }
+
+    public void remove(int id, long shallowSize, float sampleWeight) {
+        counterFor(id).add(-1, shallowSize, sampleWeight);
+    }
+
+    /**
+     * Returns an upper bound for the IDs with counters, i.e. the bound for iterating IDs.
+     */
+    public int size() {
+        return counters.length;
+    }
+
+    public long getLiveCount(int id) {
+        Counter counter = get(id);
+        return counter != null ? counter.count.sum() : 0;
+    }
+
+    public long getLiveBytes(int id) {
+        Counter counter = get(id);
+        return counter != null ? counter.bytes.sum() : 0;
+    }
+
+    public double getEstimatedLiveCount(int id) {
+        Counter counter = get(id);
+        return counter != null ? counter.estimatedCount.sum() : 0;
+    }
+
+    public double getEstimatedLiveBytes(int id) {
+        Counter counter = get(id);
+        return counter != null ? counter.estimatedBytes.sum() : 0;
+    }
+
+    public long getTotalLiveCount() {
+        long total = 0;
+        for (Counter counter : counters) {
+            if (counter != null) {
+                total += counter.count.sum();
+            }
+        }
+        return total;
+    }
+
+    public long getTotalLiveBytes() {
+        long total = 0;
+        for (Counter counter : counters) {
+            if (counter != null) {
+                total += counter.bytes.sum();
+            }
+        }
+        return total;
+    }
+
+    public synchronized void clear() {
+        counters = new Counter[0];
+    }
+
+    private Counter get(int id) {
+        Counter[] current = counters;
+        return id < current.length ? current[id] : null;
+    }
+
+    private Counter counterFor(int id) {
+        Counter counter = get(id);
+        if (counter != null) {
+            return counter;
+        }
+
+        synchronized (this) {
+            Counter[] current = counters;
+            if (id >= current.length) {
+                current = Arrays.copyOf(current, Math.max(id + 1, Math.max(16, current.length << 1)));
+            }
+            if (current[id] == null) {
+                current[id] = new Counter();
+            }
+            counters = current;
+            return current[id];
+        }
+    }
+
+    private static final class Counter {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final DoubleAdder estimatedCount = new DoubleAdder();
+        private final DoubleAdder estimatedBytes = new DoubleAdder();
+
+        void add(int sign, long size, float weight) {
+            count.add(sign);
+            bytes.add(sign * size);
+            estimatedCount.add(sign * weight);
+            estimatedBytes.add(sign * (double) size * weight);
+        }
+    }
+}
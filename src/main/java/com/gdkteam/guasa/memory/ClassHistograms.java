@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import java.util.Arrays;
+
+/**
+ * One {@link LogHistogram} per {@link ClassRegistry} class ID, created on first record.
+ */
+public class ClassHistograms {
+    private final int subBucketBits;
+    private final int maxValueBits;
+    private volatile LogHistogram[] histograms = new LogHistogram[0];
+
+    public ClassHistograms(int subBucketBits, int maxValueBits) {
+        this.subBucketBits = subBucketBits;
+        this.maxValueBits = maxValueBits;
+    }
+
+    public void record(int classId, long value) {
+        histogramFor(classId).record(value);
+    }
+
+    public void remove(int classId, long value) {
+        histogramFor(classId).remove(value);
+    }
+
+    /**
+     * Returns an upper bound for the class IDs with histograms.
+     */
+    public int size() {
+        return histograms.length;
+    }
+
+    public boolean hasValues(int classId) {
+        LogHistogram[] current = histograms;
+        return classId < current.length && current[classId] != null;
+    }
+
+    public LogHistogram.Snapshot snapshot(int classId) {
+        LogHistogram[] current = histograms;
+        if (classId < current.length && current[classId] != null) {
+            return current[classId].snapshot();
+        }
+        return LogHistogram.Snapshot.empty(subBucketBits);
+    }
+
+    public synchronized void clear() {
+        histograms = new LogHistogram[0];
+    }
+
+    private LogHistogram histogramFor(int classId) {
+        LogHistogram[] current = histograms;
+        if (classId < current.length && current[classId] != null) {
+            return current[classId];
+        }
+
+        synchronized (this) {
+            current = histograms;
+            if (classId >= current.length) {
+                current = Arrays.copyOf(current, Math.max(classId + 1, ClassRegistry.size()));
+            }
+            if (current[classId] == null) {
+                current[classId] = new LogHistogram(subBucketBits, maxValueBits);
+            }
+            histograms = current;
+            return current[classId];
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-class reference fields and primitive widths, computed once by reflection.
+ */
+public final class ClassLayout {
+    private static final Field[] NO_FIELDS = new Field[0];
+
+    private static final ClassValue<ClassLayout> layouts = new ClassValue<>() {
+        @Override
+        protected ClassLayout computeValue(Class<?> type) {
+            return type.isArray() ? forArray(type) : forInstance(type);
+        }
+    };
+
+    private final boolean array;
+    private final boolean primitiveArray;
+    private final int elementWidth;
+    private final int referenceFieldCount;
+    private final long primitiveFieldBytes;
+    private final Field[] referenceFields;
+
+    private ClassLayout(boolean array, boolean primitiveArray, int elementWidth, int referenceFieldCount,
+                        long primitiveFieldBytes, Field[] referenceFields) {
+        this.array = array;
+        this.primitiveArray = primitiveArray;
+        this.elementWidth = elementWidth;
+        this.referenceFieldCount = referenceFieldCount;
+        this.primitiveFieldBytes = primitiveFieldBytes;
+        this.referenceFields = referenceFields;
+    }
+
+    public static ClassLayout of(Class<?> type) {
+        return layouts.get(type);
+    }
+
+    public boolean isArray() { return array; }
+    public boolean isPrimitiveArray() { return primitiveArray; }
+    public boolean isReferenceArray() { return array && !primitiveArray; }
+
+    /**
+     * Width in bytes of a primitive array element, or 0 for reference arrays and
+     * non-array classes.
+     */
+    public int getElementWidth() { return elementWidth; }
+
+    /**
+     * Number of non-static reference fields declared by the class and its superclasses,
+     * including fields that could not be made accessible.
+     */
+    public int getReferenceFieldCount() { return referenceFieldCount; }
+
+    public long getPrimitiveFieldBytes() { return primitiveFieldBytes; }
+
+    /**
+     * Non-static reference fields that can be read reflectively. Callers must not modify
+     * the returned array.
+     */
+    public Field[] getReferenceFields() { return referenceFields; }
+
+    static int primitiveWidth(Class<?> type) {
+        if (type == boolean.class || type == byte.class) {
+            return 1;
+        } else if (type == char.class || type == short.class) {
+            return 2;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == long.class || type == double.class) {
+            return 8;
+        }
+        return 0;
+    }
+
+    private static ClassLayout forArray(Class<?> type) {
+        Class<?> componentType = type.getComponentType();
+        boolean primitive = componentType.isPrimitive();
+        return new ClassLayout(true, primitive, primitive ? primitiveWidth(componentType) : 0, 0, 0, NO_FIELDS);
+    }
+
+    private static ClassLayout forInstance(Class<?> type) {
+        int referenceCount = 0;
+        long primitiveBytes = 0;
+        List<Field> accessible = new ArrayList<>();
+
+        for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+
+                Class<?> fieldType = field.getType();
+                if (fieldType.isPrimitive()) {
+                    primitiveBytes += primitiveWidth(fieldType);
+                    continue;
+                }
+
+                referenceCount++;
+                try {
+                    field.setAccessible(true);
+                    accessible.add(field);
+                } catch (RuntimeException e) {
+                    // Encapsulated by its module; still counted for sizing
+                }
+            }
+        }
+
+        Field[] fields = accessible.isEmpty() ? NO_FIELDS : accessible.toArray(new Field[0]);
+        return new ClassLayout(false, false, 0, referenceCount, primitiveBytes, fields);
+    }
+}
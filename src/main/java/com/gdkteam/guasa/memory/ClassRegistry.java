@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import java.util.Arrays;
+
+/**
+ * Process-wide dictionary of dense, never reused {@code int} class IDs, cached per class.
+ */
+public final class ClassRegistry {
+    public static final int NO_CLASS = -1;
+
+    private static final Object lock = new Object();
+    private static final ClassValue<Integer> classIds = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return register(type.getName());
+        }
+    };
+
+    private static volatile String[] names = new String[256];
+    private static volatile int size;
+
+    private ClassRegistry() {
+    }
+
+    public static int getId(Class<?> type) {
+        return classIds.get(type);
+    }
+
+    public static String getName(int classId) {
+        String[] current = names;
+        if (classId >= 0 && classId < current.length && current[classId] != null) {
+            return current[classId];
+        }
+        synchronized (lock) {
+            return classId >= 0 && classId < size ? names[classId] : null;
+        }
+    }
+
+    public static String getSimpleName(int classId) {
+        String name = getName(classId);
+        return name != null ? name.substring(name.lastIndexOf('.') + 1) : null;
+    }
+
+    /**
+     * Returns one past the highest class ID handed out so far, i.e. the array length
+     * needed to index counters by class ID.
+     */
+    public static int size() {
+        return size;
+    }
+
+    private static int register(String name) {
+        synchronized (lock) {
+            int classId = size;
+            if (classId == names.length) {
+                names = Arrays.copyOf(names, classId << 1);
+            }
+            names[classId] = name;
+            size = classId + 1;
+            return classId;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sums the shallow sizes of everything reachable from a root, iteratively and in parallel.
+ */
+public class DeepSizeCalculator {
+    private static final Logger logger = LoggerFactory.getLogger(DeepSizeCalculator.class);
+    private static final int PARALLEL_THRESHOLD = 16384;
+    private static final int SHARE_THRESHOLD = 2048;
+    private static final long IDLE_PARK_NANOS = 50_000;
+
+    private final ObjectSizeEstimator sizeEstimator;
+    private volatile ExecutorService workerPool;
+    private volatile int parallelism = 1;
+
+    public DeepSizeCalculator(ObjectSizeEstimator sizeEstimator) {
+        this.sizeEstimator = sizeEstimator;
+    }
+
+    public void setWorkerPool(ExecutorService workerPool, int parallelism) {
+        this.workerPool = workerPool;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Stops at {@code maxDepth} references or once the total passes {@code maxBytes};
+     * {@link Class} objects and fields hidden by the module system are not followed.
+     */
+    public DeepSize calculate(Object root, int maxDepth, long maxBytes) {
+        if (root == null) {
+            return new DeepSize(0, 0, false, false);
+        }
+
+        ExecutorService pool = workerPool;
+        int workers = pool != null ? parallelism : 1;
+        Walk walk = new Walk(maxDepth, maxBytes, workers);
+        walk.visited.add(root);
+        WorkStack stack = new WorkStack(64);
+        stack.push(root, 0);
+
+        walk.run(stack, pool != null && workers > 1 ? PARALLEL_THRESHOLD : Long.MAX_VALUE);
+        if (!stack.isEmpty() && !walk.stopped.get()) {
+            walk.runParallel(stack, pool, workers);
+        }
+
+        return new DeepSize(walk.totalBytes.get(), walk.objectCount.get(), walk.depthLimited,
+            walk.stopped.get());
+    }
+
+    private final class Walk {
+        final int maxDepth;
+        final long maxBytes;
+        final IdentitySet visited;
+        final AtomicLong totalBytes = new AtomicLong();
+        final AtomicLong objectCount = new AtomicLong();
+        final AtomicBoolean stopped = new AtomicBoolean();
+        final ConcurrentLinkedQueue<WorkStack> shared = new ConcurrentLinkedQueue<>();
+        final AtomicInteger active = new AtomicInteger();
+        volatile boolean depthLimited;
+        boolean sharing;
+
+        Walk(int maxDepth, long maxBytes, int workers) {
+            this.maxDepth = maxDepth;
+            this.maxBytes = maxBytes;
+            this.visited = new IdentitySet(workers * 4);
+        }
+
+        /**
+         * Walks from {@code stack} until it is empty, the byte limit is reached or
+         * {@code maxObjects} objects have been visited.
+         */
+        void run(WorkStack stack, long maxObjects) {
+            long visitedObjects = 0;
+            while (!stack.isEmpty() && visitedObjects < maxObjects) {
+                if (stopped.get()) {
+                    break;
+                }
+                int depth = stack.peekDepth();
+                Object obj = stack.pop();
+                long size = sizeEstimator.estimate(obj);
+                visitedObjects++;
+                if (totalBytes.addAndGet(size) > maxBytes) {
+                    stopped.set(true);
+                }
+
+                pushChildren(stack, obj, depth);
+                if (sharing && stack.size() > SHARE_THRESHOLD) {
+                    shared.add(stack.split());
+                }
+            }
+            objectCount.addAndGet(visitedObjects);
+        }
+
+        void runParallel(WorkStack stack, ExecutorService pool, int workers) {
+            sharing = true;
+            shared.add(stack);
+            List<Future<?>> futures = new ArrayList<>(workers - 1);
+            try {
+                for (int i = 1; i < workers; i++) {
+                    futures.add(pool.submit(this::work));
+                }
+            } catch (RejectedExecutionException e) {
+                logger.debug("Worker pool unavailable, finishing deep size walk on the calling thread");
+            }
+            work();
+            for (Future<?> future : futures) {
+                // Workers that have not started yet find no work and return at once
+                future.cancel(false);
+            }
+        }
+
+        void work() {
+            while (true) {
+                active.incrementAndGet();
+                WorkStack stack = shared.poll();
+                if (stack != null) {
+                    run(stack, Long.MAX_VALUE);
+                    active.decrementAndGet();
+                    continue;
+                }
+                if (active.decrementAndGet() == 0 && shared.isEmpty()) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+
+        void pushChildren(WorkStack stack, Object obj, int depth) {
+            Class<?> type = obj.getClass();
+            ClassLayout layout = ClassLayout.of(type);
+            if (layout.isPrimitiveArray()) {
+                return;
+            }
+
+            if (layout.isReferenceArray()) {
+                for (Object element : (Object[]) obj) {
+                    push(stack, element, depth);
+                }
+                return;
+            }
+
+            for (Field field : layout.getReferenceFields()) {
+                try {
+                    push(stack, field.get(obj), depth);
+                } catch (IllegalAccessException e) {
+                    // Field became inaccessible; its target is not counted
+                }
+            }
+        }
+
+        void push(WorkStack stack, Object child, int depth) {
+            if (child == null || child instanceof Class) {
+                return;
+            }
+            if (depth >= maxDepth) {
+                depthLimited = true;
+                return;
+            }
+            if (visited.add(child)) {
+                stack.push(child, depth + 1);
+            }
+        }
+    }
+
+    private static final class WorkStack {
+        Object[] objects;
+        int[] depths;
+        int size;
+
+        WorkStack(int capacity) {
+            this.objects = new Object[capacity];
+            this.depths = new int[capacity];
+        }
+
+        void push(Object obj, int depth) {
+            if (size == objects.length) {
+                objects = Arrays.copyOf(objects, size * 2);
+                depths = Arrays.copyOf(depths, size * 2);
+            }
+            objects[size] = obj;
+            depths[size] = depth;
+            size++;
+        }
+
+        int peekDepth() {
+            return depths[size - 1];
+        }
+
+        Object pop() {
+            Object obj = objects[--size];
+            objects[size] = null;
+            return obj;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Moves the bottom half of this stack, the entries pushed earliest, into a new one.
+         */
+        WorkStack split() {
+            int half = size / 2;
+            WorkStack bottom = new WorkStack(Math.max(64, half * 2));
+            System.arraycopy(objects, 0, bottom.objects, 0, half);
+            System.arraycopy(depths, 0, bottom.depths, 0, half);
+            bottom.size = half;
+            System.arraycopy(objects, half, objects, 0, size - half);
+            System.arraycopy(depths, half, depths, 0, size - half);
+            Arrays.fill(objects, size - half, size, null);
+            size -= half;
+            return bottom;
+        }
+    }
+
+    public static class DeepSize {
+        private final long totalSize;
+        private final long objectCount;
+        private final boolean depthLimited;
+        private final boolean sizeLimited;
+
+        public DeepSize(long totalSize, long objectCount, boolean depthLimited, boolean sizeLimited) {
+            this.totalSize = totalSize;
+            this.objectCount = objectCount;
+            this.depthLimited = depthLimited;
+            this.sizeLimited = sizeLimited;
+        }
+
+        public long getTotalSize() { return totalSize; }
+        public long getObjectCount() { return objectCount; }
+
+        /**
+         * {@code true} if some objects were not visited because of the depth limit.
+         */
+        public boolean isDepthLimited() { return depthLimited; }
+
+        /**
+         * {@code true} if the walk stopped at the byte limit, so the total is a lower bound.
+         */
+        public boolean isSizeLimited() { return sizeLimited; }
+
+        public boolean isComplete() { return !depthLimited && !sizeLimited; }
+    }
+}
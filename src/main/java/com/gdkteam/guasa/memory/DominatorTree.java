@@ -0,0 +1,487 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import java.util.Arrays;
+
+/**
+ * Dominator tree and retained sizes of the tracked-object graph (Tarjan SCCs, Lengauer-Tarjan).
+ */
+public class DominatorTree {
+    public static final int ROOT = -1;
+
+    private static final int SLICE_STEPS = 1 << 16;
+
+    private final long[] objectIds;
+    private final int[] classIds;
+    private final long[] shallowSizes;
+    private final int[] dominators;
+    private final long[] retainedSizes;
+    private final long[] classRetainedSizes;
+    private final LongIntHashMap indexById;
+
+    private DominatorTree(long[] objectIds, int[] classIds, long[] shallowSizes, int[] dominators,
+                          long[] retainedSizes, long[] classRetainedSizes) {
+        this.objectIds = objectIds;
+        this.classIds = classIds;
+        this.shallowSizes = shallowSizes;
+        this.dominators = dominators;
+        this.retainedSizes = retainedSizes;
+        this.classRetainedSizes = classRetainedSizes;
+        this.indexById = new LongIntHashMap(objectIds.length);
+        for (int i = 0; i < objectIds.length; i++) {
+            indexById.put(objectIds[i], i);
+        }
+    }
+
+    public static DominatorTree empty() {
+        return compute(new long[0], new int[0], new long[0], new int[1], new int[0]);
+    }
+
+    /**
+     * Builds the tree for {@code objectIds.length} nodes whose outgoing edges to node
+     * {@code edgeTargets[k]} are listed for node {@code i} at
+     * {@code edgeStart[i] <= k < edgeStart[i + 1]}.
+     */
+    public static DominatorTree compute(long[] objectIds, int[] classIds, long[] shallowSizes,
+                                        int[] edgeStart, int[] edgeTargets) {
+        return compute(objectIds, classIds, shallowSizes, edgeStart, edgeTargets, null);
+    }
+
+    /**
+     * Builds the tree, running {@code checkpoint}, if not {@code null}, every 65,536 steps.
+     */
+    public static DominatorTree compute(long[] objectIds, int[] classIds, long[] shallowSizes,
+                                        int[] edgeStart, int[] edgeTargets, Runnable checkpoint) {
+        Slicer slicer = new Slicer(checkpoint);
+        int n = objectIds.length;
+        int vertexCount = n + 1;
+
+        int[] stack = new int[vertexCount];
+        int[] edgeCursor = new int[n];
+
+        // The virtual root gets one edge into each source component, i.e. each strongly
+        // connected component without edges from other components
+        int[] component = new int[n];
+        int componentCount = stronglyConnectedComponents(n, edgeStart, edgeTargets, component, stack, edgeCursor,
+            slicer);
+        boolean[] referenced = new boolean[componentCount];
+        for (int v = 0; v < n; v++) {
+            slicer.step();
+            for (int k = edgeStart[v]; k < edgeStart[v + 1]; k++) {
+                if (component[edgeTargets[k]] != component[v]) {
+                    referenced[component[edgeTargets[k]]] = true;
+                }
+            }
+        }
+
+        // Number the nodes in DFS order from the virtual root, which gets number 0. The
+        // rest of the algorithm works on DFS numbers, so its arrays are scanned in order.
+        // Every node is reachable from a source component, and no DFS enters another
+        // source component, so each start node is still unvisited.
+        int[] dfsNumber = new int[n];
+        Arrays.fill(dfsNumber, -1);
+        int[] vertex = new int[vertexCount];
+        int[] parent = new int[vertexCount];
+        int rootChildren = 0;
+        int visited = 1;
+        for (int v = 0; v < n; v++) {
+            if (!referenced[component[v]]) {
+                referenced[component[v]] = true;
+                rootChildren++;
+                visited = depthFirst(v, visited, edgeStart, edgeTargets, dfsNumber, vertex, parent, stack, edgeCursor,
+                    slicer);
+            }
+        }
+
+        // Predecessor lists by DFS number; the virtual root precedes every DFS start node
+        int[] predStart = new int[vertexCount + 1];
+        for (int k = 0; k < edgeStart[n]; k++) {
+            predStart[dfsNumber[edgeTargets[k]] + 1]++;
+        }
+        for (int i = 1; i < vertexCount; i++) {
+            if (parent[i] == 0) {
+                predStart[i + 1]++;
+            }
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            predStart[i + 1] += predStart[i];
+        }
+        slicer.advance(edgeStart[n] + 2 * vertexCount);
+        int[] preds = new int[edgeStart[n] + rootChildren];
+        int[] fill = Arrays.copyOf(predStart, vertexCount);
+        for (int v = 0; v < n; v++) {
+            slicer.step();
+            for (int k = edgeStart[v]; k < edgeStart[v + 1]; k++) {
+                preds[fill[dfsNumber[edgeTargets[k]]]++] = dfsNumber[v];
+            }
+        }
+        for (int i = 1; i < vertexCount; i++) {
+            if (parent[i] == 0) {
+                preds[fill[i]++] = 0;
+            }
+        }
+
+        int[] semi = new int[vertexCount];
+        int[] label = new int[vertexCount];
+        int[] ancestor = new int[vertexCount];
+        int[] idom = new int[vertexCount];
+        int[] bucketHead = new int[vertexCount];
+        int[] bucketNext = new int[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            semi[i] = i;
+            label[i] = i;
+            ancestor[i] = -1;
+            bucketHead[i] = -1;
+        }
+        slicer.advance(2 * vertexCount);
+
+        for (int w = vertexCount - 1; w > 0; w--) {
+            for (int k = predStart[w]; k < predStart[w + 1]; k++) {
+                slicer.step();
+                int u = eval(preds[k], ancestor, label, semi, stack);
+                if (semi[u] < semi[w]) {
+                    semi[w] = semi[u];
+                }
+            }
+
+            bucketNext[w] = bucketHead[semi[w]];
+            bucketHead[semi[w]] = w;
+            int p = parent[w];
+            ancestor[w] = p;
+
+            for (int v = bucketHead[p]; v >= 0; v = bucketNext[v]) {
+                slicer.step();
+                int u = eval(v, ancestor, label, semi, stack);
+                idom[v] = semi[u] < semi[v] ? u : p;
+            }
+            bucketHead[p] = -1;
+        }
+
+        for (int w = 1; w < vertexCount; w++) {
+            if (idom[w] != semi[w]) {
+                idom[w] = idom[idom[w]];
+            }
+        }
+        slicer.advance(vertexCount);
+
+        // Dominators have smaller DFS numbers than the nodes they dominate
+        long[] retained = new long[vertexCount];
+        for (int w = 1; w < vertexCount; w++) {
+            retained[w] = shallowSizes[vertex[w]];
+        }
+        for (int w = vertexCount - 1; w > 0; w--) {
+            retained[idom[w]] += retained[w];
+        }
+        slicer.advance(2 * vertexCount);
+
+        long[] retainedSizes = new long[n];
+        int[] dominators = new int[n];
+        for (int w = 1; w < vertexCount; w++) {
+            retainedSizes[vertex[w]] = retained[w];
+            dominators[vertex[w]] = idom[w] == 0 ? ROOT : vertex[idom[w]];
+        }
+        slicer.advance(vertexCount);
+
+        return new DominatorTree(objectIds, classIds, shallowSizes, dominators, retainedSizes,
+            classRetainedSizes(classIds, dominators, retainedSizes, slicer));
+    }
+
+    /**
+     * Stores the strongly connected component of each node in {@code component} and
+     * returns the number of components, using an iterative form of Tarjan's algorithm.
+     */
+    private static int stronglyConnectedComponents(int n, int[] edgeStart, int[] edgeTargets, int[] component,
+                                                   int[] callStack, int[] edgeCursor, Slicer slicer) {
+        // index is the visit order plus one, so 0 marks unvisited nodes; a visited node
+        // without a component is still on the component stack
+        int[] index = new int[n];
+        int[] lowLink = new int[n];
+        int[] componentStack = new int[n];
+        Arrays.fill(component, -1);
+        int componentTop = 0;
+        int nextIndex = 1;
+        int count = 0;
+
+        for (int start = 0; start < n; start++) {
+            if (index[start] != 0) {
+                continue;
+            }
+            int top = 0;
+            callStack[top++] = start;
+            index[start] = lowLink[start] = nextIndex++;
+            componentStack[componentTop++] = start;
+            edgeCursor[start] = edgeStart[start];
+
+            while (top > 0) {
+                slicer.step();
+                int v = callStack[top - 1];
+                if (edgeCursor[v] < edgeStart[v + 1]) {
+                    int w = edgeTargets[edgeCursor[v]++];
+                    if (index[w] == 0) {
+                        index[w] = lowLink[w] = nextIndex++;
+                        componentStack[componentTop++] = w;
+                        edgeCursor[w] = edgeStart[w];
+                        callStack[top++] = w;
+                    } else if (component[w] < 0) {
+                        lowLink[v] = Math.min(lowLink[v], index[w]);
+                    }
+                    continue;
+                }
+
+                top--;
+                if (top > 0) {
+                    int u = callStack[top - 1];
+                    lowLink[u] = Math.min(lowLink[u], lowLink[v]);
+                }
+                if (lowLink[v] == index[v]) {
+                    int w;
+                    do {
+                        w = componentStack[--componentTop];
+                        component[w] = count;
+                    } while (w != v);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int depthFirst(int start, int visited, int[] edgeStart, int[] edgeTargets, int[] dfsNumber,
+                                  int[] vertex, int[] parent, int[] stack, int[] edgeCursor, Slicer slicer) {
+        int top = 0;
+        stack[top++] = start;
+        parent[visited] = 0;
+        dfsNumber[start] = visited;
+        vertex[visited++] = start;
+        edgeCursor[start] = edgeStart[start];
+
+        while (top > 0) {
+            slicer.step();
+            int v = stack[top - 1];
+            if (edgeCursor[v] == edgeStart[v + 1]) {
+                top--;
+                continue;
+            }
+            int w = edgeTargets[edgeCursor[v]++];
+            if (dfsNumber[w] < 0) {
+                parent[visited] = dfsNumber[v];
+                dfsNumber[w] = visited;
+                vertex[visited++] = w;
+                edgeCursor[w] = edgeStart[w];
+                stack[top++] = w;
+            }
+        }
+        return visited;
+    }
+
+    private static int eval(int v, int[] ancestor, int[] label, int[] semi, int[] path) {
+        if (ancestor[v] < 0) {
+            return v;
+        }
+
+        int depth = 0;
+        for (int x = v; ancestor[ancestor[x]] >= 0; x = ancestor[x]) {
+            path[depth++] = x;
+        }
+        while (depth > 0) {
+            int x = path[--depth];
+            int a = ancestor[x];
+            if (semi[label[a]] < semi[label[x]]) {
+                label[x] = label[a];
+            }
+            ancestor[x] = ancestor[a];
+        }
+        return label[v];
+    }
+
+    private static long[] classRetainedSizes(int[] classIds, int[] dominators, long[] retained, Slicer slicer) {
+        int n = classIds.length;
+        int maxClassId = -1;
+        for (int classId : classIds) {
+            maxClassId = Math.max(maxClassId, classId);
+        }
+        slicer.advance(n);
+        long[] byClass = new long[maxClassId + 1];
+        int[] active = new int[maxClassId + 1];
+
+        // Children of each node, with the virtual root's children in the last list
+        int[] childStart = new int[n + 2];
+        for (int w = 0; w < n; w++) {
+            childStart[(dominators[w] == ROOT ? n : dominators[w]) + 1]++;
+        }
+        for (int v = 0; v <= n; v++) {
+            childStart[v + 1] += childStart[v];
+        }
+        int[] children = new int[n];
+        int[] fill = Arrays.copyOf(childStart, n + 1);
+        for (int w = 0; w < n; w++) {
+            children[fill[dominators[w] == ROOT ? n : dominators[w]]++] = w;
+        }
+        slicer.advance(3 * n);
+
+        // Walk the tree keeping per-class counts of the objects on the current path; an
+        // object is counted only when no dominator of its class is on that path.
+        int[] stack = new int[n + 1];
+        int[] cursor = fill;
+        System.arraycopy(childStart, 0, cursor, 0, n + 1);
+        int top = 0;
+        stack[top++] = n;
+        while (top > 0) {
+            slicer.step();
+            int v = stack[top - 1];
+            if (cursor[v] == childStart[v + 1]) {
+                top--;
+                if (v != n && classIds[v] >= 0) {
+                    active[classIds[v]]--;
+                }
+                continue;
+            }
+            int w = children[cursor[v]++];
+            int classId = classIds[w];
+            if (classId >= 0) {
+                if (active[classId]++ == 0) {
+                    byClass[classId] += retained[w];
+                }
+            }
+            stack[top++] = w;
+        }
+        return byClass;
+    }
+
+    public int getNodeCount() { return objectIds.length; }
+    public long getObjectId(int node) { return objectIds[node]; }
+    public int getClassId(int node) { return classIds[node]; }
+    public long getShallowSize(int node) { return shallowSizes[node]; }
+    public long getRetainedSize(int node) { return retainedSizes[node]; }
+
+    /**
+     * Returns the immediate dominator of {@code node}, or {@link #ROOT} if only the
+     * virtual root dominates it.
+     */
+    public int getImmediateDominator(int node) { return dominators[node]; }
+
+    public int indexOf(long objectId) {
+        return indexById.get(objectId);
+    }
+
+    /**
+     * Returns the retained size of the object, or -1 if it was not in the graph.
+     */
+    public long getRetainedSizeById(long objectId) {
+        int node = indexOf(objectId);
+        return node >= 0 ? retainedSizes[node] : -1;
+    }
+
+    public long getClassRetainedSize(int classId) {
+        return classId >= 0 && classId < classRetainedSizes.length ? classRetainedSizes[classId] : 0;
+    }
+
+    /**
+     * Returns up to {@code limit} nodes with the largest retained sizes, largest first.
+     */
+    public int[] getTopDominators(int limit) {
+        int k = Math.min(limit, objectIds.length);
+        if (k <= 0) {
+            return new int[0];
+        }
+
+        // Min-heap of the k largest nodes seen so far
+        int[] heap = new int[k];
+        int size = 0;
+        for (int node = 0; node < objectIds.length; node++) {
+            if (size < k) {
+                heap[size] = node;
+                siftUp(heap, size++);
+            } else if (retainedSizes[node] > retainedSizes[heap[0]]) {
+                heap[0] = node;
+                siftDown(heap, size);
+            }
+        }
+
+        int[] result = new int[size];
+        while (size > 0) {
+            result[size - 1] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size);
+        }
+        return result;
+    }
+
+    private void siftUp(int[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (retainedSizes[heap[parent]] <= retainedSizes[heap[i]]) {
+                return;
+            }
+            swap(heap, parent, i);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size) {
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && retainedSizes[heap[left]] < retainedSizes[heap[smallest]]) {
+                smallest = left;
+            }
+            if (right < size && retainedSizes[heap[right]] < retainedSizes[heap[smallest]]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(heap, smallest, i);
+            i = smallest;
+        }
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    /**
+     * Counts computation steps and runs the checkpoint after every slice of them.
+     */
+    private static final class Slicer {
+        private final Runnable checkpoint;
+        private int steps;
+
+        Slicer(Runnable checkpoint) {
+            this.checkpoint = checkpoint;
+        }
+
+        void step() {
+            if (++steps >= SLICE_STEPS) {
+                pause();
+            }
+        }
+
+        /**
+         * Counts the steps of a linear pass that does not count them one by one.
+         */
+        void advance(int count) {
+            steps += count;
+            if (steps >= SLICE_STEPS) {
+                pause();
+            }
+        }
+
+        private void pause() {
+            steps = 0;
+            if (checkpoint != null) {
+                checkpoint.run();
+            }
+        }
+    }
+}
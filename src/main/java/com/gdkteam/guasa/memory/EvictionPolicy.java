@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chooses which tracked object to drop once {@code max.tracked.objects} is reached.
+ */
+public abstract class EvictionPolicy {
+    public static final int REJECT = -1;
+
+    public enum Type {
+        REJECT_NEW("reject-new"),
+        EVICT_OLDEST("evict-oldest"),
+        RESERVOIR_PER_CLASS("reservoir"),
+        LRU("lru");
+
+        private final String configName;
+
+        Type(String configName) {
+            this.configName = configName;
+        }
+
+        public String getConfigName() {
+            return configName;
+        }
+
+        public static Type fromConfigName(String name) {
+            for (Type type : values()) {
+                if (type.configName.equalsIgnoreCase(name) || type.name().equalsIgnoreCase(name)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown eviction policy: " + name);
+        }
+    }
+
+    protected final TrackedObjectStore store;
+
+    protected EvictionPolicy(TrackedObjectStore store) {
+        this.store = store;
+    }
+
+    public static EvictionPolicy create(Type type, TrackedObjectStore store) {
+        switch (type) {
+            case EVICT_OLDEST:
+                return new InsertionOrderPolicy(store, false);
+            case LRU:
+                return new InsertionOrderPolicy(store, true);
+            case RESERVOIR_PER_CLASS:
+                return new ClassReservoirPolicy(store);
+            case REJECT_NEW:
+            default:
+                return new RejectNewPolicy(store);
+        }
+    }
+
+    public abstract Type getType();
+
+    /**
+     * Returns the slot to evict for an instance of {@code classId}, or {@link #REJECT}.
+     * Called without the store stripe lock, so another thread may release the slot first.
+     */
+    public abstract int selectVictim(int classId);
+
+    /**
+     * Called with the slot's store stripe lock held, as is {@link #onUntracked}.
+     */
+    public abstract void onTracked(int slot);
+
+    public abstract void onUntracked(int slot);
+
+    public abstract void clear();
+
+    private static int[] ensureCapacity(int[] array, int index) {
+        if (index < array.length) {
+            return array;
+        }
+        return Arrays.copyOf(array, Math.max(index + 1, array.length << 1));
+    }
+
+    private static final class RejectNewPolicy extends EvictionPolicy {
+        RejectNewPolicy(TrackedObjectStore store) {
+            super(store);
+        }
+
+        @Override
+        public Type getType() {
+            return Type.REJECT_NEW;
+        }
+
+        @Override
+        public int selectVictim(int classId) {
+            return REJECT;
+        }
+
+        @Override
+        public void onTracked(int slot) {
+        }
+
+        @Override
+        public void onUntracked(int slot) {
+        }
+
+        @Override
+        public void clear() {
+        }
+    }
+
+    /**
+     * Insertion-ordered slot list; with {@code secondChance}, CLOCK-approximated LRU.
+     */
+    private static final class InsertionOrderPolicy extends EvictionPolicy {
+        private static final int NIL = -1;
+        private static final int MAX_SECOND_CHANCES = 64;
+
+        private final boolean secondChance;
+        private int[] prev = new int[0];
+        private int[] next = new int[0];
+        private long[] queuedAccessTimes = new long[0];
+        private int head = NIL;
+        private int tail = NIL;
+
+        InsertionOrderPolicy(TrackedObjectStore store, boolean secondChance) {
+            super(store);
+            this.secondChance = secondChance;
+        }
+
+        @Override
+        public Type getType() {
+            return secondChance ? Type.LRU : Type.EVICT_OLDEST;
+        }
+
+        @Override
+        public synchronized int selectVictim(int classId) {
+            if (head == NIL) {
+                return REJECT;
+            }
+
+            if (secondChance) {
+                for (int i = 0; i < MAX_SECOND_CHANCES && head != tail; i++) {
+                    int slot = head;
+                    long lastAccess = store.getLastAccessTime(slot);
+                    if (lastAccess <= queuedAccessTimes[slot]) {
+                        break;
+                    }
+                    unlink(slot);
+                    append(slot, lastAccess);
+                }
+            }
+
+            return head;
+        }
+
+        @Override
+        public synchronized void onTracked(int slot) {
+            prev = ensureCapacity(prev, slot);
+            next = ensureCapacity(next, slot);
+            if (slot >= queuedAccessTimes.length) {
+                queuedAccessTimes = Arrays.copyOf(queuedAccessTimes, prev.length);
+            }
+            append(slot, store.getLastAccessTime(slot));
+        }
+
+        @Override
+        public synchronized void onUntracked(int slot) {
+            if (slot < prev.length) {
+                unlink(slot);
+            }
+        }
+
+        @Override
+        public synchronized void clear() {
+            prev = new int[0];
+            next = new int[0];
+            queuedAccessTimes = new long[0];
+            head = NIL;
+            tail = NIL;
+        }
+
+        private void append(int slot, long accessTime) {
+            queuedAccessTimes[slot] = accessTime;
+            prev[slot] = tail;
+            next[slot] = NIL;
+            if (tail == NIL) {
+                head = slot;
+            } else {
+                next[tail] = slot;
+            }
+            tail = slot;
+        }
+
+        private void unlink(int slot) {
+            int p = prev[slot];
+            int n = next[slot];
+            if (p == NIL) {
+                head = n;
+            } else {
+                next[p] = n;
+            }
+            if (n == NIL) {
+                tail = p;
+            } else {
+                prev[n] = p;
+            }
+        }
+    }
+
+    /**
+     * Per-class reservoir sampling (Algorithm R) over the tracked slots.
+     */
+    private static final class ClassReservoirPolicy extends EvictionPolicy {
+        private Reservoir[] reservoirs = new Reservoir[16];
+        private final SlotList allMembers = new SlotList();
+        private int[] classPositions = new int[0];
+        private int[] globalPositions = new int[0];
+
+        ClassReservoirPolicy(TrackedObjectStore store) {
+            super(store);
+        }
+
+        @Override
+        public Type getType() {
+            return Type.RESERVOIR_PER_CLASS;
+        }
+
+        @Override
+        public synchronized int selectVictim(int classId) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Reservoir reservoir = classId < reservoirs.length ? reservoirs[classId] : null;
+
+            if (reservoir == null || reservoir.members.size == 0) {
+                return allMembers.size > 0 ? allMembers.slots[random.nextInt(allMembers.size)] : REJECT;
+            }
+
+            int k = reservoir.members.size;
+            long n = reservoir.seen + 1;
+            if (random.nextLong(n) >= k) {
+                reservoir.seen = n;
+                return REJECT;
+            }
+
+            return reservoir.members.slots[random.nextInt(k)];
+        }
+
+        @Override
+        public synchronized void onTracked(int slot) {
+            int classId = store.getClassId(slot);
+            if (classId >= reservoirs.length) {
+                reservoirs = Arrays.copyOf(reservoirs, Math.max(classId + 1, reservoirs.length << 1));
+            }
+            Reservoir reservoir = reservoirs[classId];
+            if (reservoir == null) {
+                reservoir = new Reservoir();
+                reservoirs[classId] = reservoir;
+            }
+
+            classPositions = ensureCapacity(classPositions, slot);
+            globalPositions = ensureCapacity(globalPositions, slot);
+
+            reservoir.seen++;
+            reservoir.members.add(slot, classPositions);
+            allMembers.add(slot, globalPositions);
+        }
+
+        @Override
+        public synchronized void onUntracked(int slot) {
+            int classId = store.getClassId(slot);
+            if (classId < reservoirs.length && reservoirs[classId] != null) {
+                reservoirs[classId].members.remove(slot, classPositions);
+            }
+            allMembers.remove(slot, globalPositions);
+        }
+
+        @Override
+        public synchronized void clear() {
+            reservoirs = new Reservoir[16];
+            allMembers.clear();
+            classPositions = new int[0];
+            globalPositions = new int[0];
+        }
+
+        private static final class Reservoir {
+            private final SlotList members = new SlotList();
+            private long seen;
+        }
+    }
+
+    /**
+     * Unordered slot set with O(1) add, remove and random access. Each slot's index in
+     * the list is kept in a caller-supplied position array (swap-with-last removal).
+     */
+    private static final class SlotList {
+        private int[] slots = new int[16];
+        private int size;
+
+        void add(int slot, int[] positions) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size << 1);
+            }
+            positions[slot] = size;
+            slots[size++] = slot;
+        }
+
+        void remove(int slot, int[] positions) {
+            if (slot >= positions.length) {
+                return;
+            }
+            int position = positions[slot];
+            if (position >= size || slots[position] != slot) {
+                return;
+            }
+            int last = slots[--size];
+            slots[position] = last;
+            positions[last] = position;
+        }
+
+        void clear() {
+            slots = new int[16];
+            size = 0;
+        }
+    }
+}
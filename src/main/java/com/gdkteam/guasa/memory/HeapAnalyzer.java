@@ -7,6 +7,7 @@
 
 package com.gdkteam.guasa.memory;
 
+import com.gdkteam.guasa.core.OverheadGovernor;
 import com.gdkteam.guasa.event.EventBus;
 import com.gdkteam.guasa.event.GuasaEvent;
 import org.slf4j.Logger;
@@ -14,28 +15,61 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
 import java.lang.management.MemoryUsage;
-import java.lang.reflect.Array;
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
 
 public class HeapAnalyzer {
     private static final Logger logger = LoggerFactory.getLogger(HeapAnalyzer.class);
+    private static final int AGE_SUB_BUCKET_BITS = 2;
+    private static final int AGE_MAX_VALUE_BITS = 40;
+    private static final int DRAIN_SLICE = 8192;
 
     private final ObjectTracker objectTracker;
     private final EventBus eventBus;
     private final MemoryMXBean memoryMXBean;
-    private final Map<String, ClassStatistics> classStats;
+    private final List<MemoryPoolMXBean> memoryPoolMXBeans;
+    private final AllocationCounter allocationCounter;
+    private final AgeCohorts ageCohorts;
+    private final LongAdder fullAgeRebuilds;
+    private ClassStatistics[] classStats;
+    private long lastAllocatedBytes = -1;
+    private long lastAllocationSampleTime;
+    private volatile ExecutorService workerPool;
+    private volatile int parallelism = 1;
+    private volatile OverheadGovernor governor;
     private volatile boolean analyzing = false;
     private volatile HeapSnapshot lastSnapshot;
+    private volatile HeapSnapshot baselineSnapshot;
 
     public HeapAnalyzer(ObjectTracker objectTracker, EventBus eventBus) {
         this.objectTracker = objectTracker;
         this.eventBus = eventBus;
         this.memoryMXBean = ManagementFactory.getMemoryMXBean();
-        this.classStats = new ConcurrentHashMap<>();
+        this.memoryPoolMXBeans = ManagementFactory.getMemoryPoolMXBeans();
+        this.allocationCounter = new AllocationCounter();
+        this.ageCohorts = new AgeCohorts(AGE_SUB_BUCKET_BITS, AGE_MAX_VALUE_BITS);
+        this.fullAgeRebuilds = new LongAdder();
+        this.classStats = new ClassStatistics[0];
+    }
+
+    /**
+     * Runs full scans of the tracked objects as {@code parallelism} parallel chunks on
+     * {@code workerPool}.
+     */
+    public void setWorkerPool(ExecutorService workerPool, int parallelism) {
+        this.workerPool = workerPool;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Splits analysis into slices that each wait for {@code governor}'s CPU budget.
+     */
+    public void setOverheadGovernor(OverheadGovernor governor) {
+        this.governor = governor;
     }
 
     public void start() {
@@ -58,36 +92,120 @@ public class HeapAnalyzer {
         try {
             MemoryUsage heapUsage = memoryMXBean.getHeapMemoryUsage();
             MemoryUsage nonHeapUsage = memoryMXBean.getNonHeapMemoryUsage();
+            MemoryPoolStats[] memoryPools = sampleMemoryPools();
+            long allocatedBytes;
+            double allocationRate;
+            synchronized (allocationCounter) {
+                allocatedBytes = allocationCounter.sample();
+                long sampleTime = System.nanoTime();
+                allocationRate = allocatedBytes >= 0 && lastAllocatedBytes >= 0
+                    ? (allocatedBytes - lastAllocatedBytes) * 1e9 / Math.max(1, sampleTime - lastAllocationSampleTime)
+                    : -1;
+                lastAllocatedBytes = allocatedBytes;
+                lastAllocationSampleTime = sampleTime;
+            }
 
-            Collection<ObjectTracker.TrackedObject> trackedObjects = objectTracker.getAllTrackedObjects();
-
-            Map<String, Integer> objectCountByClass = new HashMap<>();
-            Map<String, Long> memorySizeByClass = new HashMap<>();
+            drainCollectedObjects();
+            ClassCounters counters = objectTracker.getClassCounters();
+            ClassHistograms lifetimes = objectTracker.getLifetimeHistograms();
+            ClassHistograms sizes = objectTracker.getSizeHistograms();
+            long now = System.currentTimeMillis();
+            updateAgeCohorts(now);
+
+            int classCount = Math.max(counters.size(), lifetimes.size());
+            int[] classIds = new int[classCount];
+            int[] instanceCounts = new int[classCount];
+            long[] memorySizes = new long[classCount];
+            long[] estimatedInstanceCounts = new long[classCount];
+            long[] estimatedMemorySizes = new long[classCount];
+            LogHistogram.Snapshot[] lifetimeHistograms = new LogHistogram.Snapshot[classCount];
+            LogHistogram.Snapshot[] ageHistograms = new LogHistogram.Snapshot[classCount];
+            LogHistogram.Snapshot[] sizeHistograms = new LogHistogram.Snapshot[classCount];
+            int trackedObjectCount = 0;
             long totalTrackedMemory = 0;
+            double estimatedObjectCount = 0;
+            double estimatedTotalMemory = 0;
+            int presentClasses = 0;
 
-            for (ObjectTracker.TrackedObject tracked : trackedObjects) {
-                Object obj = tracked.getObject();
-                if (obj != null) {
-                    String className = obj.getClass().getName();
-                    objectCountByClass.merge(className, 1, Integer::sum);
-
-                    long objSize = estimateObjectSize(obj);
-                    memorySizeByClass.merge(className, objSize, Long::sum);
-                    totalTrackedMemory += objSize;
+            for (int classId = 0; classId < classCount; classId++) {
+                long count = Math.max(0, counters.getLiveCount(classId));
+                if (count == 0 && !lifetimes.hasValues(classId)) {
+                    continue;
+                }
+                long bytes = counters.getLiveBytes(classId);
+                double estimatedCount = counters.getEstimatedLiveCount(classId);
+                double estimatedBytes = counters.getEstimatedLiveBytes(classId);
+
+                int i = presentClasses++;
+                classIds[i] = classId;
+                instanceCounts[i] = (int) Math.min(count, Integer.MAX_VALUE);
+                memorySizes[i] = bytes;
+                estimatedInstanceCounts[i] = Math.round(estimatedCount);
+                estimatedMemorySizes[i] = Math.round(estimatedBytes);
+                lifetimeHistograms[i] = lifetimes.snapshot(classId);
+                ageHistograms[i] = ageSnapshot(classId, now);
+                sizeHistograms[i] = sizes.snapshot(classId);
+                trackedObjectCount += instanceCounts[i];
+                totalTrackedMemory += bytes;
+                estimatedObjectCount += estimatedCount;
+                estimatedTotalMemory += estimatedBytes;
+            }
 
-                    updateClassStatistics(className, objSize);
+            classIds = Arrays.copyOf(classIds, presentClasses);
+            instanceCounts = Arrays.copyOf(instanceCounts, presentClasses);
+            memorySizes = Arrays.copyOf(memorySizes, presentClasses);
+            estimatedInstanceCounts = Arrays.copyOf(estimatedInstanceCounts, presentClasses);
+            estimatedMemorySizes = Arrays.copyOf(estimatedMemorySizes, presentClasses);
+            lifetimeHistograms = Arrays.copyOf(lifetimeHistograms, presentClasses);
+            ageHistograms = Arrays.copyOf(ageHistograms, presentClasses);
+            sizeHistograms = Arrays.copyOf(sizeHistograms, presentClasses);
+
+            updateClassStatistics(classIds, instanceCounts, memorySizes);
+
+            TagIndex tagIndex = objectTracker.getTagIndex();
+            int tagCount = tagIndex.getTagCount();
+            int[] tagIds = new int[tagCount];
+            long[] tagInstanceCounts = new long[tagCount];
+            long[] tagMemorySizes = new long[tagCount];
+            int presentTags = 0;
+            for (int tagId = 0; tagId < tagCount; tagId++) {
+                long count = tagIndex.getLiveCount(tagId);
+                if (count > 0) {
+                    tagIds[presentTags] = tagId;
+                    tagInstanceCounts[presentTags] = count;
+                    tagMemorySizes[presentTags] = tagIndex.getLiveBytes(tagId);
+                    presentTags++;
                 }
             }
+            String[] tagNames = new String[presentTags];
+            for (int i = 0; i < presentTags; i++) {
+                tagNames[i] = tagIndex.getTagName(tagIds[i]);
+            }
 
             lastSnapshot = new HeapSnapshot(
                 heapUsage.getUsed(),
                 heapUsage.getMax(),
                 heapUsage.getCommitted(),
                 nonHeapUsage.getUsed(),
-                trackedObjects.size(),
+                memoryPools,
+                allocatedBytes,
+                allocationRate,
+                trackedObjectCount,
                 totalTrackedMemory,
-                objectCountByClass,
-                memorySizeByClass,
+                Math.round(estimatedObjectCount),
+                Math.round(estimatedTotalMemory),
+                classIds,
+                instanceCounts,
+                memorySizes,
+                estimatedInstanceCounts,
+                estimatedMemorySizes,
+                lifetimeHistograms,
+                ageHistograms,
+                sizeHistograms,
+                tagNames,
+                Arrays.copyOf(tagInstanceCounts, presentTags),
+                Arrays.copyOf(tagMemorySizes, presentTags),
+                objectTracker.getSamplingRate(),
                 System.currentTimeMillis()
             );
 
@@ -101,118 +219,328 @@ public class HeapAnalyzer {
         }
     }
 
-    public long estimateObjectSize(Object obj) {
-        if (obj == null) {
-            return 0;
+    private MemoryPoolStats[] sampleMemoryPools() {
+        List<MemoryPoolStats> pools = new ArrayList<>(memoryPoolMXBeans.size());
+        for (MemoryPoolMXBean pool : memoryPoolMXBeans) {
+            if (!pool.isValid()) {
+                continue;
+            }
+            MemoryUsage usage = pool.getUsage();
+            MemoryUsage peak = pool.getPeakUsage();
+            MemoryUsage afterCollection = pool.getCollectionUsage();
+            if (usage == null) {
+                continue;
+            }
+            pools.add(new MemoryPoolStats(
+                pool.getName(),
+                pool.getType() == MemoryType.HEAP,
+                usage.getUsed(),
+                usage.getCommitted(),
+                usage.getMax(),
+                peak != null ? peak.getUsed() : -1,
+                afterCollection != null ? afterCollection.getUsed() : -1
+            ));
         }
+        return pools.toArray(new MemoryPoolStats[0]);
+    }
 
-        Class<?> clazz = obj.getClass();
-        long size = 16;
-
-        if (clazz.isArray()) {
-            int length = Array.getLength(obj);
-            Class<?> componentType = clazz.getComponentType();
-
-            if (componentType.isPrimitive()) {
-                if (componentType == boolean.class || componentType == byte.class) {
-                    size += length;
-                } else if (componentType == char.class || componentType == short.class) {
-                    size += length * 2L;
-                } else if (componentType == int.class || componentType == float.class) {
-                    size += length * 4L;
-                } else if (componentType == long.class || componentType == double.class) {
-                    size += length * 8L;
+    /**
+     * Applies the tracker's change log to the age cohorts, or rebuilds them from a scan
+     * of the store if the log overflowed.
+     */
+    void updateAgeCohorts(long now) {
+        synchronized (ageCohorts) {
+            boolean complete = objectTracker.getChangeLog().drain((classId, trackingTimestamp, tracked) -> {
+                if (tracked) {
+                    ageCohorts.add(classId, trackingTimestamp);
+                } else {
+                    ageCohorts.remove(classId, trackingTimestamp);
+                }
+            });
+
+            if (!complete) {
+                fullAgeRebuilds.increment();
+                // Releases must not be logged between the reset and the scan, so collected
+                // objects are drained before the stripes are held and the scan does not drain
+                drainCollectedObjects();
+                OverheadGovernor currentGovernor = governor;
+                if (currentGovernor != null) {
+                    // The scan cannot be sliced, so it only starts within budget
+                    currentGovernor.awaitBudget();
+                }
+                LogHistogram[][] scanned = new LogHistogram[1][];
+                objectTracker.getStore().runExclusive(() -> {
+                    objectTracker.getChangeLog().reset();
+                    scanned[0] = computeAgeHistograms(now);
+                });
+                LogHistogram[] ages = scanned[0];
+                ageCohorts.clear();
+                for (int classId = 0; classId < ages.length; classId++) {
+                    if (ages[classId] != null) {
+                        ageCohorts.reset(classId, ages[classId].snapshot(), now);
+                    }
                 }
-            } else {
-                size += length * 4L;
             }
-        } else {
-            size += estimateFieldsSize(clazz);
+
+            ageCohorts.seal(now);
+        }
+    }
+
+    private void drainCollectedObjects() {
+        OverheadGovernor currentGovernor = governor;
+        if (currentGovernor == null) {
+            objectTracker.drainCollectedObjects(Integer.MAX_VALUE);
+            return;
+        }
+        while (objectTracker.drainCollectedObjects(DRAIN_SLICE) == DRAIN_SLICE) {
+            currentGovernor.awaitBudget();
         }
+    }
 
-        return alignTo8Bytes(size);
+    private LogHistogram.Snapshot ageSnapshot(int classId, long now) {
+        synchronized (ageCohorts) {
+            return ageCohorts.snapshot(classId, now);
+        }
     }
 
-    private long estimateFieldsSize(Class<?> clazz) {
-        long size = 0;
+    /**
+     * Returns how often the age aggregates had to be rebuilt from the whole store
+     * because the change log overflowed.
+     */
+    public long getFullAgeRebuildCount() {
+        return fullAgeRebuilds.sum();
+    }
 
-        while (clazz != null && clazz != Object.class) {
-            for (Field field : clazz.getDeclaredFields()) {
-                if (Modifier.isStatic(field.getModifiers())) {
-                    continue;
+    /**
+     * Builds per-class age histograms in milliseconds. Runs with every store stripe held,
+     * so the chunks do not wait for CPU budget.
+     */
+    private LogHistogram[] computeAgeHistograms(long now) {
+        List<LogHistogram[]> chunks = ChunkedScan.run(objectTracker, workerPool, parallelism, null, cursor -> {
+            LogHistogram[] ages = new LogHistogram[ClassRegistry.size()];
+            while (cursor.next()) {
+                int classId = cursor.getClassId();
+                if (classId >= ages.length) {
+                    ages = Arrays.copyOf(ages, ClassRegistry.size());
                 }
+                if (ages[classId] == null) {
+                    ages[classId] = new LogHistogram(AGE_SUB_BUCKET_BITS, AGE_MAX_VALUE_BITS);
+                }
+                ages[classId].record(now - cursor.getTrackingTimestamp());
+            }
+            return ages;
+        });
 
-                Class<?> fieldType = field.getType();
-                if (fieldType.isPrimitive()) {
-                    if (fieldType == boolean.class || fieldType == byte.class) {
-                        size += 1;
-                    } else if (fieldType == char.class || fieldType == short.class) {
-                        size += 2;
-                    } else if (fieldType == int.class || fieldType == float.class) {
-                        size += 4;
-                    } else if (fieldType == long.class || fieldType == double.class) {
-                        size += 8;
-                    }
+        LogHistogram[] merged = chunks.get(0);
+        for (int c = 1; c < chunks.size(); c++) {
+            LogHistogram[] ages = chunks.get(c);
+            if (ages.length > merged.length) {
+                merged = Arrays.copyOf(merged, ages.length);
+            }
+            for (int classId = 0; classId < ages.length; classId++) {
+                if (ages[classId] == null) {
+                    continue;
+                }
+                if (merged[classId] == null) {
+                    merged[classId] = ages[classId];
                 } else {
-                    size += 4;
+                    merged[classId].add(ages[classId]);
                 }
             }
-            clazz = clazz.getSuperclass();
         }
-
-        return size;
+        return merged;
     }
 
-    private long alignTo8Bytes(long size) {
-        return ((size + 7) / 8) * 8;
+    public long estimateObjectSize(Object obj) {
+        return objectTracker.getSizeEstimator().estimate(obj);
     }
 
-    private void updateClassStatistics(String className, long size) {
-        classStats.compute(className, (k, stats) -> {
+    private synchronized void updateClassStatistics(int[] classIds, int[] instanceCounts, long[] memorySizes) {
+        if (classIds.length > 0 && classIds[classIds.length - 1] >= classStats.length) {
+            classStats = Arrays.copyOf(classStats, ClassRegistry.size());
+        }
+
+        for (int i = 0; i < classIds.length; i++) {
+            ClassStatistics stats = classStats[classIds[i]];
             if (stats == null) {
-                stats = new ClassStatistics(className);
+                stats = new ClassStatistics(ClassRegistry.getName(classIds[i]));
+                classStats[classIds[i]] = stats;
             }
-            stats.incrementCount();
-            stats.addMemorySize(size);
-            return stats;
-        });
+            stats.addInstances(instanceCounts[i], memorySizes[i]);
+        }
     }
 
     public HeapSnapshot getLastSnapshot() {
         return lastSnapshot;
     }
 
-    public Map<String, ClassStatistics> getClassStatistics() {
-        return new HashMap<>(classStats);
+    /**
+     * Makes the last snapshot the baseline for {@link #diffFromBaseline()}. Returns the
+     * new baseline, or {@code null} if no analysis has run yet.
+     */
+    public HeapSnapshot markBaseline() {
+        baselineSnapshot = lastSnapshot;
+        return baselineSnapshot;
+    }
+
+    public HeapSnapshot getBaselineSnapshot() {
+        return baselineSnapshot;
+    }
+
+    public void clearBaseline() {
+        baselineSnapshot = null;
     }
 
-    public void clearStatistics() {
-        classStats.clear();
+    /**
+     * Compares the last snapshot with the baseline, or returns {@code null} if either is
+     * missing.
+     */
+    public SnapshotDiff diffFromBaseline() {
+        HeapSnapshot baseline = baselineSnapshot;
+        HeapSnapshot current = lastSnapshot;
+        return baseline != null && current != null ? SnapshotDiff.compute(baseline, current) : null;
     }
 
+    /**
+     * Returns the allocation sites with live tracked objects, largest shallow size first,
+     * or an empty list when allocation-site capture is disabled.
+     */
+    public List<AllocationSite> getAllocationSites(int limit) {
+        AllocationSiteRecorder recorder = objectTracker.getAllocationSiteRecorder();
+        if (recorder == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        objectTracker.drainCollectedObjects(Integer.MAX_VALUE);
+        ClassCounters counters = objectTracker.getSiteCounters();
+        StackTable stackTable = recorder.getStackTable();
+
+        List<AllocationSite> sites = new ArrayList<>();
+        for (int siteId = StackTable.EMPTY_STACK + 1; siteId < counters.size(); siteId++) {
+            long count = counters.getLiveCount(siteId);
+            if (count > 0) {
+                sites.add(new AllocationSite(stackTable, siteId, count, counters.getLiveBytes(siteId),
+                    Math.round(counters.getEstimatedLiveCount(siteId)),
+                    Math.round(counters.getEstimatedLiveBytes(siteId))));
+            }
+        }
+
+        sites.sort((s1, s2) -> Long.compare(s2.getLiveBytes(), s1.getLiveBytes()));
+        return sites.size() > limit ? new ArrayList<>(sites.subList(0, limit)) : sites;
+    }
+
+    public synchronized Map<String, ClassStatistics> getClassStatistics() {
+        Map<String, ClassStatistics> result = new HashMap<>();
+        for (ClassStatistics stats : classStats) {
+            if (stats != null) {
+                result.putIfAbsent(stats.getClassName(), stats);
+            }
+        }
+        return result;
+    }
+
+    public synchronized void clearStatistics() {
+        classStats = new ClassStatistics[0];
+    }
+
+    /**
+     * Usage of one {@link MemoryPoolMXBean}. Sizes the JVM does not report are -1.
+     */
+    public static class MemoryPoolStats {
+        private final String name;
+        private final boolean heap;
+        private final long used;
+        private final long committed;
+        private final long max;
+        private final long peakUsed;
+        private final long usedAfterCollection;
+
+        public MemoryPoolStats(String name, boolean heap, long used, long committed, long max, long peakUsed,
+                               long usedAfterCollection) {
+            this.name = name;
+            this.heap = heap;
+            this.used = used;
+            this.committed = committed;
+            this.max = max;
+            this.peakUsed = peakUsed;
+            this.usedAfterCollection = usedAfterCollection;
+        }
+
+        public String getName() { return name; }
+        public boolean isHeap() { return heap; }
+        public long getUsed() { return used; }
+        public long getCommitted() { return committed; }
+        public long getMax() { return max; }
+        public long getPeakUsed() { return peakUsed; }
+
+        /**
+         * Bytes in use right after the most recent collection of this pool.
+         */
+        public long getUsedAfterCollection() { return usedAfterCollection; }
+    }
+
+    /**
+     * Per-class figures in parallel arrays ordered by {@link ClassRegistry} class ID.
+     */
     public static class HeapSnapshot {
         private final long heapUsed;
         private final long heapMax;
         private final long heapCommitted;
         private final long nonHeapUsed;
+        private final MemoryPoolStats[] memoryPools;
+        private final long allocatedBytes;
+        private final double allocationRate;
         private final int trackedObjectCount;
         private final long totalTrackedMemory;
-        private final Map<String, Integer> objectCountByClass;
-        private final Map<String, Long> memorySizeByClass;
+        private final long estimatedObjectCount;
+        private final long estimatedTotalMemory;
+        private final int[] classIds;
+        private final int[] instanceCounts;
+        private final long[] memorySizes;
+        private final long[] estimatedInstanceCounts;
+        private final long[] estimatedMemorySizes;
+        private final LogHistogram.Snapshot[] lifetimeHistograms;
+        private final LogHistogram.Snapshot[] ageHistograms;
+        private final LogHistogram.Snapshot[] sizeHistograms;
+        private final String[] tags;
+        private final long[] tagInstanceCounts;
+        private final long[] tagMemorySizes;
+        private final int samplingRate;
         private final long timestamp;
 
         public HeapSnapshot(long heapUsed, long heapMax, long heapCommitted, long nonHeapUsed,
+                          MemoryPoolStats[] memoryPools, long allocatedBytes, double allocationRate,
                           int trackedObjectCount, long totalTrackedMemory,
-                          Map<String, Integer> objectCountByClass, Map<String, Long> memorySizeByClass,
-                          long timestamp) {
+                          long estimatedObjectCount, long estimatedTotalMemory,
+                          int[] classIds, int[] instanceCounts, long[] memorySizes,
+                          long[] estimatedInstanceCounts, long[] estimatedMemorySizes,
+                          LogHistogram.Snapshot[] lifetimeHistograms, LogHistogram.Snapshot[] ageHistograms,
+                          LogHistogram.Snapshot[] sizeHistograms,
+                          String[] tags, long[] tagInstanceCounts, long[] tagMemorySizes,
+                          int samplingRate, long timestamp) {
             this.heapUsed = heapUsed;
             this.heapMax = heapMax;
             this.heapCommitted = heapCommitted;
             this.nonHeapUsed = nonHeapUsed;
+            this.memoryPools = memoryPools;
+            this.allocatedBytes = allocatedBytes;
+            this.allocationRate = allocationRate;
             this.trackedObjectCount = trackedObjectCount;
             this.totalTrackedMemory = totalTrackedMemory;
-            this.objectCountByClass = objectCountByClass;
-            this.memorySizeByClass = memorySizeByClass;
+            this.estimatedObjectCount = estimatedObjectCount;
+            this.estimatedTotalMemory = estimatedTotalMemory;
+            this.classIds = classIds;
+            this.instanceCounts = instanceCounts;
+            this.memorySizes = memorySizes;
+            this.estimatedInstanceCounts = estimatedInstanceCounts;
+            this.estimatedMemorySizes = estimatedMemorySizes;
+            this.lifetimeHistograms = lifetimeHistograms;
+            this.ageHistograms = ageHistograms;
+            this.sizeHistograms = sizeHistograms;
+            this.tags = tags;
+            this.tagInstanceCounts = tagInstanceCounts;
+            this.tagMemorySizes = tagMemorySizes;
+            this.samplingRate = samplingRate;
             this.timestamp = timestamp;
         }
 
@@ -220,14 +548,144 @@ public class HeapAnalyzer {
         public long getHeapMax() { return heapMax; }
         public long getHeapCommitted() { return heapCommitted; }
         public long getNonHeapUsed() { return nonHeapUsed; }
+        public int getMemoryPoolCount() { return memoryPools.length; }
+        public MemoryPoolStats getMemoryPool(int index) { return memoryPools[index]; }
+
+        /**
+         * Bytes allocated by all threads since the analyzer's first snapshot, or -1 if the
+         * JVM does not count allocations per thread.
+         */
+        public long getAllocatedBytes() { return allocatedBytes; }
+
+        /**
+         * Bytes allocated per second since the previous snapshot, or -1 if unknown.
+         */
+        public double getAllocationRate() { return allocationRate; }
         public int getTrackedObjectCount() { return trackedObjectCount; }
         public long getTotalTrackedMemory() { return totalTrackedMemory; }
-        public Map<String, Integer> getObjectCountByClass() { return objectCountByClass; }
-        public Map<String, Long> getMemorySizeByClass() { return memorySizeByClass; }
+        public long getEstimatedObjectCount() { return estimatedObjectCount; }
+        public long getEstimatedTotalMemory() { return estimatedTotalMemory; }
+        public int getSamplingRate() { return samplingRate; }
+        public boolean isSampled() { return samplingRate < AllocationSampler.MAX_SAMPLING_RATE; }
         public long getTimestamp() { return timestamp; }
         public double getHeapUsagePercentage() {
             return heapMax > 0 ? (heapUsed * 100.0 / heapMax) : 0;
         }
+
+        public int getClassCount() { return classIds.length; }
+        public int getClassId(int index) { return classIds[index]; }
+        public String getClassName(int index) { return ClassRegistry.getName(classIds[index]); }
+        public int getInstanceCount(int index) { return instanceCounts[index]; }
+        public long getMemorySize(int index) { return memorySizes[index]; }
+        public long getEstimatedInstanceCount(int index) { return estimatedInstanceCounts[index]; }
+        public long getEstimatedMemorySize(int index) { return estimatedMemorySizes[index]; }
+
+        /**
+         * Milliseconds from tracking to collection of the class's collected instances.
+         */
+        public LogHistogram.Snapshot getLifetimeHistogram(int index) { return lifetimeHistograms[index]; }
+
+        /**
+         * Milliseconds since tracking of the class's live instances.
+         */
+        public LogHistogram.Snapshot getAgeHistogram(int index) { return ageHistograms[index]; }
+
+        /**
+         * Shallow sizes in bytes of the class's live tracked instances, unweighted by
+         * sampling. Percentiles are bucket upper bounds, within 12.5% of the exact size.
+         */
+        public LogHistogram.Snapshot getSizeHistogram(int index) { return sizeHistograms[index]; }
+
+        public int getTagCount() { return tags.length; }
+        public String getTag(int index) { return tags[index]; }
+        public long getTagInstanceCount(int index) { return tagInstanceCounts[index]; }
+        public long getTagMemorySize(int index) { return tagMemorySizes[index]; }
+
+        public Map<String, Long> getMemorySizeByTag() {
+            Map<String, Long> result = new HashMap<>(tags.length * 2);
+            for (int i = 0; i < tags.length; i++) {
+                result.put(tags[i], tagMemorySizes[i]);
+            }
+            return result;
+        }
+
+        /**
+         * Returns the position of {@code classId} in this snapshot, or a negative value if
+         * no instance of the class was tracked.
+         */
+        public int indexOfClass(int classId) {
+            return Arrays.binarySearch(classIds, classId);
+        }
+
+        public Map<String, Integer> getObjectCountByClass() {
+            Map<String, Integer> result = new HashMap<>(classIds.length * 2);
+            for (int i = 0; i < classIds.length; i++) {
+                result.merge(getClassName(i), instanceCounts[i], Integer::sum);
+            }
+            return result;
+        }
+
+        public Map<String, Long> getMemorySizeByClass() {
+            return toNameMap(memorySizes);
+        }
+
+        public Map<String, Long> getEstimatedObjectCountByClass() {
+            return toNameMap(estimatedInstanceCounts);
+        }
+
+        public Map<String, Long> getEstimatedMemorySizeByClass() {
+            return toNameMap(estimatedMemorySizes);
+        }
+
+        private Map<String, Long> toNameMap(long[] values) {
+            Map<String, Long> result = new HashMap<>(classIds.length * 2);
+            for (int i = 0; i < classIds.length; i++) {
+                result.merge(getClassName(i), values[i], Long::sum);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Live tracked objects allocated from one captured stack. Frames are resolved from the
+     * stack table on first access.
+     */
+    public static class AllocationSite {
+        private final StackTable stackTable;
+        private final int siteId;
+        private final long liveCount;
+        private final long liveBytes;
+        private final long estimatedCount;
+        private final long estimatedBytes;
+        private List<StackTraceElement> frames;
+
+        public AllocationSite(StackTable stackTable, int siteId, long liveCount, long liveBytes,
+                              long estimatedCount, long estimatedBytes) {
+            this.stackTable = stackTable;
+            this.siteId = siteId;
+            this.liveCount = liveCount;
+            this.liveBytes = liveBytes;
+            this.estimatedCount = estimatedCount;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        public int getSiteId() { return siteId; }
+        public long getLiveCount() { return liveCount; }
+        public long getLiveBytes() { return liveBytes; }
+        public long getEstimatedCount() { return estimatedCount; }
+        public long getEstimatedBytes() { return estimatedBytes; }
+
+        public synchronized List<StackTraceElement> getFrames() {
+            if (frames == null) {
+                frames = Collections.unmodifiableList(stackTable.getFrames(siteId));
+            }
+            return frames;
+        }
+
+        public StackTraceElement getAllocationFrame() {
+            List<StackTraceElement> stack = getFrames();
+            return stack.isEmpty() ? null : stack.get(0);
+        }
     }
 
     public static class ClassStatistics {
@@ -253,6 +711,12 @@ public class HeapAnalyzer {
             lastUpdateTime = System.currentTimeMillis();
         }
 
+        public void addInstances(int count, long memorySize) {
+            instanceCount += count;
+            totalMemorySize += memorySize;
+            lastUpdateTime = System.currentTimeMillis();
+        }
+
         public String getClassName() { return className; }
         public int getInstanceCount() { return instanceCount; }
         public long getTotalMemorySize() { return totalMemorySize; }
@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import com.gdkteam.guasa.event.EventBus;
+import com.gdkteam.guasa.event.GuasaEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Fixed-memory history of snapshot metrics in 1 s, 10 s and 1 min ring-buffer tiers.
+ */
+public class HeapTimeSeries {
+    private static final Logger logger = LoggerFactory.getLogger(HeapTimeSeries.class);
+    private static final long[] RESOLUTIONS_MS = {1000, 10_000, 60_000};
+
+    public enum Metric {
+        HEAP_USED,
+        HEAP_COMMITTED,
+        TRACKED_OBJECTS,
+        TRACKED_MEMORY
+    }
+
+    private static final int METRIC_COUNT = Metric.values().length;
+
+    private final EventBus eventBus;
+    private final int topClasses;
+    private final Tier[] tiers;
+    private final EventBus.EventListener<GuasaEvent.HeapAnalyzed> listener;
+
+    public HeapTimeSeries(EventBus eventBus, long memoryBudgetBytes, int topClasses) {
+        if (topClasses < 0) {
+            throw new IllegalArgumentException("Top class count must not be negative: " + topClasses);
+        }
+        this.eventBus = eventBus;
+        this.topClasses = topClasses;
+
+        long bucketBytes = Long.BYTES + Integer.BYTES + 3L * METRIC_COUNT * Long.BYTES
+            + (long) topClasses * (Integer.BYTES + Long.BYTES + Integer.BYTES);
+        int capacity = (int) Math.min(Integer.MAX_VALUE / Math.max(METRIC_COUNT, topClasses),
+            memoryBudgetBytes / RESOLUTIONS_MS.length / bucketBytes);
+        if (capacity < 2) {
+            throw new IllegalArgumentException("History memory budget too small: " + memoryBudgetBytes + " bytes");
+        }
+
+        this.tiers = new Tier[RESOLUTIONS_MS.length];
+        for (int i = 0; i < tiers.length; i++) {
+            tiers[i] = new Tier(RESOLUTIONS_MS[i], capacity, topClasses);
+        }
+        this.listener = event -> record(event.getSnapshot());
+    }
+
+    public void start() {
+        eventBus.subscribe(GuasaEvent.HeapAnalyzed.class, listener);
+        logger.info("HeapTimeSeries started with {} buckets per tier", tiers[0].capacity);
+    }
+
+    public void stop() {
+        eventBus.unsubscribe(GuasaEvent.HeapAnalyzed.class, listener);
+        logger.info("HeapTimeSeries stopped");
+    }
+
+    public void record(HeapAnalyzer.HeapSnapshot snapshot) {
+        long[] values = new long[METRIC_COUNT];
+        values[Metric.HEAP_USED.ordinal()] = snapshot.getHeapUsed();
+        values[Metric.HEAP_COMMITTED.ordinal()] = snapshot.getHeapCommitted();
+        values[Metric.TRACKED_OBJECTS.ordinal()] = snapshot.getTrackedObjectCount();
+        values[Metric.TRACKED_MEMORY.ordinal()] = snapshot.getTotalTrackedMemory();
+
+        // Largest classes by bytes, kept in ascending order so the smallest is replaced first
+        int[] topIds = new int[topClasses];
+        int topCount = 0;
+        for (int i = 0; i < snapshot.getClassCount() && topClasses > 0; i++) {
+            long bytes = snapshot.getMemorySize(i);
+            int position;
+            if (topCount < topClasses) {
+                position = topCount++;
+                while (position > 0 && snapshot.getMemorySize(topIds[position - 1]) > bytes) {
+                    topIds[position] = topIds[position - 1];
+                    position--;
+                }
+            } else if (bytes > snapshot.getMemorySize(topIds[0])) {
+                position = 0;
+                while (position + 1 < topCount && snapshot.getMemorySize(topIds[position + 1]) < bytes) {
+                    topIds[position] = topIds[position + 1];
+                    position++;
+                }
+            } else {
+                continue;
+            }
+            topIds[position] = i;
+        }
+
+        synchronized (this) {
+            for (Tier tier : tiers) {
+                int slot = tier.slotFor(snapshot.getTimestamp());
+                tier.mergeValues(slot, values);
+                for (int k = 0; k < topCount; k++) {
+                    int index = topIds[k];
+                    tier.mergeClass(slot, snapshot.getClassId(index), snapshot.getMemorySize(index),
+                        snapshot.getInstanceCount(index));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the buckets overlapping {@code [fromMillis, toMillis]} from the finest tier
+     * that has not yet overwritten data from after {@code fromMillis}, falling back to
+     * the coarsest tier.
+     */
+    public synchronized Series query(long fromMillis, long toMillis) {
+        for (Tier tier : tiers) {
+            if (tier.size < tier.capacity || tier.oldestStart() <= fromMillis) {
+                return tier.copy(fromMillis, toMillis);
+            }
+        }
+        return tiers[tiers.length - 1].copy(fromMillis, toMillis);
+    }
+
+    /**
+     * Returns the buckets of the tier with the given resolution overlapping
+     * {@code [fromMillis, toMillis]}.
+     */
+    public synchronized Series query(long fromMillis, long toMillis, long resolutionMillis) {
+        for (Tier tier : tiers) {
+            if (tier.resolution == resolutionMillis) {
+                return tier.copy(fromMillis, toMillis);
+            }
+        }
+        throw new IllegalArgumentException("No history tier with resolution " + resolutionMillis + " ms");
+    }
+
+    public long[] getResolutions() {
+        return RESOLUTIONS_MS.clone();
+    }
+
+    /**
+     * Returns the time covered by the tier with the given resolution when full.
+     */
+    public long getRetentionMillis(long resolutionMillis) {
+        for (Tier tier : tiers) {
+            if (tier.resolution == resolutionMillis) {
+                return tier.resolution * tier.capacity;
+            }
+        }
+        throw new IllegalArgumentException("No history tier with resolution " + resolutionMillis + " ms");
+    }
+
+    public synchronized void clear() {
+        for (Tier tier : tiers) {
+            tier.head = 0;
+            tier.size = 0;
+        }
+    }
+
+    private static final class Tier {
+        final long resolution;
+        final int capacity;
+        final int topClasses;
+        final long[] starts;
+        final int[] samples;
+        final long[] mins;
+        final long[] maxs;
+        final long[] sums;
+        final int[] topIds;
+        final long[] topBytes;
+        final int[] topCounts;
+        int head;
+        int size;
+
+        Tier(long resolution, int capacity, int topClasses) {
+            this.resolution = resolution;
+            this.capacity = capacity;
+            this.topClasses = topClasses;
+            this.starts = new long[capacity];
+            this.samples = new int[capacity];
+            this.mins = new long[capacity * METRIC_COUNT];
+            this.maxs = new long[capacity * METRIC_COUNT];
+            this.sums = new long[capacity * METRIC_COUNT];
+            this.topIds = new int[capacity * topClasses];
+            this.topBytes = new long[capacity * topClasses];
+            this.topCounts = new int[capacity * topClasses];
+        }
+
+        long oldestStart() {
+            return starts[head];
+        }
+
+        /**
+         * Returns the slot of the bucket containing {@code timestamp}, opening a new bucket
+         * over the oldest one if needed. A timestamp older than the newest bucket, after a
+         * clock change, goes into the newest bucket.
+         */
+        int slotFor(long timestamp) {
+            long start = timestamp - Math.floorMod(timestamp, resolution);
+            if (size > 0) {
+                int newest = physical(size - 1);
+                if (start <= starts[newest]) {
+                    return newest;
+                }
+            }
+
+            int slot;
+            if (size < capacity) {
+                slot = physical(size);
+                size++;
+            } else {
+                slot = head;
+                head = (head + 1) % capacity;
+            }
+            starts[slot] = start;
+            samples[slot] = 0;
+            Arrays.fill(mins, slot * METRIC_COUNT, (slot + 1) * METRIC_COUNT, Long.MAX_VALUE);
+            Arrays.fill(maxs, slot * METRIC_COUNT, (slot + 1) * METRIC_COUNT, Long.MIN_VALUE);
+            Arrays.fill(sums, slot * METRIC_COUNT, (slot + 1) * METRIC_COUNT, 0);
+            Arrays.fill(topIds, slot * topClasses, (slot + 1) * topClasses, -1);
+            return slot;
+        }
+
+        void mergeValues(int slot, long[] values) {
+            samples[slot]++;
+            int base = slot * METRIC_COUNT;
+            for (int m = 0; m < METRIC_COUNT; m++) {
+                mins[base + m] = Math.min(mins[base + m], values[m]);
+                maxs[base + m] = Math.max(maxs[base + m], values[m]);
+                sums[base + m] += values[m];
+            }
+        }
+
+        /**
+         * Keeps the largest byte count seen for {@code classId} in the bucket, replacing
+         * the smallest class of a full bucket if this one is larger.
+         */
+        void mergeClass(int slot, int classId, long bytes, int count) {
+            int empty = -1;
+            int smallest = -1;
+            for (int i = slot * topClasses; i < (slot + 1) * topClasses; i++) {
+                if (topIds[i] == classId) {
+                    if (bytes > topBytes[i]) {
+                        topBytes[i] = bytes;
+                        topCounts[i] = count;
+                    }
+                    return;
+                }
+                if (topIds[i] < 0) {
+                    if (empty < 0) {
+                        empty = i;
+                    }
+                } else if (smallest < 0 || topBytes[i] < topBytes[smallest]) {
+                    smallest = i;
+                }
+            }
+            int target = empty >= 0 ? empty : smallest;
+            if (target >= 0 && (topIds[target] < 0 || topBytes[target] < bytes)) {
+                topIds[target] = classId;
+                topBytes[target] = bytes;
+                topCounts[target] = count;
+            }
+        }
+
+        Series copy(long fromMillis, long toMillis) {
+            // First bucket ending after fromMillis, and first bucket starting after toMillis
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[physical(mid)] + resolution <= fromMillis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            int first = low;
+            high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[physical(mid)] <= toMillis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            int last = low;
+
+            Series series = new Series(resolution, topClasses, Math.max(0, last - first));
+            for (int i = first; i < last; i++) {
+                int slot = physical(i);
+                int point = i - first;
+                series.timestamps[point] = starts[slot];
+                series.samples[point] = samples[slot];
+                System.arraycopy(mins, slot * METRIC_COUNT, series.mins, point * METRIC_COUNT, METRIC_COUNT);
+                System.arraycopy(maxs, slot * METRIC_COUNT, series.maxs, point * METRIC_COUNT, METRIC_COUNT);
+                System.arraycopy(sums, slot * METRIC_COUNT, series.sums, point * METRIC_COUNT, METRIC_COUNT);
+                series.copyTopClasses(point, topIds, topBytes, topCounts, slot * topClasses);
+            }
+            return series;
+        }
+
+        int physical(int index) {
+            int slot = head + index;
+            return slot >= capacity ? slot - capacity : slot;
+        }
+    }
+
+    /**
+     * Buckets of one tier in ascending time order. Top classes of each point are sorted
+     * by bytes, largest first.
+     */
+    public static class Series {
+        private final long resolutionMillis;
+        private final int topClasses;
+        private final long[] timestamps;
+        private final int[] samples;
+        private final long[] mins;
+        private final long[] maxs;
+        private final long[] sums;
+        private final int[] topClassCounts;
+        private final int[] topIds;
+        private final long[] topBytes;
+        private final int[] topCounts;
+
+        Series(long resolutionMillis, int topClasses, int points) {
+            this.resolutionMillis = resolutionMillis;
+            this.topClasses = topClasses;
+            this.timestamps = new long[points];
+            this.samples = new int[points];
+            this.mins = new long[points * METRIC_COUNT];
+            this.maxs = new long[points * METRIC_COUNT];
+            this.sums = new long[points * METRIC_COUNT];
+            this.topClassCounts = new int[points];
+            this.topIds = new int[points * topClasses];
+            this.topBytes = new long[points * topClasses];
+            this.topCounts = new int[points * topClasses];
+        }
+
+        void copyTopClasses(int point, int[] ids, long[] bytes, int[] counts, int from) {
+            int base = point * topClasses;
+            int n = 0;
+            for (int k = from; k < from + topClasses; k++) {
+                if (ids[k] < 0) {
+                    continue;
+                }
+                int position = base + n++;
+                while (position > base && topBytes[position - 1] < bytes[k]) {
+                    topIds[position] = topIds[position - 1];
+                    topBytes[position] = topBytes[position - 1];
+                    topCounts[position] = topCounts[position - 1];
+                    position--;
+                }
+                topIds[position] = ids[k];
+                topBytes[position] = bytes[k];
+                topCounts[position] = counts[k];
+            }
+            topClassCounts[point] = n;
+        }
+
+        public long getResolutionMillis() { return resolutionMillis; }
+        public int getPointCount() { return timestamps.length; }
+        public long getTimestamp(int point) { return timestamps[point]; }
+        public int getSampleCount(int point) { return samples[point]; }
+        public long getMin(int point, Metric metric) { return mins[point * METRIC_COUNT + metric.ordinal()]; }
+        public long getMax(int point, Metric metric) { return maxs[point * METRIC_COUNT + metric.ordinal()]; }
+
+        public double getAverage(int point, Metric metric) {
+            return (double) sums[point * METRIC_COUNT + metric.ordinal()] / samples[point];
+        }
+
+        public int getTopClassCount(int point) { return topClassCounts[point]; }
+        public int getTopClassId(int point, int rank) { return topIds[point * topClasses + rank]; }
+        public String getTopClassName(int point, int rank) { return ClassRegistry.getName(getTopClassId(point, rank)); }
+        public long getTopClassMemorySize(int point, int rank) { return topBytes[point * topClasses + rank]; }
+        public int getTopClassInstanceCount(int point, int rank) { return topCounts[point * topClasses + rank]; }
+    }
+}
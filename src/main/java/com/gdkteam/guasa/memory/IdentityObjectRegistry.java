@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.function.Consumer;
+
+/**
+ * Weak, identity-keyed map from tracked objects to their store slots, striped by identity hash.
+ */
+public class IdentityObjectRegistry {
+    public static final int NO_SLOT = TrackedObjectStore.NO_SLOT;
+
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+    private final ReferenceQueue<Object> queue;
+
+    public IdentityObjectRegistry() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public IdentityObjectRegistry(int concurrencyLevel) {
+        int stripeCount = 1;
+        while (stripeCount < concurrencyLevel && stripeCount < (1 << 16)) {
+            stripeCount <<= 1;
+        }
+
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeShift = 32 - Integer.numberOfTrailingZeros(stripeCount);
+        this.queue = new ReferenceQueue<>();
+    }
+
+    public Entry find(Object obj) {
+        int hash = System.identityHashCode(obj);
+        Stripe stripe = stripeFor(hash);
+
+        synchronized (stripe) {
+            return stripe.find(obj, hash);
+        }
+    }
+
+    public Entry register(Object obj, int slot) {
+        int hash = System.identityHashCode(obj);
+        Stripe stripe = stripeFor(hash);
+
+        synchronized (stripe) {
+            Entry existing = stripe.find(obj, hash);
+            if (existing != null) {
+                return existing;
+            }
+            Entry entry = new Entry(obj, hash, slot, queue);
+            stripe.insert(entry);
+            return entry;
+        }
+    }
+
+    public int remove(Object obj) {
+        int hash = System.identityHashCode(obj);
+        Stripe stripe = stripeFor(hash);
+
+        synchronized (stripe) {
+            Entry removed = stripe.remove(obj, hash);
+            if (removed == null) {
+                return NO_SLOT;
+            }
+            removed.clear();
+            return removed.slot;
+        }
+    }
+
+    /**
+     * Removes {@code entry} if it is still registered and clears it, so it is not enqueued
+     * once its referent is collected. Returns {@code false} if it was already removed.
+     */
+    public boolean unregister(Entry entry) {
+        Stripe stripe = stripeFor(entry.hash);
+        synchronized (stripe) {
+            if (!stripe.unlink(entry)) {
+                return false;
+            }
+        }
+        entry.clear();
+        return true;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+
+        while (queue.poll() != null) {
+            // Discard references enqueued before the clear
+        }
+    }
+
+    public int expungeStaleEntries(int maxEntries, Consumer<Entry> onCollected) {
+        int expunged = 0;
+        Object ref;
+
+        while (expunged < maxEntries && (ref = queue.poll()) != null) {
+            Entry entry = (Entry) ref;
+            Stripe stripe = stripeFor(entry.hash);
+            boolean unlinked;
+            synchronized (stripe) {
+                unlinked = stripe.unlink(entry);
+            }
+            if (unlinked) {
+                expunged++;
+                onCollected.accept(entry);
+            }
+        }
+
+        return expunged;
+    }
+
+    private Stripe stripeFor(int hash) {
+        return stripes[(hash * HASH_MULTIPLIER) >>> stripeShift & (stripes.length - 1)];
+    }
+
+    public static final class Entry extends WeakReference<Object> {
+        private final int hash;
+        private final int slot;
+        private Entry next;
+
+        Entry(Object referent, int hash, int slot, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = hash;
+            this.slot = slot;
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+
+        public int getIdentityHashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Stripe {
+        private Entry[] table = new Entry[INITIAL_STRIPE_CAPACITY];
+        private int size;
+
+        private int indexFor(int hash, int length) {
+            return (hash ^ (hash >>> 16)) & (length - 1);
+        }
+
+        Entry find(Object obj, int hash) {
+            for (Entry e = table[indexFor(hash, table.length)]; e != null; e = e.next) {
+                if (e.hash == hash && e.get() == obj) {
+                    return e;
+                }
+            }
+            return null;
+        }
+
+        void insert(Entry entry) {
+            if (size >= table.length - (table.length >>> 2)) {
+                resize();
+            }
+            int index = indexFor(entry.hash, table.length);
+            entry.next = table[index];
+            table[index] = entry;
+            size++;
+        }
+
+        Entry remove(Object obj, int hash) {
+            int index = indexFor(hash, table.length);
+            Entry prev = null;
+            for (Entry e = table[index]; e != null; prev = e, e = e.next) {
+                if (e.hash == hash && e.get() == obj) {
+                    unlinkAt(index, prev, e);
+                    return e;
+                }
+            }
+            return null;
+        }
+
+        boolean unlink(Entry entry) {
+            int index = indexFor(entry.hash, table.length);
+            Entry prev = null;
+            for (Entry e = table[index]; e != null; prev = e, e = e.next) {
+                if (e == entry) {
+                    unlinkAt(index, prev, e);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void clear() {
+            for (Entry head : table) {
+                for (Entry e = head; e != null; e = e.next) {
+                    e.clear();
+                }
+            }
+            table = new Entry[INITIAL_STRIPE_CAPACITY];
+            size = 0;
+        }
+
+        private void unlinkAt(int index, Entry prev, Entry e) {
+            if (prev == null) {
+                table[index] = e.next;
+            } else {
+                prev.next = e.next;
+            }
+            e.next = null;
+            size--;
+        }
+
+        private void resize() {
+            Entry[] oldTable = table;
+            Entry[] newTable = new Entry[oldTable.length << 1];
+
+            for (Entry head : oldTable) {
+                Entry e = head;
+                while (e != null) {
+                    Entry next = e.next;
+                    int index = indexFor(e.hash, newTable.length);
+                    e.next = newTable[index];
+                    newTable[index] = e;
+                    e = next;
+                }
+            }
+
+            table = newTable;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+/**
+ * Striped, add-only identity set for marking objects visited during a graph walk.
+ */
+final class IdentitySet {
+    private static final int MIN_CAPACITY = 16;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+
+    IdentitySet(int concurrencyLevel) {
+        int stripeCount = 1;
+        while (stripeCount < concurrencyLevel && stripeCount < (1 << 16)) {
+            stripeCount <<= 1;
+        }
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeShift = 32 - Integer.numberOfTrailingZeros(stripeCount);
+    }
+
+    /**
+     * Returns {@code true} if {@code obj} was not in the set yet.
+     */
+    boolean add(Object obj) {
+        int hash = System.identityHashCode(obj) * HASH_MULTIPLIER;
+        Stripe stripe = stripes.length == 1 ? stripes[0] : stripes[hash >>> stripeShift];
+        synchronized (stripe) {
+            return stripe.add(obj, hash);
+        }
+    }
+
+    long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    private static final class Stripe {
+        Object[] objects = new Object[MIN_CAPACITY];
+        int[] hashes = new int[MIN_CAPACITY];
+        int size;
+
+        boolean add(Object obj, int hash) {
+            if ((size + 1) * 2 > objects.length) {
+                rehash(objects.length << 1);
+            }
+            int mask = objects.length - 1;
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                Object existing = objects[i];
+                if (existing == null) {
+                    objects[i] = obj;
+                    hashes[i] = hash;
+                    size++;
+                    return true;
+                }
+                if (hashes[i] == hash && existing == obj) {
+                    return false;
+                }
+            }
+        }
+
+        void rehash(int capacity) {
+            Object[] oldObjects = objects;
+            int[] oldHashes = hashes;
+            objects = new Object[capacity];
+            hashes = new int[capacity];
+            int mask = capacity - 1;
+            for (int j = 0; j < oldObjects.length; j++) {
+                if (oldObjects[j] == null) {
+                    continue;
+                }
+                int i = oldHashes[j] & mask;
+                while (objects[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                objects[i] = oldObjects[j];
+                hashes[i] = oldHashes[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+/**
+ * Open-addressing set of non-negative {@code int} values, using linear probing and
+ * backward-shift deletion. Values are stored offset by one so a zeroed table is empty.
+ */
+final class IntHashSet {
+    private static final int EMPTY = 0;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private int size;
+
+    IntHashSet() {
+        this.keys = new int[MIN_CAPACITY];
+    }
+
+    boolean add(int value) {
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length << 1);
+        }
+        int key = value + 1;
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == EMPTY) {
+                keys[i] = key;
+                size++;
+                return true;
+            }
+            if (keys[i] == key) {
+                return false;
+            }
+        }
+    }
+
+    boolean contains(int value) {
+        int key = value + 1;
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean remove(int value) {
+        int key = value + 1;
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+
+        int hole = i;
+        for (int j = (hole + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = mix(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                hole = j;
+            }
+        }
+        keys[hole] = EMPTY;
+        size--;
+
+        if (keys.length > MIN_CAPACITY && size * 8 < keys.length) {
+            rehash(keys.length >>> 1);
+        }
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        int[] values = new int[size];
+        int n = 0;
+        for (int key : keys) {
+            if (key != EMPTY) {
+                values[n++] = key - 1;
+            }
+        }
+        return values;
+    }
+
+    void clear() {
+        keys = new int[MIN_CAPACITY];
+        size = 0;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        keys = new int[newCapacity];
+        int mask = newCapacity - 1;
+        for (int key : oldKeys) {
+            if (key != EMPTY) {
+                int i = mix(key) & mask;
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
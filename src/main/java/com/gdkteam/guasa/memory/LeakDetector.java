@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import com.gdkteam.guasa.event.EventBus;
+import com.gdkteam.guasa.event.GuasaEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Flags classes whose live bytes keep growing, by exponentially weighted regression per class.
+ */
+public class LeakDetector {
+    private static final Logger logger = LoggerFactory.getLogger(LeakDetector.class);
+    private static final double SCORE_THRESHOLD = 0.6;
+    private static final double MIN_RELATIVE_GROWTH = 0.05;
+
+    private final EventBus eventBus;
+    private final double decay;
+    private final int minSamples;
+    private final EventBus.EventListener<GuasaEvent.HeapAnalyzed> listener;
+    private ClassState[] states;
+    private long firstTimestamp = -1;
+
+    public LeakDetector(EventBus eventBus, int window) {
+        if (window < 2) {
+            throw new IllegalArgumentException("Leak detection window must be at least 2: " + window);
+        }
+        this.eventBus = eventBus;
+        this.decay = 1.0 - 2.0 / (window + 1);
+        this.minSamples = Math.max(5, window / 3);
+        this.listener = event -> update(event.getSnapshot());
+        this.states = new ClassState[0];
+    }
+
+    public void start() {
+        eventBus.subscribe(GuasaEvent.HeapAnalyzed.class, listener);
+        logger.info("LeakDetector started");
+    }
+
+    public void stop() {
+        eventBus.unsubscribe(GuasaEvent.HeapAnalyzed.class, listener);
+        logger.info("LeakDetector stopped");
+    }
+
+    /**
+     * Folds {@code snapshot} into the per-class state. Classes tracked earlier but absent
+     * from the snapshot count as having no live instances.
+     */
+    public void update(HeapAnalyzer.HeapSnapshot snapshot) {
+        List<GuasaEvent.LeakSuspected> suspected = new ArrayList<>();
+
+        synchronized (this) {
+            if (firstTimestamp < 0) {
+                firstTimestamp = snapshot.getTimestamp();
+            }
+            double seconds = (snapshot.getTimestamp() - firstTimestamp) / 1000.0;
+
+            int classCount = snapshot.getClassCount();
+            if (classCount > 0 && snapshot.getClassId(classCount - 1) >= states.length) {
+                states = Arrays.copyOf(states, Math.max(snapshot.getClassId(classCount - 1) + 1, ClassRegistry.size()));
+            }
+
+            int index = 0;
+            for (int classId = 0; classId < states.length; classId++) {
+                boolean present = index < classCount && snapshot.getClassId(index) == classId;
+                ClassState state = states[classId];
+                if (!present && state == null) {
+                    continue;
+                }
+                if (state == null) {
+                    state = states[classId] = new ClassState();
+                }
+
+                long count = present ? snapshot.getInstanceCount(index) : 0;
+                long bytes = present ? snapshot.getMemorySize(index) : 0;
+                if (present) {
+                    index++;
+                }
+
+                if (state.update(seconds, count, bytes, decay, minSamples)) {
+                    suspected.add(new GuasaEvent.LeakSuspected(classId, count, bytes,
+                        state.getBytesPerSecond(), state.getGrowthScore()));
+                }
+            }
+        }
+
+        for (GuasaEvent.LeakSuspected event : suspected) {
+            logger.warn("Possible leak: {} ({} instances, {} bytes, {} bytes/s)", event.getClassName(),
+                event.getInstanceCount(), event.getMemorySize(), Math.round(event.getBytesPerSecond()));
+            eventBus.publish(event);
+        }
+    }
+
+    /**
+     * Returns the classes currently suspected of leaking, fastest growing first.
+     */
+    public synchronized List<LeakSuspect> getSuspects() {
+        List<LeakSuspect> result = new ArrayList<>();
+        for (int classId = 0; classId < states.length; classId++) {
+            ClassState state = states[classId];
+            if (state != null && state.suspected) {
+                result.add(new LeakSuspect(classId, state.lastCount, state.lastBytes,
+                    state.getBytesPerSecond(), state.getGrowthScore()));
+            }
+        }
+        result.sort((s1, s2) -> Double.compare(s2.getBytesPerSecond(), s1.getBytesPerSecond()));
+        return result;
+    }
+
+    public synchronized void reset() {
+        states = new ClassState[0];
+        firstTimestamp = -1;
+    }
+
+    private static final class ClassState {
+        int samples;
+        long lastCount;
+        long lastBytes;
+        double weight;
+        double meanTime;
+        double meanBytes;
+        double covariance;
+        double timeVariance;
+        double signAverage;
+        double signWeight;
+        boolean suspected;
+
+        /**
+         * Returns {@code true} if this sample makes the class a new suspect.
+         */
+        boolean update(double time, long count, long bytes, double decay, int minSamples) {
+            if (samples > 0) {
+                double sign = Long.signum(count - lastCount);
+                signAverage = decay * signAverage + (1 - decay) * sign;
+                signWeight = decay * signWeight + (1 - decay);
+            }
+
+            // Exponentially weighted Welford update of the time/bytes regression
+            weight = decay * weight + 1;
+            double timeDelta = time - meanTime;
+            meanTime += timeDelta / weight;
+            double bytesDelta = bytes - meanBytes;
+            meanBytes += bytesDelta / weight;
+            covariance = decay * covariance + timeDelta * (bytes - meanBytes);
+            timeVariance = decay * timeVariance + timeDelta * (time - meanTime);
+
+            samples++;
+            lastCount = count;
+            lastBytes = bytes;
+
+            double score = getGrowthScore();
+            boolean growing = samples >= minSamples && score >= SCORE_THRESHOLD && getBytesPerSecond() > 0
+                && bytes - meanBytes >= MIN_RELATIVE_GROWTH * meanBytes && bytes > 0;
+            if (growing && !suspected) {
+                suspected = true;
+                return true;
+            }
+            if (suspected && (score < SCORE_THRESHOLD / 2 || getBytesPerSecond() <= 0)) {
+                suspected = false;
+            }
+            return false;
+        }
+
+        double getBytesPerSecond() {
+            return timeVariance > 0 ? covariance / timeVariance : 0;
+        }
+
+        double getGrowthScore() {
+            return signWeight > 0 ? signAverage / signWeight : 0;
+        }
+    }
+
+    public static class LeakSuspect {
+        private final int classId;
+        private final long instanceCount;
+        private final long memorySize;
+        private final double bytesPerSecond;
+        private final double growthScore;
+
+        public LeakSuspect(int classId, long instanceCount, long memorySize, double bytesPerSecond,
+                           double growthScore) {
+            this.classId = classId;
+            this.instanceCount = instanceCount;
+            this.memorySize = memorySize;
+            this.bytesPerSecond = bytesPerSecond;
+            this.growthScore = growthScore;
+        }
+
+        public int getClassId() { return classId; }
+        public String getClassName() { return ClassRegistry.getName(classId); }
+        public long getInstanceCount() { return instanceCount; }
+        public long getMemorySize() { return memorySize; }
+        public double getBytesPerSecond() { return bytesPerSecond; }
+        public double getGrowthScore() { return growthScore; }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-memory log-linear histogram of non-negative longs, with lock-free recording.
+ */
+public class LogHistogram {
+    private final int subBucketBits;
+    private final int maxValueBits;
+    private final AtomicLongArray counts;
+    private final AtomicLong max;
+
+    public LogHistogram(int subBucketBits, int maxValueBits) {
+        if (subBucketBits < 0 || subBucketBits >= maxValueBits || maxValueBits > 63) {
+            throw new IllegalArgumentException("Invalid histogram precision: " + subBucketBits + "/" + maxValueBits);
+        }
+        this.subBucketBits = subBucketBits;
+        this.maxValueBits = maxValueBits;
+        this.counts = new AtomicLongArray(bucketIndex(subBucketBits, (1L << maxValueBits) - 1) + 1);
+        this.max = new AtomicLong();
+    }
+
+    public void record(long value) {
+        record(value, 1);
+    }
+
+    public void record(long value, long count) {
+        long clamped = Math.max(0, value);
+        int index = Math.min(bucketIndex(subBucketBits, clamped), counts.length() - 1);
+        counts.addAndGet(index, count);
+        if (clamped > max.get()) {
+            max.accumulateAndGet(clamped, Math::max);
+        }
+    }
+
+    /**
+     * Takes back one occurrence of a value recorded earlier.
+     */
+    public void remove(long value) {
+        long clamped = Math.max(0, value);
+        int index = Math.min(bucketIndex(subBucketBits, clamped), counts.length() - 1);
+        counts.addAndGet(index, -1);
+    }
+
+    /**
+     * Adds the counts of {@code other}, which must have the same precision.
+     */
+    public void add(LogHistogram other) {
+        if (other.subBucketBits != subBucketBits || other.maxValueBits != maxValueBits) {
+            throw new IllegalArgumentException("Histogram precision mismatch");
+        }
+        for (int i = 0; i < counts.length(); i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        long otherMax = other.max.get();
+        if (otherMax > max.get()) {
+            max.accumulateAndGet(otherMax, Math::max);
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        max.set(0);
+    }
+
+    public int getSubBucketBits() {
+        return subBucketBits;
+    }
+
+    public int getMaxValueBits() {
+        return maxValueBits;
+    }
+
+    public Snapshot snapshot() {
+        int first = -1;
+        int last = -1;
+        long[] copy = new long[counts.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+            if (copy[i] != 0) {
+                if (first < 0) {
+                    first = i;
+                }
+                last = i;
+            }
+        }
+
+        if (first < 0) {
+            return Snapshot.empty(subBucketBits);
+        }
+        long recordedMax = max.get();
+        if (last < copy.length - 1) {
+            recordedMax = Math.min(recordedMax, bucketUpperBound(subBucketBits, last));
+        }
+        return new Snapshot(subBucketBits, first, Arrays.copyOfRange(copy, first, last + 1), recordedMax);
+    }
+
+    static int bucketIndex(int subBucketBits, long value) {
+        int subBucketCount = 1 << subBucketBits;
+        if (value < subBucketCount) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - subBucketBits)) & (subBucketCount - 1);
+        return subBucketCount + (exponent - subBucketBits) * subBucketCount + subBucket;
+    }
+
+    static long bucketLowerBound(int subBucketBits, int index) {
+        int subBucketCount = 1 << subBucketBits;
+        if (index < subBucketCount) {
+            return index;
+        }
+        int exponent = (index - subBucketCount) / subBucketCount + subBucketBits;
+        long subBucket = (index - subBucketCount) % subBucketCount;
+        return (1L << exponent) | (subBucket << (exponent - subBucketBits));
+    }
+
+    static long bucketUpperBound(int subBucketBits, int index) {
+        int subBucketCount = 1 << subBucketBits;
+        if (index < subBucketCount) {
+            return index;
+        }
+        int exponent = (index - subBucketCount) / subBucketCount + subBucketBits;
+        return bucketLowerBound(subBucketBits, index) + (1L << (exponent - subBucketBits)) - 1;
+    }
+
+    /**
+     * Immutable histogram contents. Only the range between the first and last non-empty
+     * buckets is kept.
+     */
+    public static class Snapshot {
+        private final int subBucketBits;
+        private final int firstBucket;
+        private final long[] counts;
+        private final long totalCount;
+        private final long max;
+
+        Snapshot(int subBucketBits, int firstBucket, long[] counts, long max) {
+            this.subBucketBits = subBucketBits;
+            this.firstBucket = firstBucket;
+            this.counts = counts;
+            this.max = max;
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            this.totalCount = total;
+        }
+
+        static Snapshot empty(int subBucketBits) {
+            return new Snapshot(subBucketBits, 0, new long[0], 0);
+        }
+
+        public long getTotalCount() { return totalCount; }
+        public long getMax() { return max; }
+        public boolean isEmpty() { return totalCount == 0; }
+
+        public long getMin() {
+            return totalCount > 0 ? bucketLowerBound(subBucketBits, firstBucket) : 0;
+        }
+
+        /**
+         * Returns the upper bound of the bucket holding the value at {@code percentile}
+         * (0-100), capped at the largest recorded value.
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (totalCount == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100.0 * totalCount));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(subBucketBits, firstBucket + i), max);
+                }
+            }
+            return max;
+        }
+
+        public double getMean() {
+            if (totalCount == 0) {
+                return 0;
+            }
+            double sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    int index = firstBucket + i;
+                    double mid = (bucketLowerBound(subBucketBits, index) + bucketUpperBound(subBucketBits, index)) / 2.0;
+                    sum += mid * counts[i];
+                }
+            }
+            return sum / totalCount;
+        }
+
+        public int getBucketCount() {
+            return counts.length;
+        }
+
+        public long getBucketLowerBound(int bucket) {
+            return bucketLowerBound(subBucketBits, firstBucket + bucket);
+        }
+
+        public long getBucketUpperBound(int bucket) {
+            return bucketUpperBound(subBucketBits, firstBucket + bucket);
+        }
+
+        public long getBucketValueCount(int bucket) {
+            return counts[bucket];
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import com.gdkteam.guasa.agent.GuasaAgent;
+import com.sun.management.HotSpotDiagnosticMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.instrument.Instrumentation;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+
+/**
+ * Computes shallow object sizes, from Instrumentation when available or a layout model.
+ */
+public class ObjectSizeEstimator {
+    private static final Logger logger = LoggerFactory.getLogger(ObjectSizeEstimator.class);
+
+    private final Instrumentation instrumentation;
+    private final JvmLayout jvmLayout;
+    private final ClassValue<InstanceSize> instanceSizes;
+
+    public ObjectSizeEstimator() {
+        this(GuasaAgent.getInstrumentation(), JvmLayout.detect());
+    }
+
+    public ObjectSizeEstimator(Instrumentation instrumentation, JvmLayout jvmLayout) {
+        this.instrumentation = instrumentation;
+        this.jvmLayout = jvmLayout;
+        this.instanceSizes = new ClassValue<>() {
+            @Override
+            protected InstanceSize computeValue(Class<?> type) {
+                return new InstanceSize(instrumentation != null ? 0 : modelInstanceSize(type));
+            }
+        };
+        logger.debug("Object sizes from {}, {}", instrumentation != null ? "instrumentation" : "layout model", jvmLayout);
+    }
+
+    public long estimate(Object obj) {
+        if (obj == null) {
+            return 0;
+        }
+
+        Class<?> clazz = obj.getClass();
+        if (!clazz.isArray()) {
+            InstanceSize cached = instanceSizes.get(clazz);
+            long size = cached.size;
+            if (size == 0) {
+                size = instrumentation.getObjectSize(obj);
+                cached.size = size;
+            }
+            return size;
+        }
+
+        ClassLayout layout = ClassLayout.of(clazz);
+        int elementSize = layout.isPrimitiveArray() ? layout.getElementWidth() : jvmLayout.getReferenceSize();
+        long base = alignUp(jvmLayout.getArrayHeaderSize(), Math.min(elementSize, 8));
+        return alignUp(base + (long) Array.getLength(obj) * elementSize, jvmLayout.getObjectAlignment());
+    }
+
+    public boolean isUsingInstrumentation() {
+        return instrumentation != null;
+    }
+
+    public JvmLayout getJvmLayout() {
+        return jvmLayout;
+    }
+
+    private long modelInstanceSize(Class<?> type) {
+        ClassLayout layout = ClassLayout.of(type);
+        long fieldBytes = layout.getPrimitiveFieldBytes()
+            + (long) layout.getReferenceFieldCount() * jvmLayout.getReferenceSize();
+        return alignUp(jvmLayout.getObjectHeaderSize() + fieldBytes, jvmLayout.getObjectAlignment());
+    }
+
+    private static long alignUp(long size, int alignment) {
+        return (size + alignment - 1) / alignment * alignment;
+    }
+
+    private static final class InstanceSize {
+        volatile long size;
+
+        InstanceSize(long size) {
+            this.size = size;
+        }
+    }
+
+    /**
+     * Object layout parameters of the running JVM. {@link #detect()} reads them from the
+     * HotSpot VM options and falls back to the 64-bit HotSpot defaults on other VMs.
+     */
+    public static class JvmLayout {
+        private final boolean compressedOops;
+        private final boolean compressedClassPointers;
+        private final boolean compactHeaders;
+        private final int objectAlignment;
+
+        public JvmLayout(boolean compressedOops, boolean compressedClassPointers, boolean compactHeaders,
+                         int objectAlignment) {
+            this.compressedOops = compressedOops;
+            this.compressedClassPointers = compressedClassPointers;
+            this.compactHeaders = compactHeaders;
+            this.objectAlignment = objectAlignment;
+        }
+
+        public static JvmLayout detect() {
+            boolean compressedOops = true;
+            boolean compressedClassPointers = true;
+            boolean compactHeaders = false;
+            int objectAlignment = 8;
+
+            try {
+                HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+                if (hotSpot != null) {
+                    compressedOops = Boolean.parseBoolean(option(hotSpot, "UseCompressedOops", "true"));
+                    compressedClassPointers = Boolean.parseBoolean(option(hotSpot, "UseCompressedClassPointers", "true"));
+                    compactHeaders = Boolean.parseBoolean(option(hotSpot, "UseCompactObjectHeaders", "false"));
+                    objectAlignment = Integer.parseInt(option(hotSpot, "ObjectAlignmentInBytes", "8"));
+                }
+            } catch (Exception e) {
+                logger.debug("Cannot read JVM layout options, assuming defaults", e);
+            }
+
+            return new JvmLayout(compressedOops, compressedClassPointers, compactHeaders, objectAlignment);
+        }
+
+        private static String option(HotSpotDiagnosticMXBean hotSpot, String name, String defaultValue) {
+            try {
+                return hotSpot.getVMOption(name).getValue();
+            } catch (IllegalArgumentException e) {
+                return defaultValue;
+            }
+        }
+
+        public boolean isCompressedOops() { return compressedOops; }
+        public boolean isCompressedClassPointers() { return compressedClassPointers; }
+        public boolean isCompactHeaders() { return compactHeaders; }
+        public int getObjectAlignment() { return objectAlignment; }
+
+        public int getReferenceSize() {
+            return compressedOops ? 4 : 8;
+        }
+
+        public int getObjectHeaderSize() {
+            if (compactHeaders) {
+                return 8;
+            }
+            return compressedClassPointers ? 12 : 16;
+        }
+
+        public int getArrayHeaderSize() {
+            return getObjectHeaderSize() + 4;
+        }
+
+        @Override
+        public String toString() {
+            return "JvmLayout{" +
+                "compressedOops=" + compressedOops +
+                ", compressedClassPointers=" + compressedClassPointers +
+                ", compactHeaders=" + compactHeaders +
+                ", objectAlignment=" + objectAlignment +
+                '}';
+        }
+    }
+}
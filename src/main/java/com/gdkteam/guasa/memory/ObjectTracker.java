@@ -12,25 +12,75 @@ import com.gdkteam.guasa.event.GuasaEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.ref.WeakReference;
+import java.lang.ref.Reference;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class ObjectTracker {
     private static final Logger logger = LoggerFactory.getLogger(ObjectTracker.class);
-
-    private final Map<Long, TrackedObject> trackedObjects;
-    private final Map<Object, Long> objectToIdMap;
+    private static final long NO_PRESET_ID = TrackedObjectStore.NO_ID;
+    private static final int INLINE_DRAIN_BATCH = 32;
+    private static final int MIN_SPLIT_SLOTS = 1024;
+    private static final int LIFETIME_SUB_BUCKET_BITS = 2;
+    private static final int LIFETIME_MAX_VALUE_BITS = 40;
+    private static final int SIZE_SUB_BUCKET_BITS = 3;
+    private static final int SIZE_MAX_VALUE_BITS = 36;
+    private static final int DEFAULT_CHANGE_LOG_CAPACITY = 65536;
+
+    private final TrackedObjectStore store;
+    private final IdentityObjectRegistry objectRegistry;
     private final AtomicLong idGenerator;
     private final EventBus eventBus;
+    private final int maxTrackedObjects;
+    private final EvictionPolicy evictionPolicy;
+    private final LongAdder rejectedCount;
+    private final LongAdder evictedCount;
+    private final LongAdder changeCount;
+    private final LongAdder collectedCount;
+    private final ObjectSizeEstimator sizeEstimator;
+    private volatile ClassCounters classCounters;
+    private volatile ClassCounters siteCounters;
+    private final ClassHistograms lifetimeHistograms;
+    private volatile ClassHistograms sizeHistograms;
+    private final TagIndex tagIndex;
+    private volatile AllocationSampler sampler;
+    private volatile AllocationBuffers allocationBuffers;
+    private volatile AllocationSiteRecorder siteRecorder;
+    private volatile TrackingChangeLog changeLog;
     private volatile boolean tracking = false;
 
     public ObjectTracker(EventBus eventBus) {
-        this.trackedObjects = new ConcurrentHashMap<>();
-        this.objectToIdMap = Collections.synchronizedMap(new WeakHashMap<>());
+        this(eventBus, Integer.MAX_VALUE, EvictionPolicy.Type.REJECT_NEW);
+    }
+
+    public ObjectTracker(EventBus eventBus, int maxTrackedObjects, EvictionPolicy.Type evictionPolicyType) {
+        this(eventBus, maxTrackedObjects, evictionPolicyType, false);
+    }
+
+    public ObjectTracker(EventBus eventBus, int maxTrackedObjects, EvictionPolicy.Type evictionPolicyType,
+                         boolean offHeapStorage) {
+        this.store = new TrackedObjectStore(offHeapStorage);
+        this.objectRegistry = new IdentityObjectRegistry();
         this.idGenerator = new AtomicLong(1);
         this.eventBus = eventBus;
+        this.maxTrackedObjects = maxTrackedObjects > 0 ? maxTrackedObjects : Integer.MAX_VALUE;
+        this.evictionPolicy = EvictionPolicy.create(evictionPolicyType, store);
+        this.rejectedCount = new LongAdder();
+        this.evictedCount = new LongAdder();
+        this.changeCount = new LongAdder();
+        this.collectedCount = new LongAdder();
+        this.sizeEstimator = new ObjectSizeEstimator();
+        this.classCounters = new ClassCounters();
+        this.siteCounters = new ClassCounters();
+        this.lifetimeHistograms = new ClassHistograms(LIFETIME_SUB_BUCKET_BITS, LIFETIME_MAX_VALUE_BITS);
+        this.sizeHistograms = new ClassHistograms(SIZE_SUB_BUCKET_BITS, SIZE_MAX_VALUE_BITS);
+        this.tagIndex = new TagIndex();
+        this.changeLog = new TrackingChangeLog(DEFAULT_CHANGE_LOG_CAPACITY, store.getStripeCount());
+        this.sampler = new AllocationSampler(AllocationSampler.MAX_SAMPLING_RATE);
     }
 
     public void start() {
@@ -51,89 +101,662 @@ public class ObjectTracker {
             return -1;
         }
 
-        Long existingId = objectToIdMap.get(obj);
-        if (existingId != null) {
+        return track(obj, NO_PRESET_ID, 1.0f, captureSite());
+    }
+
+    public long trackObject(Object obj, String tag) {
+        long id = trackObject(obj);
+        if (id != -1 && tag != null) {
+            tagObject(obj, tag);
+        }
+        return id;
+    }
+
+    /**
+     * Adds {@code tag} to an already tracked object. Returns {@code false} if the object
+     * is not tracked or already carries the tag.
+     */
+    public boolean tagObject(Object obj, String tag) {
+        if (obj == null || tag == null) {
+            return false;
+        }
+
+        int tagId = tagIndex.intern(tag);
+        IdentityObjectRegistry.Entry entry = objectRegistry.find(obj);
+        if (entry == null) {
+            return false;
+        }
+        int slot = entry.getSlot();
+        synchronized (store.lockFor(slot)) {
+            if (store.getRef(slot) != entry) {
+                return false;
+            }
+            return tagIndex.tag(slot, tagId, store.getShallowSize(slot), store.getSampleWeight(slot));
+        }
+    }
+
+    public Collection<TrackedObject> getTrackedObjectsByTag(String tag) {
+        int tagId = tagIndex.getTagId(tag);
+        if (tagId == TagIndex.NO_TAG) {
+            return Collections.emptyList();
+        }
+
+        int[] slots = tagIndex.getSlots(tagId);
+        List<TrackedObject> result = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            synchronized (store.lockFor(slot)) {
+                // The slot may have been released and reused since the copy was taken
+                TrackedObject tracked = tagIndex.hasTag(slot, tagId) ? TrackedObject.view(store, slot) : null;
+                if (tracked != null) {
+                    result.add(tracked);
+                }
+            }
+        }
+        return result;
+    }
+
+    public TagIndex getTagIndex() {
+        return tagIndex;
+    }
+
+    public long recordAllocation(Object obj) {
+        if (obj == null || !tracking) {
+            return -1;
+        }
+
+        AllocationSampler currentSampler = sampler;
+        if (!currentSampler.shouldSample()) {
+            return -1;
+        }
+
+        int siteId = captureSite();
+        AllocationBuffers buffers = allocationBuffers;
+        if (buffers != null) {
+            long pendingId = buffers.offer(obj, currentSampler.getSampleWeight(), siteId);
+            if (pendingId != AllocationBuffers.NO_ID) {
+                return pendingId;
+            }
+        }
+
+        return track(obj, NO_PRESET_ID, currentSampler.getSampleWeight(), siteId);
+    }
+
+    private int captureSite() {
+        AllocationSiteRecorder recorder = siteRecorder;
+        return recorder != null ? recorder.capture() : StackTable.EMPTY_STACK;
+    }
+
+    public void enableAllocationSites(int samplingRate, int maxFrames) {
+        if (siteRecorder == null) {
+            siteRecorder = new AllocationSiteRecorder(samplingRate, maxFrames);
+            logger.info("Allocation-site capture enabled ({}% of tracked objects, {} frames)",
+                siteRecorder.getSamplingRate(), siteRecorder.getMaxFrames());
+        }
+    }
+
+    public AllocationSiteRecorder getAllocationSiteRecorder() {
+        return siteRecorder;
+    }
+
+    /**
+     * Replaces the change log with one holding {@code capacity} entries; the consumer
+     * rebuilds its aggregates on its next drain.
+     */
+    public void setChangeLogCapacity(int capacity) {
+        TrackingChangeLog log = new TrackingChangeLog(capacity, store.getStripeCount());
+        store.runExclusive(() -> changeLog = log);
+    }
+
+    public TrackingChangeLog getChangeLog() {
+        return changeLog;
+    }
+
+    public void enableBufferedRegistration(int bufferCapacity) {
+        if (allocationBuffers == null) {
+            allocationBuffers = new AllocationBuffers(bufferCapacity, idGenerator);
+            logger.info("Buffered allocation registration enabled ({} entries per thread)",
+                allocationBuffers.getCapacity());
+        }
+    }
+
+    public boolean isBufferedRegistration() {
+        return allocationBuffers != null;
+    }
+
+    public int drainAllocationBuffers() {
+        AllocationBuffers buffers = allocationBuffers;
+        if (buffers == null) {
+            return 0;
+        }
+        return buffers.drain(this::track);
+    }
+
+    /**
+     * Tracks {@code obj} without a global lock. The row is reserved and filled first, then
+     * the object is registered, and finally the row is published under the monitor of its
+     * store stripe together with its change-log entry. Counters are updated before the row
+     * is published and after it is freed, so they never see a release before the tracking
+     * it undoes. Objects tracked while {@link #clearAllTracking()} runs are dropped.
+     */
+    private long track(Object obj, long presetId, float sampleWeight, int siteId) {
+        long existingId = idOf(objectRegistry.find(obj));
+        if (existingId != NO_PRESET_ID) {
             return existingId;
         }
 
-        long id = idGenerator.getAndIncrement();
-        TrackedObject tracked = new TrackedObject(id, obj);
+        drainCollectedObjects(INLINE_DRAIN_BATCH);
 
-        trackedObjects.put(id, tracked);
-        objectToIdMap.put(obj, id);
+        int classId = ClassRegistry.getId(obj.getClass());
+        long shallowSize = sizeEstimator.estimate(obj);
+        long evictedId = NO_PRESET_ID;
 
-        eventBus.publish(new GuasaEvent.ObjectTracked(id, obj.getClass().getName()));
+        if (maxTrackedObjects != Integer.MAX_VALUE && store.size() >= maxTrackedObjects) {
+            int victim = evictionPolicy.selectVictim(classId);
+            if (victim == EvictionPolicy.REJECT) {
+                rejectedCount.increment();
+                return -1;
+            }
+            IdentityObjectRegistry.Entry victimEntry = store.getRef(victim);
+            long victimId = store.getId(victim);
+            // Another thread may release the victim first; the limit is then briefly exceeded
+            if (victimEntry != null && releaseSlot(victim, victimEntry)) {
+                evictedCount.increment();
+                evictedId = victimId;
+            }
+        }
+
+        // Read before the counters, so a commit in the same generation updated the counters it belongs to
+        int generation = store.getGeneration();
+        ClassCounters counters = classCounters;
+        ClassCounters sites = siteCounters;
+        ClassHistograms sizes = sizeHistograms;
+
+        int slot = store.reserve(presetId, classId, System.identityHashCode(obj), shallowSize,
+            sampleWeight, siteId, System.currentTimeMillis(), generation);
+        if (slot == TrackedObjectStore.NO_SLOT) {
+            return -1;
+        }
+        long id = store.getId(slot);
+        IdentityObjectRegistry.Entry entry = objectRegistry.register(obj, slot);
+        if (entry.getSlot() != slot) {
+            synchronized (store.lockFor(slot)) {
+                if (store.getGeneration() == generation) {
+                    store.abort(slot);
+                }
+            }
+            return idOfRegistered(obj, entry);
+        }
+
+        long size = store.getShallowSize(slot);
+        float siteSampleWeight = sampleWeight * siteWeight();
+        counters.add(classId, size, sampleWeight);
+        sizes.record(classId, size);
+        if (siteId != StackTable.EMPTY_STACK) {
+            sites.add(siteId, size, siteSampleWeight);
+        }
+
+        boolean committed;
+        synchronized (store.lockFor(slot)) {
+            committed = store.getGeneration() == generation;
+            if (committed) {
+                changeLog.recordTracked(store.getStripe(slot), classId, store.getTrackingTimestamp(slot));
+                evictionPolicy.onTracked(slot);
+                store.commit(slot, entry);
+            }
+        }
+        Reference.reachabilityFence(obj);
+
+        if (!committed) {
+            objectRegistry.unregister(entry);
+            counters.remove(classId, size, sampleWeight);
+            sizes.remove(classId, size);
+            if (siteId != StackTable.EMPTY_STACK) {
+                sites.remove(siteId, size, siteSampleWeight);
+            }
+            return -1;
+        }
+        changeCount.increment();
+
+        if (evictedId != NO_PRESET_ID) {
+            eventBus.publish(new GuasaEvent.ObjectUntracked(evictedId));
+        }
+        eventBus.publish(new GuasaEvent.ObjectTracked(id, classId));
 
         return id;
     }
 
+    /**
+     * Unpublishes the row in {@code slot} if it still holds {@code entry}, removes the entry
+     * from the registry, and takes the row out of the counters. Returns {@code false} if
+     * another thread released the row first. Columns of the row read before this call
+     * returned {@code true} belonged to {@code entry}.
+     */
+    private boolean releaseSlot(int slot, IdentityObjectRegistry.Entry entry) {
+        if (store.getRef(slot) != entry) {
+            return false;
+        }
+        int classId = store.getClassId(slot);
+        long shallowSize = store.getShallowSize(slot);
+        float sampleWeight = store.getSampleWeight(slot);
+        int siteId = store.getSiteId(slot);
+
+        ClassCounters counters;
+        ClassCounters sites;
+        ClassHistograms sizes;
+        synchronized (store.lockFor(slot)) {
+            if (store.getRef(slot) != entry) {
+                return false;
+            }
+            evictionPolicy.onUntracked(slot);
+            if (tagIndex.getTagCount() > 0) {
+                tagIndex.untagAll(slot, shallowSize, sampleWeight);
+            }
+            changeLog.recordReleased(store.getStripe(slot), classId, store.getTrackingTimestamp(slot));
+            // Unregistered before the row is freed, so a registered entry always has its row
+            objectRegistry.unregister(entry);
+            store.free(slot);
+            counters = classCounters;
+            sites = siteCounters;
+            sizes = sizeHistograms;
+        }
+
+        changeCount.increment();
+        counters.remove(classId, shallowSize, sampleWeight);
+        sizes.remove(classId, shallowSize);
+        if (siteId != StackTable.EMPTY_STACK) {
+            sites.remove(siteId, shallowSize, sampleWeight * siteWeight());
+        }
+        return true;
+    }
+
+    private float siteWeight() {
+        AllocationSiteRecorder recorder = siteRecorder;
+        return recorder != null ? recorder.getSampleWeight() : 1.0f;
+    }
+
     public void untrackObject(long id) {
-        TrackedObject tracked = trackedObjects.remove(id);
-        if (tracked != null && tracked.getObject() != null) {
-            objectToIdMap.remove(tracked.getObject());
+        int slot = store.slotOf(id);
+        if (slot == TrackedObjectStore.NO_SLOT) {
+            return;
+        }
+        IdentityObjectRegistry.Entry entry = store.getRef(slot);
+        if (entry == null || store.getId(slot) != id) {
+            return;
+        }
+        boolean live = entry.get() != null;
+
+        if (releaseSlot(slot, entry) && live) {
             eventBus.publish(new GuasaEvent.ObjectUntracked(id));
         }
     }
 
     public TrackedObject getTrackedObject(long id) {
-        return trackedObjects.get(id);
+        int slot = store.slotOf(id);
+        if (slot == TrackedObjectStore.NO_SLOT) {
+            return null;
+        }
+        return TrackedObject.view(store, slot);
     }
 
     public Long getObjectId(Object obj) {
-        return objectToIdMap.get(obj);
+        if (obj == null) {
+            return null;
+        }
+        long id = idOf(objectRegistry.find(obj));
+        return id != NO_PRESET_ID ? id : null;
+    }
+
+    /**
+     * Returns the id of {@code obj}, whose registration by another thread won over ours,
+     * even if that thread has not published the row yet. Rows are filled before their
+     * entry is registered and unregistered before they are freed, so the id is valid if
+     * the entry is still registered after reading it.
+     */
+    private long idOfRegistered(Object obj, IdentityObjectRegistry.Entry entry) {
+        long id = store.getId(entry.getSlot());
+        return objectRegistry.find(obj) == entry ? id : NO_PRESET_ID;
+    }
+
+    private long idOf(IdentityObjectRegistry.Entry entry) {
+        if (entry == null) {
+            return NO_PRESET_ID;
+        }
+        int slot = entry.getSlot();
+        if (store.getRef(slot) != entry) {
+            return NO_PRESET_ID;
+        }
+        long id = store.getId(slot);
+        return store.getRef(slot) == entry ? id : NO_PRESET_ID;
     }
 
+    /**
+     * Copies every tracked object into a new list. Prefer {@link #cursor()},
+     * {@link #stream()} or {@link #getTrackedObjectPage} when the result does not need to
+     * be materialized.
+     */
     public Collection<TrackedObject> getAllTrackedObjects() {
-        cleanupStaleReferences();
-        return new ArrayList<>(trackedObjects.values());
+        List<TrackedObject> result = new ArrayList<>(store.size());
+        stream().forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Weakly consistent cursor over all tracked objects that reads store columns without
+     * allocating per object.
+     */
+    public TrackedObjectCursor cursor() {
+        drainCollectedObjects(Integer.MAX_VALUE);
+        return new TrackedObjectCursor(store, 0, store.getHighWaterMark());
+    }
+
+    /**
+     * Splits the tracked objects into at most {@code chunks} cursors over disjoint slot
+     * ranges of at least {@value #MIN_SPLIT_SLOTS} slots, for scanning in parallel.
+     */
+    public List<TrackedObjectCursor> cursors(int chunks) {
+        drainCollectedObjects(Integer.MAX_VALUE);
+        return splitCursors(chunks);
+    }
+
+    /**
+     * Like {@link #cursors(int)}, without draining collected objects first.
+     */
+    List<TrackedObjectCursor> splitCursors(int chunks) {
+        int highWaterMark = store.getHighWaterMark();
+        int chunkSize = Math.max(MIN_SPLIT_SLOTS, (highWaterMark + chunks - 1) / Math.max(1, chunks));
+
+        List<TrackedObjectCursor> result = new ArrayList<>();
+        int from = 0;
+        do {
+            int to = (int) Math.min(highWaterMark, (long) from + chunkSize);
+            result.add(new TrackedObjectCursor(store, from, to));
+            from = to;
+        } while (from < highWaterMark);
+        return result;
+    }
+
+    /**
+     * Weakly consistent stream of tracked objects. Parallel streams split the slot range
+     * into chunks processed independently.
+     */
+    public Stream<TrackedObject> stream() {
+        drainCollectedObjects(Integer.MAX_VALUE);
+        return StreamSupport.stream(new SlotSpliterator(store, 0, store.getHighWaterMark()), false);
+    }
+
+    public Stream<TrackedObject> parallelStream() {
+        drainCollectedObjects(Integer.MAX_VALUE);
+        return StreamSupport.stream(new SlotSpliterator(store, 0, store.getHighWaterMark()), true);
+    }
+
+    /**
+     * Returns up to {@code pageSize} tracked objects starting at {@code pageToken}. Pass
+     * {@link TrackedObjectPage#FIRST_PAGE} to start and the returned
+     * {@link TrackedObjectPage#getNextPageToken()} to continue until it is
+     * {@link TrackedObjectPage#NO_MORE_PAGES}. Tokens issued before
+     * {@link #clearAllTracking()} restart from the beginning.
+     */
+    public TrackedObjectPage getTrackedObjectPage(long pageToken, int pageSize) {
+        int generation = store.getGeneration();
+        int from = 0;
+        if (pageToken == TrackedObjectPage.FIRST_PAGE) {
+            drainCollectedObjects(Integer.MAX_VALUE);
+        } else if (pageToken != TrackedObjectPage.NO_MORE_PAGES && (int) (pageToken >>> 32) == generation) {
+            from = (int) pageToken;
+        }
+
+        List<TrackedObject> items = new ArrayList<>(Math.max(0, Math.min(pageSize, store.size())));
+        TrackedObjectCursor cursor = new TrackedObjectCursor(store, from, store.getHighWaterMark());
+        while (items.size() < pageSize && cursor.next()) {
+            TrackedObject tracked = cursor.toTrackedObject();
+            if (tracked != null) {
+                items.add(tracked);
+            }
+        }
+
+        boolean more = items.size() == pageSize && cursor.getSlot() + 1 < store.getHighWaterMark();
+        long nextPageToken = more
+            ? ((long) generation << 32) | (cursor.getSlot() + 1)
+            : TrackedObjectPage.NO_MORE_PAGES;
+        return new TrackedObjectPage(items, nextPageToken);
+    }
+
+    public void setSamplingRate(int samplingRate) {
+        this.sampler = new AllocationSampler(samplingRate);
+        logger.info("Allocation sampling rate set to {}%", sampler.getSamplingRate());
+    }
+
+    public int getSamplingRate() {
+        return sampler.getSamplingRate();
     }
 
     public int getTrackedObjectCount() {
-        return trackedObjects.size();
+        return store.size();
+    }
+
+    public int getMaxTrackedObjects() {
+        return maxTrackedObjects;
+    }
+
+    public EvictionPolicy.Type getEvictionPolicyType() {
+        return evictionPolicy.getType();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.sum();
+    }
+
+    /**
+     * Returns a counter that grows whenever an object is tracked or released, so callers
+     * can tell whether anything changed between two reads.
+     */
+    public long getChangeCount() {
+        return changeCount.sum();
+    }
+
+    /**
+     * Returns how many tracked objects were released because the garbage collector
+     * cleared them. Each of these releases also moves {@link #getChangeCount()}.
+     */
+    public long getCollectedCount() {
+        return collectedCount.sum();
+    }
+
+    public TrackedObjectStore getStore() {
+        return store;
+    }
+
+    public ClassCounters getClassCounters() {
+        return classCounters;
+    }
+
+    public ClassCounters getSiteCounters() {
+        return siteCounters;
+    }
+
+    /**
+     * Time from tracking to collection, in milliseconds, of every tracked object whose
+     * weak reference was cleared by the garbage collector.
+     */
+    public ClassHistograms getLifetimeHistograms() {
+        return lifetimeHistograms;
+    }
+
+    /**
+     * Shallow sizes in bytes of the live tracked objects of each class, unweighted by
+     * sampling.
+     */
+    public ClassHistograms getSizeHistograms() {
+        return sizeHistograms;
+    }
+
+    public ObjectSizeEstimator getSizeEstimator() {
+        return sizeEstimator;
     }
 
     public void clearAllTracking() {
-        trackedObjects.clear();
-        objectToIdMap.clear();
+        store.runExclusive(() -> {
+            store.clear();
+            evictionPolicy.clear();
+            // Replaced rather than cleared, so tracks still in flight update the old ones
+            classCounters = new ClassCounters();
+            siteCounters = new ClassCounters();
+            sizeHistograms = new ClassHistograms(SIZE_SUB_BUCKET_BITS, SIZE_MAX_VALUE_BITS);
+            lifetimeHistograms.clear();
+            tagIndex.clear();
+            objectRegistry.clear();
+            changeLog.invalidate();
+            changeCount.increment();
+        });
         idGenerator.set(1);
+        AllocationBuffers buffers = allocationBuffers;
+        if (buffers != null) {
+            buffers.clear();
+        }
         logger.info("Cleared all tracked objects");
     }
 
-    private void cleanupStaleReferences() {
-        List<Long> staleIds = new ArrayList<>();
+    public int drainCollectedObjects(int maxObjects) {
+        int drained = objectRegistry.expungeStaleEntries(maxObjects, this::onObjectCollected);
+
+        if (drained > INLINE_DRAIN_BATCH) {
+            logger.debug("Cleaned up {} collected object references", drained);
+        }
+        return drained;
+    }
 
-        for (Map.Entry<Long, TrackedObject> entry : trackedObjects.entrySet()) {
-            if (entry.getValue().getObject() == null) {
-                staleIds.add(entry.getKey());
+    private void onObjectCollected(IdentityObjectRegistry.Entry entry) {
+        int slot = entry.getSlot();
+        if (store.getRef(slot) != entry) {
+            return;
+        }
+        long id = store.getId(slot);
+        int classId = store.getClassId(slot);
+        long trackingTimestamp = store.getTrackingTimestamp(slot);
+        if (!releaseSlot(slot, entry)) {
+            return;
+        }
+        collectedCount.increment();
+
+        long lifetime = System.currentTimeMillis() - trackingTimestamp;
+        lifetimeHistograms.record(classId, lifetime);
+        eventBus.publish(new GuasaEvent.ObjectCollected(id, classId, lifetime));
+    }
+
+    public static class TrackedObjectPage {
+        public static final long FIRST_PAGE = 0;
+        public static final long NO_MORE_PAGES = -1;
+
+        private final List<TrackedObject> items;
+        private final long nextPageToken;
+
+        public TrackedObjectPage(List<TrackedObject> items, long nextPageToken) {
+            this.items = Collections.unmodifiableList(items);
+            this.nextPageToken = nextPageToken;
+        }
+
+        public List<TrackedObject> getItems() { return items; }
+        public long getNextPageToken() { return nextPageToken; }
+        public boolean hasNextPage() { return nextPageToken != NO_MORE_PAGES; }
+    }
+
+    private static final class SlotSpliterator implements Spliterator<TrackedObject> {
+        private final TrackedObjectStore store;
+        private int slot;
+        private final int end;
+
+        SlotSpliterator(TrackedObjectStore store, int from, int to) {
+            this.store = store;
+            this.slot = from;
+            this.end = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super TrackedObject> action) {
+            while (slot < end) {
+                TrackedObject tracked = TrackedObject.view(store, slot++);
+                if (tracked != null) {
+                    action.accept(tracked);
+                    return true;
+                }
             }
+            return false;
         }
 
-        for (Long id : staleIds) {
-            trackedObjects.remove(id);
+        @Override
+        public void forEachRemaining(Consumer<? super TrackedObject> action) {
+            for (; slot < end; slot++) {
+                TrackedObject tracked = TrackedObject.view(store, slot);
+                if (tracked != null) {
+                    action.accept(tracked);
+                }
+            }
         }
 
-        if (!staleIds.isEmpty()) {
-            logger.debug("Cleaned up {} stale object references", staleIds.size());
+        @Override
+        public Spliterator<TrackedObject> trySplit() {
+            int remaining = end - slot;
+            if (remaining < MIN_SPLIT_SLOTS * 2) {
+                return null;
+            }
+            int mid = slot + (remaining >>> 1);
+            SlotSpliterator prefix = new SlotSpliterator(store, slot, mid);
+            slot = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - slot;
+        }
+
+        @Override
+        public int characteristics() {
+            return DISTINCT | NONNULL | CONCURRENT;
         }
     }
 
+    /**
+     * Flyweight view of one {@link TrackedObjectStore} row. Immutable attributes are
+     * captured when the view is created; access bookkeeping is written back to the store
+     * for as long as the slot still belongs to the same object.
+     */
     public static class TrackedObject {
+        private final TrackedObjectStore store;
+        private final int slot;
+        private final IdentityObjectRegistry.Entry objectRef;
         private final long id;
-        private final WeakReference<Object> objectRef;
-        private final String className;
+        private final int classId;
         private final long trackingTimestamp;
         private final int identityHashCode;
-        private volatile long lastAccessTime;
-        private volatile int accessCount;
+        private final long shallowSize;
+        private final float sampleWeight;
+        private final int siteId;
+
+        private TrackedObject(TrackedObjectStore store, int slot, IdentityObjectRegistry.Entry objectRef) {
+            this.store = store;
+            this.slot = slot;
+            this.objectRef = objectRef;
+            this.id = store.getId(slot);
+            this.classId = store.getClassId(slot);
+            this.trackingTimestamp = store.getTrackingTimestamp(slot);
+            this.identityHashCode = store.getIdentityHashCode(slot);
+            this.shallowSize = store.getShallowSize(slot);
+            this.sampleWeight = store.getSampleWeight(slot);
+            this.siteId = store.getSiteId(slot);
+        }
 
-        public TrackedObject(long id, Object obj) {
-            this.id = id;
-            this.objectRef = new WeakReference<>(obj);
-            this.className = obj.getClass().getName();
-            this.trackingTimestamp = System.currentTimeMillis();
-            this.identityHashCode = System.identityHashCode(obj);
-            this.lastAccessTime = trackingTimestamp;
-            this.accessCount = 0;
+        static TrackedObject view(TrackedObjectStore store, int slot) {
+            IdentityObjectRegistry.Entry ref = store.getRef(slot);
+            if (ref == null) {
+                return null;
+            }
+            TrackedObject view = new TrackedObject(store, slot, ref);
+            return store.getRef(slot) == ref ? view : null;
         }
 
         public long getId() {
@@ -143,14 +766,21 @@ public class ObjectTracker {
         public Object getObject() {
             Object obj = objectRef.get();
             if (obj != null) {
-                lastAccessTime = System.currentTimeMillis();
-                accessCount++;
+                store.recordAccess(slot, objectRef, System.currentTimeMillis());
             }
             return obj;
         }
 
+        public Object peekObject() {
+            return objectRef.get();
+        }
+
+        public int getClassId() {
+            return classId;
+        }
+
         public String getClassName() {
-            return className;
+            return ClassRegistry.getName(classId);
         }
 
         public long getTrackingTimestamp() {
@@ -161,12 +791,24 @@ public class ObjectTracker {
             return identityHashCode;
         }
 
+        public long getShallowSize() {
+            return shallowSize;
+        }
+
+        public float getSampleWeight() {
+            return sampleWeight;
+        }
+
+        public int getSiteId() {
+            return siteId;
+        }
+
         public long getLastAccessTime() {
-            return lastAccessTime;
+            return store.getRef(slot) == objectRef ? store.getLastAccessTime(slot) : trackingTimestamp;
         }
 
         public int getAccessCount() {
-            return accessCount;
+            return store.getRef(slot) == objectRef ? store.getAccessCount(slot) : 0;
         }
 
         public boolean isAlive() {
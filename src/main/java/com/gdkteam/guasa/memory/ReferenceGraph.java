@@ -7,31 +7,49 @@
 
 package com.gdkteam.guasa.memory;
 
+import com.gdkteam.guasa.core.OverheadGovernor;
 import com.gdkteam.guasa.event.EventBus;
 import com.gdkteam.guasa.event.GuasaEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Array;
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
 public class ReferenceGraph {
     private static final Logger logger = LoggerFactory.getLogger(ReferenceGraph.class);
+    private static final int EDGE_SLICE_NODES = 1 << 14;
 
     private final ObjectTracker objectTracker;
     private final EventBus eventBus;
-    private final Map<Long, Set<ObjectReference>> outgoingReferences;
-    private final Map<Long, Set<Long>> incomingReferences;
+    private volatile Graph graph;
+    private volatile DominatorTree dominatorTree;
+    private volatile ExecutorService workerPool;
+    private volatile int parallelism = 1;
+    private volatile OverheadGovernor governor;
     private volatile boolean active = false;
 
     public ReferenceGraph(ObjectTracker objectTracker, EventBus eventBus) {
         this.objectTracker = objectTracker;
         this.eventBus = eventBus;
-        this.outgoingReferences = new ConcurrentHashMap<>();
-        this.incomingReferences = new ConcurrentHashMap<>();
+        this.graph = Graph.EMPTY;
+        this.dominatorTree = DominatorTree.empty();
+    }
+
+    /**
+     * Extracts references as {@code parallelism} parallel chunks on {@code workerPool}.
+     */
+    public void setWorkerPool(ExecutorService workerPool, int parallelism) {
+        this.workerPool = workerPool;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Splits updates into slices that each wait for {@code governor}'s CPU budget.
+     */
+    public void setOverheadGovernor(OverheadGovernor governor) {
+        this.governor = governor;
     }
 
     public void start() {
@@ -52,20 +70,34 @@ public class ReferenceGraph {
         long startTime = System.currentTimeMillis();
 
         try {
-            outgoingReferences.clear();
-            incomingReferences.clear();
+            objectTracker.drainCollectedObjects(Integer.MAX_VALUE);
 
-            Collection<ObjectTracker.TrackedObject> trackedObjects = objectTracker.getAllTrackedObjects();
+            OverheadGovernor currentGovernor = governor;
+            Runnable checkpoint = currentGovernor != null ? currentGovernor::awaitBudget : null;
+            List<NodeChunk> chunks = ChunkedScan.run(objectTracker, workerPool, parallelism, currentGovernor,
+                this::analyzeChunk);
 
-            for (ObjectTracker.TrackedObject tracked : trackedObjects) {
-                Object obj = tracked.getObject();
-                if (obj != null) {
-                    analyzeObjectReferences(tracked.getId(), obj);
-                }
+            int count = 0;
+            for (NodeChunk chunk : chunks) {
+                count += chunk.count;
             }
+            long[] shallowSizes = new long[count];
+            int offset = 0;
+            for (NodeChunk chunk : chunks) {
+                System.arraycopy(chunk.shallowSizes, 0, shallowSizes, offset, chunk.count);
+                offset += chunk.count;
+            }
+            Graph scanned = Graph.assemble(chunks, count, checkpoint);
+
+            long graphTime = System.currentTimeMillis();
+            DominatorTree dominators = DominatorTree.compute(scanned.ids, scanned.classIds, shallowSizes,
+                scanned.edgeStart, scanned.edgeTargets, checkpoint);
+            graph = scanned;
+            dominatorTree = dominators;
 
             long duration = System.currentTimeMillis() - startTime;
-            logger.debug("Reference graph updated in {}ms", duration);
+            logger.debug("Reference graph updated in {}ms (dominators {}ms)", duration,
+                System.currentTimeMillis() - graphTime);
 
             eventBus.publish(new GuasaEvent.ReferenceGraphUpdated());
 
@@ -74,141 +106,358 @@ public class ReferenceGraph {
         }
     }
 
-    private void analyzeObjectReferences(long objectId, Object obj) {
-        Set<ObjectReference> references = new HashSet<>();
+    private NodeChunk analyzeChunk(TrackedObjectCursor cursor) {
+        NodeChunk chunk = new NodeChunk();
+        while (cursor.next()) {
+            long id = cursor.getId();
+            int classId = cursor.getClassId();
+            long shallowSize = cursor.getShallowSize();
+            // Read last, so that a non-null object owns the values read above
+            Object obj = cursor.peekObject();
+            if (obj != null) {
+                analyzeObjectReferences(id, obj, chunk);
+                chunk.add(id, classId, shallowSize, obj.getClass());
+            }
+        }
+        return chunk;
+    }
 
+    private void analyzeObjectReferences(long objectId, Object obj, NodeChunk chunk) {
+        int firstEdge = chunk.edgeCount;
         try {
             if (obj.getClass().isArray()) {
-                analyzeArrayReferences(objectId, obj, references);
+                analyzeArrayReferences(obj, chunk);
             } else {
-                analyzeObjectFieldReferences(objectId, obj, references);
-            }
-
-            outgoingReferences.put(objectId, references);
-
-            for (ObjectReference ref : references) {
-                incomingReferences.computeIfAbsent(ref.getTargetId(), k -> ConcurrentHashMap.newKeySet())
-                    .add(objectId);
+                analyzeObjectFieldReferences(objectId, obj, chunk);
             }
-
         } catch (Exception e) {
+            chunk.edgeCount = firstEdge;
             logger.warn("Error analyzing references for object {}", objectId, e);
         }
     }
 
-    private void analyzeArrayReferences(long objectId, Object array, Set<ObjectReference> references) {
-        Class<?> componentType = array.getClass().getComponentType();
-
-        if (componentType.isPrimitive()) {
+    private void analyzeArrayReferences(Object array, NodeChunk chunk) {
+        if (!ClassLayout.of(array.getClass()).isReferenceArray()) {
             return;
         }
 
-        int length = Array.getLength(array);
-        for (int i = 0; i < length; i++) {
-            Object element = Array.get(array, i);
+        Object[] elements = (Object[]) array;
+        for (int i = 0; i < elements.length; i++) {
+            Object element = elements[i];
             if (element != null) {
                 Long targetId = objectTracker.getObjectId(element);
                 if (targetId != null) {
-                    references.add(new ObjectReference(
-                        objectId,
-                        targetId,
-                        "[" + i + "]",
-                        ReferenceType.ARRAY_ELEMENT,
-                        element.getClass().getName()
-                    ));
+                    chunk.addEdge(targetId, i);
                 }
             }
         }
     }
 
-    private void analyzeObjectFieldReferences(long objectId, Object obj, Set<ObjectReference> references) {
-        Class<?> clazz = obj.getClass();
-
-        while (clazz != null && clazz != Object.class) {
-            for (Field field : clazz.getDeclaredFields()) {
-                if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
-                    continue;
-                }
+    private void analyzeObjectFieldReferences(long objectId, Object obj, NodeChunk chunk) {
+        Field[] fields = ClassLayout.of(obj.getClass()).getReferenceFields();
+        for (int i = 0; i < fields.length; i++) {
+            try {
+                Object fieldValue = fields[i].get(obj);
 
-                try {
-                    field.setAccessible(true);
-                    Object fieldValue = field.get(obj);
-
-                    if (fieldValue != null) {
-                        Long targetId = objectTracker.getObjectId(fieldValue);
-                        if (targetId != null) {
-                            references.add(new ObjectReference(
-                                objectId,
-                                targetId,
-                                field.getName(),
-                                ReferenceType.FIELD,
-                                fieldValue.getClass().getName()
-                            ));
-                        }
+                if (fieldValue != null) {
+                    Long targetId = objectTracker.getObjectId(fieldValue);
+                    if (targetId != null) {
+                        chunk.addEdge(targetId, i);
                     }
-                } catch (Exception e) {
-                    logger.debug("Cannot access field {} of object {}", field.getName(), objectId);
                 }
+            } catch (Exception e) {
+                logger.debug("Cannot access field {} of object {}", fields[i].getName(), objectId);
             }
-            clazz = clazz.getSuperclass();
         }
     }
 
+    /**
+     * Returns the dominator tree built by the last {@link #update()}.
+     */
+    public DominatorTree getDominatorTree() {
+        return dominatorTree;
+    }
+
     public Set<ObjectReference> getOutgoingReferences(long objectId) {
-        return outgoingReferences.getOrDefault(objectId, Collections.emptySet());
+        Graph current = graph;
+        int node = current.indexOf(objectId);
+        if (node < 0 || current.edgeStart[node] == current.edgeStart[node + 1]) {
+            return Collections.emptySet();
+        }
+        Set<ObjectReference> references = new HashSet<>();
+        for (int edge = current.edgeStart[node]; edge < current.edgeStart[node + 1]; edge++) {
+            references.add(current.reference(node, edge));
+        }
+        return references;
     }
 
     public Set<Long> getIncomingReferences(long objectId) {
-        return incomingReferences.getOrDefault(objectId, Collections.emptySet());
+        Graph current = graph;
+        int node = current.indexOf(objectId);
+        if (node < 0) {
+            return Collections.emptySet();
+        }
+        int[] start = current.incomingStart();
+        int[] sources = current.incomingSources();
+        Set<Long> referrers = new HashSet<>();
+        for (int edge = start[node]; edge < start[node + 1]; edge++) {
+            referrers.add(current.ids[sources[edge]]);
+        }
+        return referrers;
     }
 
+    /**
+     * Returns the tracked objects on a path from an object nothing tracked refers to down
+     * to {@code objectId}, or an empty list if every path ends in a cycle.
+     */
     public List<Long> findPathToRoot(long objectId) {
-        List<Long> path = new ArrayList<>();
-        Set<Long> visited = new HashSet<>();
+        Graph current = graph;
+        int node = current.indexOf(objectId);
+        if (node < 0) {
+            return Collections.singletonList(objectId);
+        }
+        int[] start = current.incomingStart();
+        int[] sources = current.incomingSources();
+
+        IntHashSet visited = new IntHashSet();
+        visited.add(node);
+        int[] path = {node};
+        int[] nextEdge = {start[node]};
+        int depth = 1;
+        while (depth > 0 && start[path[depth - 1]] != start[path[depth - 1] + 1]) {
+            int edge = nextEdge[depth - 1];
+            if (edge == start[path[depth - 1] + 1]) {
+                depth--;
+                continue;
+            }
+            nextEdge[depth - 1]++;
+            int parent = sources[edge];
+            if (!visited.add(parent)) {
+                continue;
+            }
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+                nextEdge = Arrays.copyOf(nextEdge, depth * 2);
+            }
+            path[depth] = parent;
+            nextEdge[depth] = start[parent];
+            depth++;
+        }
 
-        if (findPathToRootRecursive(objectId, path, visited)) {
-            Collections.reverse(path);
-            return path;
+        List<Long> ids = new ArrayList<>(depth);
+        for (int i = depth - 1; i >= 0; i--) {
+            ids.add(current.ids[path[i]]);
         }
+        return ids;
+    }
 
-        return Collections.emptyList();
+    /**
+     * Returns how many distinct tracked objects refer to {@code objectId}.
+     */
+    public int getReferenceCount(long objectId) {
+        Graph current = graph;
+        int node = current.indexOf(objectId);
+        if (node < 0) {
+            return 0;
+        }
+        int[] start = current.incomingStart();
+        int[] sources = current.incomingSources();
+        IntHashSet referrers = new IntHashSet();
+        for (int edge = start[node]; edge < start[node + 1]; edge++) {
+            referrers.add(sources[edge]);
+        }
+        return referrers.size();
     }
 
-    private boolean findPathToRootRecursive(long objectId, List<Long> path, Set<Long> visited) {
-        if (visited.contains(objectId)) {
-            return false;
+    public Map<Long, Set<ObjectReference>> getFullGraph() {
+        Graph current = graph;
+        Map<Long, Set<ObjectReference>> references = new HashMap<>();
+        for (int node = 0; node < current.ids.length; node++) {
+            Set<ObjectReference> outgoing = new HashSet<>();
+            for (int edge = current.edgeStart[node]; edge < current.edgeStart[node + 1]; edge++) {
+                outgoing.add(current.reference(node, edge));
+            }
+            references.put(current.ids[node], outgoing);
         }
+        return references;
+    }
 
-        visited.add(objectId);
-        path.add(objectId);
+    public void clear() {
+        graph = Graph.EMPTY;
+        dominatorTree = DominatorTree.empty();
+    }
 
-        Set<Long> incoming = getIncomingReferences(objectId);
+    /**
+     * Objects and references found by one scan, as arrays indexed by node with the
+     * outgoing edges in compressed sparse row form. An edge's label is the index of the
+     * reference field, or of the element in an array, that holds it.
+     */
+    private static final class Graph {
+        static final Graph EMPTY = new Graph(new long[0], new int[0], new Class<?>[0], new LongIntHashMap(0),
+            new int[1], new int[0], new int[0]);
+
+        final long[] ids;
+        final int[] classIds;
+        final Class<?>[] types;
+        final LongIntHashMap indexById;
+        final int[] edgeStart;
+        final int[] edgeTargets;
+        final int[] edgeLabels;
+        // Reverse edges, built on first use and guarded by this
+        private int[] incomingStart;
+        private int[] incomingSources;
+
+        Graph(long[] ids, int[] classIds, Class<?>[] types, LongIntHashMap indexById, int[] edgeStart,
+              int[] edgeTargets, int[] edgeLabels) {
+            this.ids = ids;
+            this.classIds = classIds;
+            this.types = types;
+            this.indexById = indexById;
+            this.edgeStart = edgeStart;
+            this.edgeTargets = edgeTargets;
+            this.edgeLabels = edgeLabels;
+        }
+
+        /**
+         * Concatenates the chunks and resolves edge targets to node indexes, dropping
+         * edges to objects the scan did not reach.
+         */
+        static Graph assemble(List<NodeChunk> chunks, int count, Runnable checkpoint) {
+            long[] ids = new long[count];
+            int[] classIds = new int[count];
+            Class<?>[] types = new Class<?>[count];
+            int edges = 0;
+            int offset = 0;
+            for (NodeChunk chunk : chunks) {
+                System.arraycopy(chunk.ids, 0, ids, offset, chunk.count);
+                System.arraycopy(chunk.classIds, 0, classIds, offset, chunk.count);
+                System.arraycopy(chunk.types, 0, types, offset, chunk.count);
+                edges += chunk.edgeCount;
+                offset += chunk.count;
+            }
+            LongIntHashMap indexById = new LongIntHashMap(count);
+            for (int i = 0; i < count; i++) {
+                indexById.put(ids[i], i);
+            }
 
-        if (incoming.isEmpty()) {
-            return true;
+            int[] edgeStart = new int[count + 1];
+            int[] edgeTargets = new int[edges];
+            int[] edgeLabels = new int[edges];
+            int edgeCount = 0;
+            int node = 0;
+            for (NodeChunk chunk : chunks) {
+                int edge = 0;
+                for (int i = 0; i < chunk.count; i++, node++) {
+                    if (checkpoint != null && (node & (EDGE_SLICE_NODES - 1)) == 0) {
+                        checkpoint.run();
+                    }
+                    edgeStart[node] = edgeCount;
+                    for (; edge < chunk.edgeEnd[i]; edge++) {
+                        int target = indexById.get(chunk.targetIds[edge]);
+                        if (target >= 0) {
+                            edgeTargets[edgeCount] = target;
+                            edgeLabels[edgeCount] = chunk.labels[edge];
+                            edgeCount++;
+                        }
+                    }
+                }
+            }
+            edgeStart[count] = edgeCount;
+            return new Graph(ids, classIds, types, indexById, edgeStart, edgeTargets, edgeLabels);
+        }
+
+        int indexOf(long id) {
+            return id != 0 ? indexById.get(id) : LongIntHashMap.NO_VALUE;
         }
 
-        for (Long parentId : incoming) {
-            if (findPathToRootRecursive(parentId, path, visited)) {
-                return true;
+        ObjectReference reference(int node, int edge) {
+            int target = edgeTargets[edge];
+            int label = edgeLabels[edge];
+            String targetClassName = ClassRegistry.getName(classIds[target]);
+            ClassLayout layout = ClassLayout.of(types[node]);
+            if (layout.isArray()) {
+                return new ObjectReference(ids[node], ids[target], "[" + label + "]", ReferenceType.ARRAY_ELEMENT,
+                    targetClassName);
             }
+            return new ObjectReference(ids[node], ids[target], layout.getReferenceFields()[label].getName(),
+                ReferenceType.FIELD, targetClassName);
         }
 
-        path.remove(path.size() - 1);
-        return false;
-    }
+        synchronized int[] incomingStart() {
+            buildIncoming();
+            return incomingStart;
+        }
 
-    public int getReferenceCount(long objectId) {
-        return getIncomingReferences(objectId).size();
-    }
+        synchronized int[] incomingSources() {
+            buildIncoming();
+            return incomingSources;
+        }
 
-    public Map<Long, Set<ObjectReference>> getFullGraph() {
-        return new HashMap<>(outgoingReferences);
+        private void buildIncoming() {
+            if (incomingStart != null) {
+                return;
+            }
+            int n = ids.length;
+            int edgeCount = edgeStart[n];
+            int[] start = new int[n + 1];
+            for (int edge = 0; edge < edgeCount; edge++) {
+                start[edgeTargets[edge] + 1]++;
+            }
+            for (int i = 0; i < n; i++) {
+                start[i + 1] += start[i];
+            }
+            int[] next = Arrays.copyOf(start, n);
+            int[] sources = new int[edgeCount];
+            for (int node = 0; node < n; node++) {
+                for (int edge = edgeStart[node]; edge < edgeStart[node + 1]; edge++) {
+                    sources[next[edgeTargets[edge]]++] = node;
+                }
+            }
+            incomingSources = sources;
+            incomingStart = start;
+        }
     }
 
-    public void clear() {
-        outgoingReferences.clear();
-        incomingReferences.clear();
+    /**
+     * Objects found by one scan worker, each followed by the ids of the tracked objects
+     * it refers to; {@code edgeEnd[i]} is one past the last edge of object {@code i}.
+     */
+    private static final class NodeChunk {
+        long[] ids = new long[64];
+        int[] classIds = new int[64];
+        long[] shallowSizes = new long[64];
+        Class<?>[] types = new Class<?>[64];
+        int[] edgeEnd = new int[64];
+        int count;
+        long[] targetIds = new long[64];
+        int[] labels = new int[64];
+        int edgeCount;
+
+        void add(long id, int classId, long shallowSize, Class<?> type) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                classIds = Arrays.copyOf(classIds, count * 2);
+                shallowSizes = Arrays.copyOf(shallowSizes, count * 2);
+                types = Arrays.copyOf(types, count * 2);
+                edgeEnd = Arrays.copyOf(edgeEnd, count * 2);
+            }
+            ids[count] = id;
+            classIds[count] = classId;
+            shallowSizes[count] = shallowSize;
+            types[count] = type;
+            edgeEnd[count] = edgeCount;
+            count++;
+        }
+
+        void addEdge(long targetId, int label) {
+            if (edgeCount == targetIds.length) {
+                targetIds = Arrays.copyOf(targetIds, edgeCount * 2);
+                labels = Arrays.copyOf(labels, edgeCount * 2);
+            }
+            targetIds[edgeCount] = targetId;
+            labels[edgeCount] = label;
+            edgeCount++;
+        }
     }
 
     public enum ReferenceType {
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import java.util.Arrays;
+
+/**
+ * Per-class differences between two {@link HeapAnalyzer.HeapSnapshot}s, by sorted merge.
+ */
+public class SnapshotDiff {
+    public enum Change {
+        NEW,
+        VANISHED,
+        GREW,
+        SHRANK,
+        UNCHANGED
+    }
+
+    private final HeapAnalyzer.HeapSnapshot baseline;
+    private final HeapAnalyzer.HeapSnapshot current;
+    private final int[] classIds;
+    private final int[] baselineCounts;
+    private final int[] currentCounts;
+    private final long[] baselineSizes;
+    private final long[] currentSizes;
+    private final long[] estimatedSizeDeltas;
+    private final int newClassCount;
+    private final int vanishedClassCount;
+
+    private SnapshotDiff(HeapAnalyzer.HeapSnapshot baseline, HeapAnalyzer.HeapSnapshot current, int[] classIds,
+                         int[] baselineCounts, int[] currentCounts, long[] baselineSizes, long[] currentSizes,
+                         long[] estimatedSizeDeltas, int newClassCount, int vanishedClassCount) {
+        this.baseline = baseline;
+        this.current = current;
+        this.classIds = classIds;
+        this.baselineCounts = baselineCounts;
+        this.currentCounts = currentCounts;
+        this.baselineSizes = baselineSizes;
+        this.currentSizes = currentSizes;
+        this.estimatedSizeDeltas = estimatedSizeDeltas;
+        this.newClassCount = newClassCount;
+        this.vanishedClassCount = vanishedClassCount;
+    }
+
+    public static SnapshotDiff compute(HeapAnalyzer.HeapSnapshot baseline, HeapAnalyzer.HeapSnapshot current) {
+        int capacity = baseline.getClassCount() + current.getClassCount();
+        int[] classIds = new int[capacity];
+        int[] baselineCounts = new int[capacity];
+        int[] currentCounts = new int[capacity];
+        long[] baselineSizes = new long[capacity];
+        long[] currentSizes = new long[capacity];
+        long[] estimatedSizeDeltas = new long[capacity];
+        int newClasses = 0;
+        int vanishedClasses = 0;
+        int rows = 0;
+
+        int b = 0;
+        int c = 0;
+        while (b < baseline.getClassCount() || c < current.getClassCount()) {
+            int baselineId = b < baseline.getClassCount() ? baseline.getClassId(b) : Integer.MAX_VALUE;
+            int currentId = c < current.getClassCount() ? current.getClassId(c) : Integer.MAX_VALUE;
+            int classId = Math.min(baselineId, currentId);
+
+            int baselineCount = 0;
+            long baselineSize = 0;
+            long baselineEstimated = 0;
+            if (baselineId == classId) {
+                baselineCount = baseline.getInstanceCount(b);
+                baselineSize = baseline.getMemorySize(b);
+                baselineEstimated = baseline.getEstimatedMemorySize(b);
+                b++;
+            }
+            int currentCount = 0;
+            long currentSize = 0;
+            long currentEstimated = 0;
+            if (currentId == classId) {
+                currentCount = current.getInstanceCount(c);
+                currentSize = current.getMemorySize(c);
+                currentEstimated = current.getEstimatedMemorySize(c);
+                c++;
+            }
+
+            if (baselineCount == 0 && currentCount == 0) {
+                continue;
+            }
+            if (baselineCount == 0) {
+                newClasses++;
+            } else if (currentCount == 0) {
+                vanishedClasses++;
+            }
+
+            classIds[rows] = classId;
+            baselineCounts[rows] = baselineCount;
+            currentCounts[rows] = currentCount;
+            baselineSizes[rows] = baselineSize;
+            currentSizes[rows] = currentSize;
+            estimatedSizeDeltas[rows] = currentEstimated - baselineEstimated;
+            rows++;
+        }
+
+        return new SnapshotDiff(baseline, current, Arrays.copyOf(classIds, rows),
+            Arrays.copyOf(baselineCounts, rows), Arrays.copyOf(currentCounts, rows),
+            Arrays.copyOf(baselineSizes, rows), Arrays.copyOf(currentSizes, rows),
+            Arrays.copyOf(estimatedSizeDeltas, rows), newClasses, vanishedClasses);
+    }
+
+    public HeapAnalyzer.HeapSnapshot getBaseline() { return baseline; }
+    public HeapAnalyzer.HeapSnapshot getCurrent() { return current; }
+    public long getElapsedMillis() { return current.getTimestamp() - baseline.getTimestamp(); }
+    public int getNewClassCount() { return newClassCount; }
+    public int getVanishedClassCount() { return vanishedClassCount; }
+
+    public long getHeapUsedDelta() {
+        return current.getHeapUsed() - baseline.getHeapUsed();
+    }
+
+    public long getTrackedObjectDelta() {
+        return (long) current.getTrackedObjectCount() - baseline.getTrackedObjectCount();
+    }
+
+    public long getTrackedMemoryDelta() {
+        return current.getTotalTrackedMemory() - baseline.getTotalTrackedMemory();
+    }
+
+    public double getTrackedMemoryGrowthRate() {
+        return perSecond(getTrackedMemoryDelta());
+    }
+
+    public int getClassCount() { return classIds.length; }
+    public int getClassId(int index) { return classIds[index]; }
+    public String getClassName(int index) { return ClassRegistry.getName(classIds[index]); }
+    public int getBaselineInstanceCount(int index) { return baselineCounts[index]; }
+    public int getCurrentInstanceCount(int index) { return currentCounts[index]; }
+    public long getBaselineMemorySize(int index) { return baselineSizes[index]; }
+    public long getCurrentMemorySize(int index) { return currentSizes[index]; }
+    public long getEstimatedMemorySizeDelta(int index) { return estimatedSizeDeltas[index]; }
+
+    public long getInstanceCountDelta(int index) {
+        return (long) currentCounts[index] - baselineCounts[index];
+    }
+
+    public long getMemorySizeDelta(int index) {
+        return currentSizes[index] - baselineSizes[index];
+    }
+
+    public double getInstanceGrowthRate(int index) {
+        return perSecond(getInstanceCountDelta(index));
+    }
+
+    public double getMemoryGrowthRate(int index) {
+        return perSecond(getMemorySizeDelta(index));
+    }
+
+    public Change getChange(int index) {
+        if (baselineCounts[index] == 0) {
+            return Change.NEW;
+        }
+        if (currentCounts[index] == 0) {
+            return Change.VANISHED;
+        }
+        long delta = getMemorySizeDelta(index);
+        if (delta == 0) {
+            delta = getInstanceCountDelta(index);
+        }
+        return delta > 0 ? Change.GREW : delta < 0 ? Change.SHRANK : Change.UNCHANGED;
+    }
+
+    /**
+     * Returns the position of {@code classId} in this diff, or a negative value if the
+     * class had no live instances in either snapshot.
+     */
+    public int indexOfClass(int classId) {
+        return Arrays.binarySearch(classIds, classId);
+    }
+
+    private double perSecond(long delta) {
+        long elapsed = getElapsedMillis();
+        return elapsed > 0 ? delta * 1000.0 / elapsed : 0;
+    }
+}
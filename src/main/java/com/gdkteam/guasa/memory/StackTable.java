@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import java.util.*;
+
+/**
+ * Deduplicated trie of captured stacks, keyed by (parent node, frame ID).
+ */
+public class StackTable {
+    public static final int EMPTY_STACK = 0;
+
+    private final Map<FrameKey, Integer> frameIds;
+    private final List<StackTraceElement> frames;
+    private final LongIntHashMap children;
+    private int[] parents;
+    private int[] nodeFrames;
+    private int nodeCount;
+
+    public StackTable() {
+        this.frameIds = new HashMap<>();
+        this.frames = new ArrayList<>();
+        this.children = new LongIntHashMap(1024);
+        this.parents = new int[1024];
+        this.nodeFrames = new int[1024];
+        this.nodeCount = 1;
+    }
+
+    public synchronized int intern(StackWalker.StackFrame[] stack) {
+        int node = EMPTY_STACK;
+        for (StackWalker.StackFrame frame : stack) {
+            node = child(node, frameId(frame));
+        }
+        return node;
+    }
+
+    /**
+     * Returns the frames of {@code stackId}, innermost first.
+     */
+    public synchronized List<StackTraceElement> getFrames(int stackId) {
+        List<StackTraceElement> result = new ArrayList<>();
+        for (int node = stackId; node != EMPTY_STACK && node < nodeCount; node = parents[node]) {
+            result.add(frames.get(nodeFrames[node]));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    public synchronized int getStackCount() {
+        return nodeCount;
+    }
+
+    public synchronized int getFrameCount() {
+        return frames.size();
+    }
+
+    private int frameId(StackWalker.StackFrame frame) {
+        FrameKey key = new FrameKey(frame.getClassName(), frame.getMethodName(), frame.getByteCodeIndex());
+        Integer frameId = frameIds.get(key);
+        if (frameId == null) {
+            frameId = frames.size();
+            frames.add(frame.toStackTraceElement());
+            frameIds.put(key, frameId);
+        }
+        return frameId;
+    }
+
+    private int child(int parent, int frameId) {
+        long key = ((long) parent << 32) | (frameId + 1L);
+        int node = children.get(key);
+        if (node != LongIntHashMap.NO_VALUE) {
+            return node;
+        }
+
+        node = nodeCount++;
+        if (node == parents.length) {
+            parents = Arrays.copyOf(parents, node << 1);
+            nodeFrames = Arrays.copyOf(nodeFrames, node << 1);
+        }
+        parents[node] = parent;
+        nodeFrames[node] = frameId;
+        children.put(key, node);
+        return node;
+    }
+
+    private static final class FrameKey {
+        private final String className;
+        private final String methodName;
+        private final int byteCodeIndex;
+
+        FrameKey(String className, String methodName, int byteCodeIndex) {
+            this.className = className;
+            this.methodName = methodName;
+            this.byteCodeIndex = byteCodeIndex;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FrameKey that = (FrameKey) o;
+            return byteCodeIndex == that.byteCodeIndex && className.equals(that.className) &&
+                   methodName.equals(that.methodName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(className, methodName, byteCodeIndex);
+        }
+    }
+}
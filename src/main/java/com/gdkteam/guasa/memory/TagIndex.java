@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import java.util.*;
+
+/**
+ * Index from user-supplied tags to tracked slots, with live counts and bytes per tag.
+ */
+public class TagIndex {
+    public static final int NO_TAG = -1;
+
+    private final Map<String, Integer> tagIds;
+    private volatile String[] tagNames;
+    private IntHashSet[] members;
+    private int[] primaryTags;
+    private final Map<Integer, int[]> extraTags;
+    private final ClassCounters counters;
+
+    public TagIndex() {
+        this.tagIds = new HashMap<>();
+        this.tagNames = new String[0];
+        this.members = new IntHashSet[0];
+        this.primaryTags = new int[0];
+        this.extraTags = new HashMap<>();
+        this.counters = new ClassCounters();
+    }
+
+    public synchronized int intern(String tag) {
+        Integer tagId = tagIds.get(tag);
+        if (tagId == null) {
+            tagId = tagNames.length;
+            String[] grown = Arrays.copyOf(tagNames, tagId + 1);
+            grown[tagId] = tag;
+            tagNames = grown;
+            members = Arrays.copyOf(members, tagId + 1);
+            members[tagId] = new IntHashSet();
+            tagIds.put(tag, tagId);
+        }
+        return tagId;
+    }
+
+    public synchronized int getTagId(String tag) {
+        Integer tagId = tagIds.get(tag);
+        return tagId != null ? tagId : NO_TAG;
+    }
+
+    public String getTagName(int tagId) {
+        return tagNames[tagId];
+    }
+
+    public int getTagCount() {
+        return tagNames.length;
+    }
+
+    /**
+     * Adds {@code tagId} to the object in {@code slot}. Returns {@code false} if the
+     * object already carried the tag. Callers hold the slot's store stripe monitor, as
+     * for {@link #untagAll}.
+     */
+    public synchronized boolean tag(int slot, int tagId, long shallowSize, float sampleWeight) {
+        if (!members[tagId].add(slot)) {
+            return false;
+        }
+
+        if (slot >= primaryTags.length) {
+            primaryTags = Arrays.copyOf(primaryTags, Math.max(slot + 1, primaryTags.length << 1));
+        }
+        if (primaryTags[slot] == 0) {
+            primaryTags[slot] = tagId + 1;
+        } else {
+            int[] extra = extraTags.get(slot);
+            extra = extra == null ? new int[1] : Arrays.copyOf(extra, extra.length + 1);
+            extra[extra.length - 1] = tagId;
+            extraTags.put(slot, extra);
+        }
+
+        counters.add(tagId, shallowSize, sampleWeight);
+        return true;
+    }
+
+    public synchronized void untagAll(int slot, long shallowSize, float sampleWeight) {
+        if (slot >= primaryTags.length || primaryTags[slot] == 0) {
+            return;
+        }
+
+        untag(slot, primaryTags[slot] - 1, shallowSize, sampleWeight);
+        primaryTags[slot] = 0;
+
+        int[] extra = extraTags.remove(slot);
+        if (extra != null) {
+            for (int tagId : extra) {
+                untag(slot, tagId, shallowSize, sampleWeight);
+            }
+        }
+    }
+
+    public synchronized int[] getSlots(int tagId) {
+        return tagId >= 0 && tagId < members.length ? members[tagId].toArray() : new int[0];
+    }
+
+    public synchronized boolean hasTag(int slot, int tagId) {
+        return tagId >= 0 && tagId < members.length && members[tagId].contains(slot);
+    }
+
+    public long getLiveCount(int tagId) {
+        return counters.getLiveCount(tagId);
+    }
+
+    public long getLiveBytes(int tagId) {
+        return counters.getLiveBytes(tagId);
+    }
+
+    /**
+     * Drops all tag memberships. Interned tag IDs stay valid.
+     */
+    public synchronized void clear() {
+        for (IntHashSet set : members) {
+            set.clear();
+        }
+        primaryTags = new int[0];
+        extraTags.clear();
+        counters.clear();
+    }
+
+    private void untag(int slot, int tagId, long shallowSize, float sampleWeight) {
+        if (members[tagId].remove(slot)) {
+            counters.remove(tagId, shallowSize, sampleWeight);
+        }
+    }
+}
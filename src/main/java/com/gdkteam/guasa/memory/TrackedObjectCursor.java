@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Allocation-free, weakly consistent cursor over a range of store slots.
+ */
+public class TrackedObjectCursor {
+    private final TrackedObjectStore store;
+    private final int end;
+    private int slot;
+    private IdentityObjectRegistry.Entry ref;
+
+    TrackedObjectCursor(TrackedObjectStore store, int from, int to) {
+        this.store = store;
+        this.end = to;
+        this.slot = from - 1;
+    }
+
+    public boolean next() {
+        while (++slot < end) {
+            ref = store.getRef(slot);
+            if (ref != null) {
+                return true;
+            }
+        }
+        ref = null;
+        return false;
+    }
+
+    /**
+     * Position of the current row; a cursor resumed from {@code getSlot() + 1} continues
+     * after it.
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Returns whether the row still holds the object found by {@code next()}, i.e. whether
+     * the columns read so far belong to that object.
+     */
+    public boolean isCurrent() {
+        if (ref == null) {
+            return false;
+        }
+        // Keep the column reads before the reference is read again
+        VarHandle.acquireFence();
+        return store.getRef(slot) == ref;
+    }
+
+    public long getId() {
+        return store.getId(slot);
+    }
+
+    public int getClassId() {
+        return store.getClassId(slot);
+    }
+
+    public String getClassName() {
+        return store.getClassName(slot);
+    }
+
+    public int getIdentityHashCode() {
+        return store.getIdentityHashCode(slot);
+    }
+
+    public long getShallowSize() {
+        return store.getShallowSize(slot);
+    }
+
+    public float getSampleWeight() {
+        return store.getSampleWeight(slot);
+    }
+
+    public int getSiteId() {
+        return store.getSiteId(slot);
+    }
+
+    public long getTrackingTimestamp() {
+        return store.getTrackingTimestamp(slot);
+    }
+
+    public Object getObject() {
+        Object obj = peekObject();
+        if (obj != null) {
+            store.recordAccess(slot, ref, System.currentTimeMillis());
+        }
+        return obj;
+    }
+
+    /**
+     * Returns the current object without recording an access, or {@code null} if the row
+     * no longer holds it. Read it after the columns: a non-null result means they were its.
+     */
+    public Object peekObject() {
+        return isCurrent() ? ref.get() : null;
+    }
+
+    public ObjectTracker.TrackedObject toTrackedObject() {
+        ObjectTracker.TrackedObject view = ObjectTracker.TrackedObject.view(store, slot);
+        return view != null && store.getRef(slot) == ref ? view : null;
+    }
+}
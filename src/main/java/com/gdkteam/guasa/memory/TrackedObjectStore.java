@@ -0,0 +1,563 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Striped struct-of-arrays storage for tracked-object metadata, one row per slot.
+ */
+public class TrackedObjectStore {
+    public static final int NO_SLOT = -1;
+    public static final long NO_ID = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_STRIPE_CAPACITY = 64;
+    private static final int MAX_STRIPES = 64;
+    private static final int SIZE_SHIFT = 3;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final long ASSIGNED_ID = 1L << 62;
+    private static final int SERIAL_SHIFT = 31;
+
+    private final boolean offHeap;
+    private final Stripe[] stripes;
+    private final int stripeBits;
+    private final int stripeMask;
+    private volatile int generation;
+
+    public TrackedObjectStore(boolean offHeap) {
+        this(offHeap, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public TrackedObjectStore(boolean offHeap, int concurrencyLevel) {
+        int stripeCount = 1;
+        while (stripeCount < concurrencyLevel && stripeCount < MAX_STRIPES) {
+            stripeCount <<= 1;
+        }
+        this.offHeap = offHeap;
+        this.stripes = new Stripe[stripeCount];
+        this.stripeBits = Integer.numberOfTrailingZeros(stripeCount);
+        this.stripeMask = stripeCount - 1;
+        int stripeCapacity = Math.max(MIN_STRIPE_CAPACITY, INITIAL_CAPACITY / stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(stripeCapacity, offHeap);
+        }
+    }
+
+    /**
+     * Allocates and fills a row that stays invisible until {@link #commit}. Returns
+     * {@link #NO_SLOT} if the store was cleared since {@code generation}; callers check it
+     * again under {@link #lockFor(int)} before committing or aborting.
+     */
+    public int reserve(long presetId, int classId, int identityHashCode, long shallowSize,
+                       float sampleWeight, int siteId, long timestamp, int generation) {
+        int stripeIndex = presetId != NO_ID
+            ? (int) presetId & stripeMask
+            : (identityHashCode * HASH_MULTIPLIER) >>> (32 - stripeBits) & stripeMask;
+        Stripe stripe = stripes[stripeIndex];
+        synchronized (stripe) {
+            if (generation != this.generation) {
+                return NO_SLOT;
+            }
+            int row = stripe.allocateRow();
+            int slot = (row << stripeBits) | stripeIndex;
+            Columns c = stripe.columns;
+            // Rows holding a preset id store their serial complemented
+            int previous = c.serials.get(row);
+            int serial = ((previous < 0 ? ~previous : previous) + 1) & Integer.MAX_VALUE;
+            if (presetId != NO_ID) {
+                stripe.presetSlots().put(presetId, slot);
+                c.presetIds().set(row, presetId);
+                c.serials.set(row, ~serial);
+            } else {
+                c.serials.set(row, serial);
+            }
+            c.classIds.set(row, classId);
+            c.shallowSizes.set(row, (int) Math.min(shallowSize >>> SIZE_SHIFT, Integer.MAX_VALUE));
+            c.sampleWeights.set(row, Float.floatToRawIntBits(sampleWeight));
+            c.siteIds.set(row, siteId);
+            c.trackingTimestamps.set(row, timestamp);
+            c.lastAccessOffsets.set(row, 0);
+            c.accessCounts.set(row, 0);
+            return slot;
+        }
+    }
+
+    public void commit(int slot, IdentityObjectRegistry.Entry ref) {
+        Stripe stripe = stripes[slot & stripeMask];
+        synchronized (stripe) {
+            stripe.columns.refs.set(slot >>> stripeBits, ref);
+            stripe.size++;
+        }
+    }
+
+    public void abort(int slot) {
+        Stripe stripe = stripes[slot & stripeMask];
+        synchronized (stripe) {
+            int row = slot >>> stripeBits;
+            stripe.removePresetId(row);
+            stripe.pushFreeRow(row);
+        }
+    }
+
+    public boolean free(int slot) {
+        if (slot < 0) {
+            return false;
+        }
+        Stripe stripe = stripes[slot & stripeMask];
+        synchronized (stripe) {
+            int row = slot >>> stripeBits;
+            Columns c = stripe.columns;
+            if (row >= stripe.highWaterMark || c.refs.get(row) == null) {
+                return false;
+            }
+
+            stripe.removePresetId(row);
+            c.refs.set(row, null);
+            stripe.pushFreeRow(row);
+            stripe.size--;
+            return true;
+        }
+    }
+
+    /**
+     * Returns the slot of the row holding {@code id}, or {@link #NO_SLOT} if no row
+     * holds it.
+     */
+    public int slotOf(long id) {
+        if (id < 0) {
+            return NO_SLOT;
+        }
+        Stripe stripe = stripes[(int) id & stripeMask];
+        synchronized (stripe) {
+            if ((id & ASSIGNED_ID) == 0) {
+                return stripe.presetSlots != null ? stripe.presetSlots.get(id) : NO_SLOT;
+            }
+            int slot = (int) id & Integer.MAX_VALUE;
+            int row = slot >>> stripeBits;
+            Columns c = stripe.columns;
+            return row < stripe.highWaterMark && c.idAt(row, slot) == id && c.refs.get(row) != null
+                ? slot : NO_SLOT;
+        }
+    }
+
+    public void clear() {
+        runExclusive(() -> {
+            int stripeCapacity = Math.max(MIN_STRIPE_CAPACITY, INITIAL_CAPACITY / stripes.length);
+            for (Stripe stripe : stripes) {
+                stripe.clear(stripeCapacity, offHeap);
+            }
+            generation++;
+        });
+    }
+
+    /**
+     * Returns the monitor guarding {@code slot}'s stripe. Holding it keeps the row from
+     * being published, freed or reused.
+     */
+    public Object lockFor(int slot) {
+        return stripes[slot & stripeMask];
+    }
+
+    /**
+     * Returns the stripe of {@code slot}, between 0 and {@link #getStripeCount()}.
+     */
+    public int getStripe(int slot) {
+        return slot & stripeMask;
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Runs {@code action} while holding the monitors of all stripes, so that no row is
+     * reserved, published or freed until it returns.
+     */
+    public void runExclusive(Runnable action) {
+        lockStripes(0, action);
+    }
+
+    private void lockStripes(int index, Runnable action) {
+        if (index == stripes.length) {
+            action.run();
+            return;
+        }
+        synchronized (stripes[index]) {
+            lockStripes(index + 1, action);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    /**
+     * Returns an upper bound for the occupied slots, i.e. the bound for iterating slots.
+     */
+    public int getHighWaterMark() {
+        int highWaterMark = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            int rows = stripes[i].highWaterMark;
+            if (rows > 0) {
+                highWaterMark = Math.max(highWaterMark, ((rows - 1) << stripeBits | i) + 1);
+            }
+        }
+        return highWaterMark;
+    }
+
+    public int getCapacity() {
+        int capacity = 0;
+        for (Stripe stripe : stripes) {
+            capacity += stripe.columns.capacity;
+        }
+        return capacity;
+    }
+
+    /**
+     * Incremented by {@link #clear()}, so slot positions saved before a clear can be
+     * recognized as stale.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    public IdentityObjectRegistry.Entry getRef(int slot) {
+        Columns c = stripes[slot & stripeMask].columns;
+        int row = slot >>> stripeBits;
+        return row < c.capacity ? c.refs.get(row) : null;
+    }
+
+    public long getId(int slot) {
+        return columnsOf(slot).idAt(slot >>> stripeBits, slot);
+    }
+
+    public int getClassId(int slot) {
+        return columnsOf(slot).classIds.get(slot >>> stripeBits);
+    }
+
+    public String getClassName(int slot) {
+        return ClassRegistry.getName(getClassId(slot));
+    }
+
+    public int getIdentityHashCode(int slot) {
+        IdentityObjectRegistry.Entry ref = getRef(slot);
+        return ref != null ? ref.getIdentityHashCode() : 0;
+    }
+
+    /**
+     * Shallow size in bytes recorded when the object was tracked. Sizes are stored in
+     * 8-byte units, which matches object alignment and covers objects up to 16 GB.
+     */
+    public long getShallowSize(int slot) {
+        return (long) columnsOf(slot).shallowSizes.get(slot >>> stripeBits) << SIZE_SHIFT;
+    }
+
+    public float getSampleWeight(int slot) {
+        return Float.intBitsToFloat(columnsOf(slot).sampleWeights.get(slot >>> stripeBits));
+    }
+
+    public int getSiteId(int slot) {
+        return columnsOf(slot).siteIds.get(slot >>> stripeBits);
+    }
+
+    public long getTrackingTimestamp(int slot) {
+        return columnsOf(slot).trackingTimestamps.get(slot >>> stripeBits);
+    }
+
+    /**
+     * Stored as an offset from the tracking time, so capped at about 24 days after it.
+     */
+    public long getLastAccessTime(int slot) {
+        Columns c = columnsOf(slot);
+        int row = slot >>> stripeBits;
+        return c.trackingTimestamps.get(row) + c.lastAccessOffsets.get(row);
+    }
+
+    public int getAccessCount(int slot) {
+        return columnsOf(slot).accessCounts.get(slot >>> stripeBits);
+    }
+
+    /**
+     * Records an access if {@code slot} still holds {@code ref}. Concurrent accesses may
+     * lose a count.
+     */
+    public void recordAccess(int slot, IdentityObjectRegistry.Entry ref, long timestamp) {
+        Columns c = columnsOf(slot);
+        int row = slot >>> stripeBits;
+        if (row < c.capacity && c.refs.get(row) == ref) {
+            long offset = timestamp - c.trackingTimestamps.get(row);
+            c.lastAccessOffsets.set(row, (int) Math.max(0, Math.min(offset, Integer.MAX_VALUE)));
+            c.accessCounts.set(row, c.accessCounts.get(row) + 1);
+        }
+    }
+
+    private Columns columnsOf(int slot) {
+        return stripes[slot & stripeMask].columns;
+    }
+
+    private static final class Stripe {
+        private LongIntHashMap presetSlots;
+        private volatile Columns columns;
+        private int[] freeRows;
+        private int freeCount;
+        private volatile int highWaterMark;
+        private volatile int size;
+
+        Stripe(int capacity, boolean offHeap) {
+            this.columns = new Columns(capacity, offHeap);
+            this.freeRows = new int[16];
+        }
+
+        int allocateRow() {
+            if (freeCount > 0) {
+                return freeRows[--freeCount];
+            }
+            if (highWaterMark == columns.capacity) {
+                columns = columns.grow(columns.capacity << 1);
+            }
+            return highWaterMark++;
+        }
+
+        LongIntHashMap presetSlots() {
+            if (presetSlots == null) {
+                presetSlots = new LongIntHashMap(MIN_STRIPE_CAPACITY);
+            }
+            return presetSlots;
+        }
+
+        void removePresetId(int row) {
+            if (columns.serials.get(row) < 0 && presetSlots != null) {
+                presetSlots.remove(columns.presetIds.get(row));
+            }
+        }
+
+        /**
+         * Empties the stripe in place. Columns never shrink, so lock-free readers stay in
+         * bounds, and serials are kept, so ids are not reused.
+         */
+        void clear(int capacity, boolean offHeap) {
+            presetSlots = null;
+            Columns cleared = new Columns(Math.max(capacity, columns.capacity), offHeap);
+            columns.serials.copyTo(cleared.serials, columns.capacity);
+            columns = cleared;
+            freeRows = new int[16];
+            freeCount = 0;
+            highWaterMark = 0;
+            size = 0;
+        }
+
+        void pushFreeRow(int row) {
+            if (freeCount == freeRows.length) {
+                freeRows = Arrays.copyOf(freeRows, freeCount << 1);
+            }
+            freeRows[freeCount++] = row;
+        }
+    }
+
+    private static final class Columns {
+        private final int capacity;
+        private final boolean offHeap;
+        private final AtomicReferenceArray<IdentityObjectRegistry.Entry> refs;
+        private final LongColumn trackingTimestamps;
+        private final IntColumn lastAccessOffsets;
+        private final IntColumn serials;
+        private final IntColumn classIds;
+        private final IntColumn shallowSizes;
+        private final IntColumn sampleWeights;
+        private final IntColumn siteIds;
+        private final IntColumn accessCounts;
+        private volatile LongColumn presetIds;
+
+        Columns(int capacity, boolean offHeap) {
+            this.capacity = capacity;
+            this.offHeap = offHeap;
+            this.refs = new AtomicReferenceArray<>(capacity);
+            this.trackingTimestamps = LongColumn.create(capacity, offHeap);
+            this.lastAccessOffsets = IntColumn.create(capacity, offHeap);
+            this.serials = IntColumn.create(capacity, offHeap);
+            this.classIds = IntColumn.create(capacity, offHeap);
+            this.shallowSizes = IntColumn.create(capacity, offHeap);
+            this.sampleWeights = IntColumn.create(capacity, offHeap);
+            this.siteIds = IntColumn.create(capacity, offHeap);
+            this.accessCounts = IntColumn.create(capacity, offHeap);
+        }
+
+        Columns grow(int newCapacity) {
+            Columns grown = new Columns(newCapacity, offHeap);
+            for (int i = 0; i < capacity; i++) {
+                grown.refs.set(i, refs.get(i));
+            }
+            if (presetIds != null) {
+                presetIds.copyTo(grown.presetIds(), capacity);
+            }
+            trackingTimestamps.copyTo(grown.trackingTimestamps, capacity);
+            lastAccessOffsets.copyTo(grown.lastAccessOffsets, capacity);
+            serials.copyTo(grown.serials, capacity);
+            classIds.copyTo(grown.classIds, capacity);
+            shallowSizes.copyTo(grown.shallowSizes, capacity);
+            sampleWeights.copyTo(grown.sampleWeights, capacity);
+            siteIds.copyTo(grown.siteIds, capacity);
+            accessCounts.copyTo(grown.accessCounts, capacity);
+            return grown;
+        }
+
+        /**
+         * Returns the column of preset ids, created when the first one is stored. Called
+         * while holding the stripe's monitor.
+         */
+        LongColumn presetIds() {
+            if (presetIds == null) {
+                presetIds = LongColumn.create(capacity, offHeap);
+            }
+            return presetIds;
+        }
+
+        long idAt(int row, int slot) {
+            int serial = serials.get(row);
+            if (serial >= 0) {
+                return ASSIGNED_ID | (long) serial << SERIAL_SHIFT | slot;
+            }
+            LongColumn preset = presetIds;
+            return preset != null ? preset.get(row) : NO_ID;
+        }
+    }
+
+    private abstract static class LongColumn {
+        static LongColumn create(int capacity, boolean offHeap) {
+            return offHeap ? new DirectLongColumn(capacity) : new HeapLongColumn(capacity);
+        }
+
+        abstract long get(int index);
+
+        abstract void set(int index, long value);
+
+        void copyTo(LongColumn target, int length) {
+            for (int i = 0; i < length; i++) {
+                target.set(i, get(i));
+            }
+        }
+    }
+
+    private static final class HeapLongColumn extends LongColumn {
+        private final long[] values;
+
+        HeapLongColumn(int capacity) {
+            this.values = new long[capacity];
+        }
+
+        @Override
+        long get(int index) {
+            return values[index];
+        }
+
+        @Override
+        void set(int index, long value) {
+            values[index] = value;
+        }
+
+        @Override
+        void copyTo(LongColumn target, int length) {
+            if (target instanceof HeapLongColumn) {
+                System.arraycopy(values, 0, ((HeapLongColumn) target).values, 0, length);
+            } else {
+                super.copyTo(target, length);
+            }
+        }
+    }
+
+    private static final class DirectLongColumn extends LongColumn {
+        private final ByteBuffer buffer;
+
+        DirectLongColumn(int capacity) {
+            this.buffer = ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder());
+        }
+
+        @Override
+        long get(int index) {
+            return buffer.getLong(index << 3);
+        }
+
+        @Override
+        void set(int index, long value) {
+            buffer.putLong(index << 3, value);
+        }
+    }
+
+    private abstract static class IntColumn {
+        static IntColumn create(int capacity, boolean offHeap) {
+            return offHeap ? new DirectIntColumn(capacity) : new HeapIntColumn(capacity);
+        }
+
+        abstract int get(int index);
+
+        abstract void set(int index, int value);
+
+        void copyTo(IntColumn target, int length) {
+            for (int i = 0; i < length; i++) {
+                target.set(i, get(i));
+            }
+        }
+    }
+
+    private static final class HeapIntColumn extends IntColumn {
+        private final int[] values;
+
+        HeapIntColumn(int capacity) {
+            this.values = new int[capacity];
+        }
+
+        @Override
+        int get(int index) {
+            return values[index];
+        }
+
+        @Override
+        void set(int index, int value) {
+            values[index] = value;
+        }
+
+        @Override
+        void copyTo(IntColumn target, int length) {
+            if (target instanceof HeapIntColumn) {
+                System.arraycopy(values, 0, ((HeapIntColumn) target).values, 0, length);
+            } else {
+                super.copyTo(target, length);
+            }
+        }
+    }
+
+    private static final class DirectIntColumn extends IntColumn {
+        private final ByteBuffer buffer;
+
+        DirectIntColumn(int capacity) {
+            this.buffer = ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder());
+        }
+
+        @Override
+        int get(int index) {
+            return buffer.getInt(index << 2);
+        }
+
+        @Override
+        void set(int index, int value) {
+            buffer.putInt(index << 2, value);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+/**
+ * Bounded per-stripe log of tracked and released objects, reporting an overflow when full.
+ */
+public class TrackingChangeLog {
+    private final int capacity;
+    private final Stripe[] stripes;
+
+    public TrackingChangeLog(int capacity) {
+        this(capacity, 1);
+    }
+
+    public TrackingChangeLog(int capacity, int stripeCount) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Change log capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.stripes = new Stripe[Math.max(1, stripeCount)];
+        int stripeCapacity = Math.max(1, (capacity + stripes.length - 1) / stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+    }
+
+    /**
+     * Called with the store stripe's monitor held, as the row is published, so a
+     * release is never replayed before its tracking; likewise {@link #recordReleased}.
+     */
+    public void recordTracked(int stripe, int classId, long trackingTimestamp) {
+        stripes[stripe].append(classId, trackingTimestamp, true);
+    }
+
+    public void recordReleased(int stripe, int classId, long trackingTimestamp) {
+        stripes[stripe].append(classId, trackingTimestamp, false);
+    }
+
+    /**
+     * Discards the recorded changes and makes the next drain report an overflow.
+     */
+    public void invalidate() {
+        for (Stripe stripe : stripes) {
+            stripe.invalidate();
+        }
+    }
+
+    /**
+     * Discards the recorded changes and any overflow. Callers hold every store stripe, so
+     * no change is in flight while they scan the store.
+     */
+    public void reset() {
+        for (Stripe stripe : stripes) {
+            stripe.reset();
+        }
+    }
+
+    /**
+     * Replays the changes since the previous drain, or returns {@code false} without
+     * calling {@code sink} if changes were lost. Only one thread may drain at a time.
+     */
+    public boolean drain(Sink sink) {
+        Buffer[] drained = new Buffer[stripes.length];
+        boolean complete = true;
+        for (int i = 0; i < stripes.length; i++) {
+            drained[i] = stripes[i].swap();
+            complete &= !drained[i].overflowed;
+        }
+
+        for (int i = 0; i < stripes.length; i++) {
+            Buffer buffer = drained[i];
+            if (complete) {
+                for (int j = 0; j < buffer.size; j++) {
+                    sink.accept(buffer.classIds[j], buffer.timestamps[j], buffer.tracked[j]);
+                }
+            }
+            buffer.size = 0;
+            buffer.overflowed = false;
+            stripes[i].returnSpare(buffer);
+        }
+        return complete;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public interface Sink {
+        void accept(int classId, long trackingTimestamp, boolean tracked);
+    }
+
+    private static final class Stripe {
+        private Buffer active;
+        private Buffer spare;
+
+        Stripe(int capacity) {
+            this.active = new Buffer(capacity);
+            this.spare = new Buffer(capacity);
+            this.active.overflowed = true;
+        }
+
+        synchronized void append(int classId, long timestamp, boolean isTracked) {
+            active.append(classId, timestamp, isTracked);
+        }
+
+        synchronized void invalidate() {
+            active.size = 0;
+            active.overflowed = true;
+        }
+
+        synchronized void reset() {
+            active.size = 0;
+            active.overflowed = false;
+        }
+
+        synchronized Buffer swap() {
+            Buffer drained = active;
+            active = spare;
+            spare = null;
+            return drained;
+        }
+
+        synchronized void returnSpare(Buffer buffer) {
+            spare = buffer;
+        }
+    }
+
+    private static final class Buffer {
+        final int[] classIds;
+        final long[] timestamps;
+        final boolean[] tracked;
+        int size;
+        boolean overflowed;
+
+        Buffer(int capacity) {
+            this.classIds = new int[capacity];
+            this.timestamps = new long[capacity];
+            this.tracked = new boolean[capacity];
+        }
+
+        void append(int classId, long timestamp, boolean isTracked) {
+            if (size == classIds.length) {
+                overflowed = true;
+            }
+            if (overflowed) {
+                return;
+            }
+            classIds[size] = classId;
+            timestamps[size] = timestamp;
+            tracked[size] = isTracked;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisSchedulerTest {
+    private static final long MIN_INTERVAL_MS = 100;
+    private static final long MAX_INTERVAL_MS = 800;
+
+    private final ManualScheduler executor = new ManualScheduler();
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong collected = new AtomicLong();
+    private Runnable work = () -> { };
+    private final AnalysisScheduler scheduler = new AnalysisScheduler(
+        executor, () -> work.run(), changes::get, collected::get, MIN_INTERVAL_MS, MAX_INTERVAL_MS,
+        new OverheadGovernor(100, 1000), clock::get, Collections.emptyList());
+
+    @Test
+    void firstAnalysisRunsAtOnce() {
+        scheduler.start();
+
+        assertEquals(0, executor.pendingDelayMs());
+        executor.runPending();
+        assertEquals(1, scheduler.getAnalysisCount());
+    }
+
+    @Test
+    void intervalDoublesWhileNothingChanges() {
+        scheduler.start();
+
+        long[] expected = {200, 400, 800, 800};
+        for (long interval : expected) {
+            executor.runPending();
+            assertEquals(interval, scheduler.getCurrentIntervalMs());
+            assertEquals(interval, executor.pendingDelayMs());
+        }
+    }
+
+    @Test
+    void changeResetsTheInterval() {
+        scheduler.start();
+        executor.runPending();
+        executor.runPending();
+        assertEquals(400, scheduler.getCurrentIntervalMs());
+
+        changes.incrementAndGet();
+        executor.runPending();
+        assertEquals(MIN_INTERVAL_MS, scheduler.getCurrentIntervalMs());
+    }
+
+    @Test
+    void changesMadeDuringAnAnalysisCountAtTheNextRun() {
+        scheduler.start();
+        work = changes::incrementAndGet;
+        executor.runPending();
+        work = () -> { };
+        assertEquals(200, scheduler.getCurrentIntervalMs());
+
+        executor.runPending();
+        assertEquals(MIN_INTERVAL_MS, scheduler.getCurrentIntervalMs());
+    }
+
+    @Test
+    void collectedObjectsReleasedDuringAnAnalysisAreNoChange() {
+        scheduler.start();
+        work = () -> {
+            changes.addAndGet(5);
+            collected.addAndGet(5);
+        };
+        executor.runPending();
+        executor.runPending();
+
+        assertEquals(400, scheduler.getCurrentIntervalMs());
+    }
+
+    @Test
+    void garbageCollectionBringsTheAnalysisForward() {
+        scheduler.start();
+        executor.runPending();
+        executor.runPending();
+        assertEquals(400, executor.pendingDelayMs());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        scheduler.onGarbageCollection();
+        assertEquals(0, executor.pendingDelayMs());
+        assertEquals(1, scheduler.getGcTriggeredCount());
+        assertEquals(1, executor.cancelledCount());
+
+        executor.runPending();
+        assertEquals(MIN_INTERVAL_MS, scheduler.getCurrentIntervalMs());
+    }
+
+    @Test
+    void garbageCollectionDuringAnAnalysisReschedulesAtItsEnd() {
+        scheduler.start();
+        work = scheduler::onGarbageCollection;
+        executor.runPending();
+
+        assertEquals(0, executor.pendingDelayMs());
+        assertEquals(1, scheduler.getGcTriggeredCount());
+    }
+
+    @Test
+    void stopCancelsThePendingAnalysis() {
+        scheduler.start();
+        executor.runPending();
+        scheduler.stop();
+        scheduler.onGarbageCollection();
+
+        assertEquals(0, executor.pendingCount());
+        assertEquals(1, executor.cancelledCount());
+        assertEquals(0, scheduler.getGcTriggeredCount());
+    }
+
+    /**
+     * Keeps scheduled tasks until the test runs them, with delays measured on the
+     * synthetic clock.
+     */
+    private static final class ManualScheduler extends ScheduledThreadPoolExecutor {
+        private final List<Task> tasks = new ArrayList<>();
+
+        ManualScheduler() {
+            super(0);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            Task task = new Task(command, unit.toNanos(delay));
+            tasks.add(task);
+            return task;
+        }
+
+        long pendingDelayMs() {
+            return TimeUnit.NANOSECONDS.toMillis(pending().delayNanos);
+        }
+
+        void runPending() {
+            Task task = pending();
+            tasks.remove(task);
+            task.command.run();
+        }
+
+        long pendingCount() {
+            return tasks.size() - cancelledCount();
+        }
+
+        long cancelledCount() {
+            return tasks.stream().filter(Task::isCancelled).count();
+        }
+
+        private Task pending() {
+            Task found = null;
+            for (Task task : tasks) {
+                if (!task.isCancelled()) {
+                    assertNull(found, "more than one analysis pending");
+                    found = task;
+                }
+            }
+            assertNotNull(found, "no analysis pending");
+            return found;
+        }
+    }
+
+    private static final class Task implements ScheduledFuture<Object> {
+        final Runnable command;
+        final long delayNanos;
+        private boolean cancelled;
+
+        Task(Runnable command, long delayNanos) {
+            this.command = command;
+            this.delayNanos = delayNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(delayNanos, other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            cancelled = true;
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() { return cancelled; }
+
+        @Override
+        public boolean isDone() { return cancelled; }
+
+        @Override
+        public Object get() { return null; }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) { return null; }
+    }
+}
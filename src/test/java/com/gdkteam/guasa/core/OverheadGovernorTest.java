@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OverheadGovernorTest {
+    private static final int BUDGET_PERCENT = 10;
+    private static final long BURST_MS = 1000;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final Map<Long, Long> cpu = new HashMap<>();
+    private final OverheadGovernor governor = new OverheadGovernor(
+        BUDGET_PERCENT, BURST_MS, clock::get, this::cpuTimes);
+
+    @Test
+    void usageWithinTheBurstIsNotThrottled() {
+        Thread thread = register(0);
+        use(thread, 100);
+
+        assertFalse(governor.isOverBudget());
+        assertEquals(0, governor.getDelayNanos());
+    }
+
+    @Test
+    void debtIsRepaidAtTheBudgetRate() {
+        Thread thread = register(0);
+        use(thread, 150);
+
+        assertTrue(governor.isOverBudget());
+        assertEquals(ms(500), governor.getDelayNanos());
+
+        advance(250);
+        assertEquals(ms(250), governor.getDelayNanos());
+        advance(250);
+        assertFalse(governor.isOverBudget());
+    }
+
+    @Test
+    void idleTimeEarnsAtMostOneBurst() {
+        Thread thread = register(0);
+        advance(TimeUnit.HOURS.toMillis(1));
+        use(thread, 150);
+
+        assertEquals(ms(500), governor.getDelayNanos());
+    }
+
+    @Test
+    void cpuTimeBeforeRegistrationIsNotCharged() {
+        Thread thread = register(5000);
+        use(thread, 50);
+
+        assertEquals(ms(50), governor.getCpuNanos());
+        assertFalse(governor.isOverBudget());
+    }
+
+    @Test
+    void everyRegisteredThreadIsCharged() {
+        Thread first = register(0);
+        Thread second = register(0);
+        use(first, 80);
+        use(second, 80);
+
+        assertEquals(ms(160), governor.getCpuNanos());
+        assertEquals(ms(600), governor.getDelayNanos());
+    }
+
+    @Test
+    void terminatedThreadsAreDropped() {
+        Thread thread = register(0);
+        use(thread, 40);
+        assertEquals(ms(40), governor.getCpuNanos());
+
+        cpu.remove(thread.getId());
+        assertEquals(ms(40), governor.getCpuNanos());
+        cpu.put(thread.getId(), ms(1000));
+        assertEquals(ms(40), governor.getCpuNanos());
+    }
+
+    @Test
+    void awaitBudgetReturnsAtOnceWithinBudget() {
+        register(0);
+        governor.awaitBudget();
+
+        assertEquals(0, governor.getThrottledNanos());
+    }
+
+    @Test
+    void budgetMustBeAPercentage() {
+        assertThrows(IllegalArgumentException.class, () -> new OverheadGovernor(0, BURST_MS));
+        assertThrows(IllegalArgumentException.class, () -> new OverheadGovernor(101, BURST_MS));
+    }
+
+    private Thread register(long cpuMillis) {
+        Thread thread = new Thread(() -> { });
+        cpu.put(thread.getId(), ms(cpuMillis));
+        governor.register(thread);
+        return thread;
+    }
+
+    private void use(Thread thread, long cpuMillis) {
+        cpu.merge(thread.getId(), ms(cpuMillis), Long::sum);
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(ms(millis));
+    }
+
+    private long[] cpuTimes(long[] threadIds) {
+        long[] times = new long[threadIds.length];
+        for (int i = 0; i < threadIds.length; i++) {
+            times[i] = cpu.getOrDefault(threadIds[i], -1L);
+        }
+        return times;
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.instrumentation;
+
+import com.gdkteam.guasa.agent.AgentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassTransformerTest {
+    private final ClassTransformer transformer = new ClassTransformer(new AgentConfiguration());
+    private final TestLoader loader = new TestLoader();
+
+    @Test
+    void oldClassFilesResolveTheirClassOnce() throws Exception {
+        Class<?> base = load("legacy/Base", "java/lang/Object", Opcodes.V1_4);
+        Class<?> derived = load("legacy/Derived", "legacy/Base", Opcodes.V1_4);
+
+        derived.getDeclaredConstructor().newInstance();
+        assertSame(base, classField(base).get(null));
+        assertSame(derived, classField(derived).get(null));
+
+        base.getDeclaredConstructor().newInstance();
+        assertSame(base, classField(base).get(null));
+    }
+
+    @Test
+    void newClassFilesUseClassLiterals() throws Exception {
+        Class<?> modern = load("modern/Point", "java/lang/Object", Opcodes.V1_8);
+
+        assertNotNull(modern.getDeclaredConstructor().newInstance());
+        assertThrows(NoSuchFieldException.class, () -> modern.getDeclaredField(ClassTransformer.CLASS_FIELD));
+        assertTrue(callsHook(transformer.transform(loader, "modern/Other", null, null,
+            generate("modern/Other", "java/lang/Object", Opcodes.V1_8))));
+    }
+
+    @Test
+    void redefinedOldClassesWithoutTheFieldAreLeftAlone() throws Exception {
+        Class<?> plain = loader.define("legacy.Plain", generate("legacy/Plain", "java/lang/Object", Opcodes.V1_4));
+
+        byte[] redefined = transformer.transform(loader, "legacy/Plain", plain, null,
+            generate("legacy/Plain", "java/lang/Object", Opcodes.V1_4));
+        assertFalse(callsHook(redefined));
+    }
+
+    private Class<?> load(String internalName, String superName, int version) {
+        byte[] transformed = transformer.transform(loader, internalName, null, null,
+            generate(internalName, superName, version));
+        assertNotNull(transformed);
+        return loader.define(internalName.replace('/', '.'), transformed);
+    }
+
+    private static Field classField(Class<?> type) throws NoSuchFieldException {
+        Field field = type.getDeclaredField(ClassTransformer.CLASS_FIELD);
+        field.setAccessible(true);
+        return field;
+    }
+
+    private static boolean callsHook(byte[] classFile) {
+        return new String(classFile, StandardCharsets.ISO_8859_1).contains("recordAllocation");
+    }
+
+    /**
+     * Generates a public class with a public no-argument constructor.
+     */
+    private static byte[] generate(String internalName, String superName, int version) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(version, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, internalName, null, superName, null);
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static final class TestLoader extends ClassLoader {
+        TestLoader() {
+            super(ClassTransformerTest.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] classFile) {
+            return defineClass(name, classFile, 0, classFile.length);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgeCohortsTest {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int MAX_VALUE_BITS = 40;
+
+    @Test
+    void snapshotReportsAgesAtTheGivenTime() {
+        AgeCohorts cohorts = newCohorts();
+        cohorts.add(0, 1000);
+        cohorts.add(0, 1000);
+        cohorts.add(0, 1000);
+        cohorts.seal(1000);
+
+        LogHistogram.Snapshot ages = cohorts.snapshot(0, 11_000);
+        assertEquals(3, ages.getTotalCount());
+        assertWithinPrecision(10_000, ages.getValueAtPercentile(50));
+    }
+
+    @Test
+    void removeTakesObjectsOutOfTheirCohort() {
+        AgeCohorts cohorts = newCohorts();
+        cohorts.add(0, 1000);
+        cohorts.add(0, 1000);
+        cohorts.seal(1000);
+        cohorts.add(0, 2000);
+
+        cohorts.remove(0, 1000);
+        assertEquals(2, cohorts.snapshot(0, 3000).getTotalCount());
+        cohorts.remove(0, 2000);
+        assertEquals(1, cohorts.snapshot(0, 3000).getTotalCount());
+        assertWithinPrecision(2000, cohorts.snapshot(0, 3000).getValueAtPercentile(100));
+    }
+
+    @Test
+    void removeNeverMakesCountsNegative() {
+        AgeCohorts cohorts = newCohorts();
+        cohorts.add(0, 1000);
+        cohorts.seal(1000);
+
+        cohorts.remove(0, 1000);
+        cohorts.remove(0, 1000);
+        cohorts.add(0, 1000);
+        assertEquals(1, cohorts.snapshot(0, 2000).getTotalCount());
+    }
+
+    @Test
+    void unknownClassesAreEmpty() {
+        AgeCohorts cohorts = newCohorts();
+        cohorts.remove(3, 1000);
+
+        assertTrue(cohorts.snapshot(3, 2000).isEmpty());
+        assertTrue(cohorts.snapshot(1_000_000, 2000).isEmpty());
+    }
+
+    @Test
+    void compactionKeepsCountsAndRemovals() {
+        AgeCohorts cohorts = newCohorts();
+        for (long t = 0; t < 1000; t++) {
+            cohorts.add(0, t * 10);
+            cohorts.seal(t * 10);
+        }
+        long now = 10_000_000;
+        cohorts.seal(now);
+
+        LogHistogram.Snapshot ages = cohorts.snapshot(0, now);
+        assertEquals(1000, ages.getTotalCount());
+        assertWithinPrecision(now - 5000, ages.getValueAtPercentile(50));
+
+        for (long t = 0; t < 500; t++) {
+            cohorts.remove(0, t * 10);
+        }
+        cohorts.seal(now);
+        assertEquals(500, cohorts.snapshot(0, now).getTotalCount());
+    }
+
+    @Test
+    void compactionDropsEmptyCohorts() {
+        AgeCohorts cohorts = newCohorts();
+        cohorts.add(0, 1000);
+        cohorts.seal(1000);
+        cohorts.remove(0, 1000);
+        cohorts.seal(2000);
+
+        assertTrue(cohorts.snapshot(0, 3000).isEmpty());
+        cohorts.add(0, 500);
+        assertEquals(1, cohorts.snapshot(0, 3000).getTotalCount());
+    }
+
+    @Test
+    void resetRebuildsCohortsFromAnAgeHistogram() {
+        long now = 1_000_000;
+        LogHistogram histogram = new LogHistogram(SUB_BUCKET_BITS, MAX_VALUE_BITS);
+        for (long age = 1; age <= 1000; age++) {
+            histogram.record(age * 100);
+        }
+        AgeCohorts cohorts = newCohorts();
+        cohorts.add(0, 42);
+        cohorts.reset(0, histogram.snapshot(), now);
+
+        LogHistogram.Snapshot ages = cohorts.snapshot(0, now);
+        assertEquals(1000, ages.getTotalCount());
+        assertWithinPrecision(50_000, ages.getValueAtPercentile(50));
+
+        cohorts.remove(0, now - 100_000);
+        cohorts.add(0, now);
+        assertEquals(1000, cohorts.snapshot(0, now).getTotalCount());
+    }
+
+    @Test
+    void clearForgetsEveryClass() {
+        AgeCohorts cohorts = newCohorts();
+        cohorts.add(0, 1000);
+        cohorts.add(1, 1000);
+        cohorts.clear();
+
+        assertTrue(cohorts.snapshot(0, 2000).isEmpty());
+        assertTrue(cohorts.snapshot(1, 2000).isEmpty());
+    }
+
+    private static AgeCohorts newCohorts() {
+        return new AgeCohorts(SUB_BUCKET_BITS, MAX_VALUE_BITS);
+    }
+
+    /**
+     * Cohort ranges and histogram buckets each add up to 2^-SUB_BUCKET_BITS of error.
+     */
+    private static void assertWithinPrecision(long expected, long actual) {
+        long tolerance = Math.max(1, (expected >> SUB_BUCKET_BITS) * 2);
+        assertTrue(Math.abs(expected - actual) <= tolerance, "expected about " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AllocationBuffersTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(8, new AllocationBuffers(5, new AtomicLong(1)).getCapacity());
+        assertEquals(16, new AllocationBuffers(16, new AtomicLong(1)).getCapacity());
+    }
+
+    @Test
+    void idsComeFromAThreadLocalBlock() throws Exception {
+        AtomicLong idGenerator = new AtomicLong(1);
+        AllocationBuffers buffers = new AllocationBuffers(4096, idGenerator);
+        List<Object> objects = new ArrayList<>();
+
+        long first = offer(buffers, objects);
+        for (int i = 1; i < 1000; i++) {
+            assertEquals(first + i, offer(buffers, objects));
+        }
+        long reserved = idGenerator.get();
+        assertTrue(reserved > first + 999);
+
+        long[] other = new long[1];
+        Thread thread = new Thread(() -> other[0] = offer(buffers, new ArrayList<>()));
+        thread.start();
+        thread.join();
+        assertEquals(reserved, other[0]);
+        assertTrue(idGenerator.get() > reserved);
+    }
+
+    @Test
+    void fullBufferRejectsOffers() {
+        AllocationBuffers buffers = new AllocationBuffers(4, new AtomicLong(1));
+        List<Object> objects = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(offer(buffers, objects) != AllocationBuffers.NO_ID);
+        }
+
+        assertEquals(AllocationBuffers.NO_ID, offer(buffers, objects));
+        assertEquals(4, buffers.getPendingCount());
+    }
+
+    @Test
+    void drainHandsOverEntriesInOrderAcrossTheWrap() {
+        AllocationBuffers buffers = new AllocationBuffers(4, new AtomicLong(1));
+        List<Object> objects = new ArrayList<>();
+        List<Long> offered = new ArrayList<>();
+        List<Long> drained = new ArrayList<>();
+
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                offered.add(offer(buffers, objects));
+            }
+            assertEquals(3, buffers.drain((obj, id, weight, siteId) -> {
+                assertSame(objects.get(drained.size()), obj);
+                assertEquals(2.0, weight, 0.0);
+                assertEquals(7, siteId);
+                drained.add(id);
+            }));
+            assertEquals(0, buffers.getPendingCount());
+        }
+        assertEquals(offered, drained);
+    }
+
+    @Test
+    void clearDiscardsPendingEntriesAndTheIdBlock() {
+        AtomicLong idGenerator = new AtomicLong(1);
+        AllocationBuffers buffers = new AllocationBuffers(16, idGenerator);
+        List<Object> objects = new ArrayList<>();
+        offer(buffers, objects);
+        offer(buffers, objects);
+        long reserved = idGenerator.get();
+
+        buffers.clear();
+        assertEquals(0, buffers.getPendingCount());
+        assertEquals(reserved, offer(buffers, objects));
+        assertEquals(1, buffers.drain((obj, id, weight, siteId) -> assertEquals(reserved, id)));
+    }
+
+    private static long offer(AllocationBuffers buffers, List<Object> objects) {
+        Object obj = new Object();
+        objects.add(obj);
+        return buffers.offer(obj, 2.0f, 7);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AllocationSamplerTest {
+
+    @Test
+    void fullRateSamplesEveryAllocation() {
+        AllocationSampler sampler = new AllocationSampler(100);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(sampler.shouldSample());
+        }
+        assertTrue(sampler.isSamplingAll());
+        assertEquals(1.0, sampler.getSampleWeight(), 0.0);
+    }
+
+    @Test
+    void rateIsClampedToOneThroughHundred() {
+        assertEquals(1, new AllocationSampler(0).getSamplingRate());
+        assertEquals(100, new AllocationSampler(250).getSamplingRate());
+    }
+
+    @Test
+    void sampleWeightIsTheInverseOfTheRate() {
+        assertEquals(10.0, new AllocationSampler(10).getSampleWeight(), 1e-6);
+        assertEquals(4.0, new AllocationSampler(25).getSampleWeight(), 1e-6);
+    }
+
+    @Test
+    void meanIntervalMatchesTheRate() {
+        for (int rate : new int[] {1, 10, 50}) {
+            AllocationSampler sampler = new AllocationSampler(rate);
+            int allocations = 2_000_000;
+            int samples = 0;
+            for (int i = 0; i < allocations; i++) {
+                if (sampler.shouldSample()) {
+                    samples++;
+                }
+            }
+
+            // The mean interval is 100 / rate; allow 5 standard errors of the sample count
+            double expected = allocations * rate / 100.0;
+            double stddev = Math.sqrt(expected * (1 - rate / 100.0));
+            assertTrue(Math.abs(samples - expected) < 5 * stddev,
+                "rate " + rate + ": expected about " + expected + " samples but was " + samples);
+        }
+    }
+
+    @Test
+    void intervalsAreGeometric() {
+        AllocationSampler sampler = new AllocationSampler(50);
+        int[] lengths = new int[4];
+        int run = 0;
+        int samples = 0;
+        while (samples < 100_000) {
+            run++;
+            if (sampler.shouldSample()) {
+                if (samples > 0) {
+                    lengths[Math.min(run, lengths.length) - 1]++;
+                }
+                samples++;
+                run = 0;
+            }
+        }
+
+        // With p = 0.5, half the intervals have length 1, a quarter length 2, and so on
+        double total = samples - 1;
+        assertEquals(0.5, lengths[0] / total, 0.01);
+        assertEquals(0.25, lengths[1] / total, 0.01);
+        assertEquals(0.125, lengths[2] / total, 0.01);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassCountersTest {
+
+    @Test
+    void countsAndBytesFollowAddsAndRemoves() {
+        ClassCounters counters = new ClassCounters();
+        counters.add(3, 16, 1.0f);
+        counters.add(3, 24, 1.0f);
+        counters.add(40, 100, 1.0f);
+        counters.remove(3, 16, 1.0f);
+
+        assertEquals(1, counters.getLiveCount(3));
+        assertEquals(24, counters.getLiveBytes(3));
+        assertEquals(1, counters.getLiveCount(40));
+        assertEquals(2, counters.getTotalLiveCount());
+        assertEquals(124, counters.getTotalLiveBytes());
+        assertTrue(counters.size() > 40);
+    }
+
+    @Test
+    void estimatesAreWeightedBySampleWeight() {
+        ClassCounters counters = new ClassCounters();
+        counters.add(0, 16, 10.0f);
+        counters.add(0, 32, 10.0f);
+        counters.remove(0, 16, 10.0f);
+
+        assertEquals(1, counters.getLiveCount(0));
+        assertEquals(10.0, counters.getEstimatedLiveCount(0), 1e-9);
+        assertEquals(320.0, counters.getEstimatedLiveBytes(0), 1e-9);
+    }
+
+    @Test
+    void unknownIdsAreZero() {
+        ClassCounters counters = new ClassCounters();
+
+        assertEquals(0, counters.getLiveCount(5));
+        assertEquals(0, counters.getLiveBytes(5));
+        assertEquals(0.0, counters.getEstimatedLiveCount(5), 0.0);
+        assertEquals(0, counters.size());
+    }
+
+    @Test
+    void clearDropsEveryCounter() {
+        ClassCounters counters = new ClassCounters();
+        counters.add(2, 16, 1.0f);
+        counters.clear();
+
+        assertEquals(0, counters.getLiveCount(2));
+        assertEquals(0, counters.getTotalLiveBytes());
+    }
+
+    @Test
+    void concurrentUpdatesAreNotLost() throws Exception {
+        ClassCounters counters = new ClassCounters();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        counters.add(i % 100, 8, 1.0f);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+
+            assertEquals(threads * 10_000L, counters.getTotalLiveCount());
+            assertEquals(threads * 100L, counters.getLiveCount(99));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
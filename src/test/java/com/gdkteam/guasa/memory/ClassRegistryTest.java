@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassRegistryTest {
+
+    @Test
+    void classesKeepTheirId() {
+        int id = ClassRegistry.getId(Sample.class);
+
+        assertEquals(id, ClassRegistry.getId(Sample.class));
+        assertTrue(id != ClassRegistry.getId(Other.class));
+        assertTrue(id < ClassRegistry.size());
+    }
+
+    @Test
+    void namesAreLookedUpById() {
+        int id = ClassRegistry.getId(Sample.class);
+
+        assertEquals(Sample.class.getName(), ClassRegistry.getName(id));
+        assertEquals("ClassRegistryTest$Sample", ClassRegistry.getSimpleName(id));
+        assertNull(ClassRegistry.getName(ClassRegistry.NO_CLASS));
+        assertNull(ClassRegistry.getName(ClassRegistry.size() + 1000));
+        assertNull(ClassRegistry.getSimpleName(ClassRegistry.NO_CLASS));
+    }
+
+    @Test
+    void classesFromDifferentLoadersGetDistinctIds() throws Exception {
+        URL location = Sample.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {location}, null)) {
+            Class<?> copy = loader.loadClass(Sample.class.getName());
+            assertTrue(copy != Sample.class);
+
+            int id = ClassRegistry.getId(copy);
+            assertTrue(id != ClassRegistry.getId(Sample.class));
+            assertEquals(Sample.class.getName(), ClassRegistry.getName(id));
+        }
+    }
+
+    @Test
+    void growthKeepsEarlierNames() {
+        int first = ClassRegistry.getId(Sample.class);
+        for (int i = 0; i < 300; i++) {
+            ClassRegistry.getId(java.lang.reflect.Array.newInstance(Sample.class, new int[i % 200 + 1]).getClass());
+        }
+
+        assertEquals(Sample.class.getName(), ClassRegistry.getName(first));
+    }
+
+    static final class Sample {
+    }
+
+    static final class Other {
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DominatorTreeTest {
+    private static final long SIZE = 10;
+
+    @Test
+    void emptyGraph() {
+        DominatorTree tree = DominatorTree.empty();
+
+        assertEquals(0, tree.getNodeCount());
+        assertEquals(0, tree.getTopDominators(5).length);
+        assertEquals(-1, tree.getRetainedSizeById(42));
+    }
+
+    @Test
+    void chainIsDominatedStepByStep() {
+        DominatorTree tree = build(3, new int[][] {{0, 1}, {1, 2}});
+
+        assertEquals(DominatorTree.ROOT, tree.getImmediateDominator(0));
+        assertEquals(0, tree.getImmediateDominator(1));
+        assertEquals(1, tree.getImmediateDominator(2));
+        assertEquals(3 * SIZE, tree.getRetainedSize(0));
+        assertEquals(2 * SIZE, tree.getRetainedSize(1));
+        assertEquals(SIZE, tree.getRetainedSize(2));
+    }
+
+    @Test
+    void diamondJoinIsDominatedByTheFork() {
+        DominatorTree tree = build(4, new int[][] {{0, 1}, {0, 2}, {1, 3}, {2, 3}});
+
+        assertEquals(0, tree.getImmediateDominator(1));
+        assertEquals(0, tree.getImmediateDominator(2));
+        assertEquals(0, tree.getImmediateDominator(3));
+        assertEquals(SIZE, tree.getRetainedSize(1));
+        assertEquals(4 * SIZE, tree.getRetainedSize(0));
+    }
+
+    @Test
+    void objectsWithSeveralRootsAreDominatedByTheVirtualRoot() {
+        DominatorTree tree = build(3, new int[][] {{0, 2}, {1, 2}});
+
+        assertEquals(DominatorTree.ROOT, tree.getImmediateDominator(0));
+        assertEquals(DominatorTree.ROOT, tree.getImmediateDominator(1));
+        assertEquals(DominatorTree.ROOT, tree.getImmediateDominator(2));
+        assertEquals(SIZE, tree.getRetainedSize(0));
+    }
+
+    @Test
+    void cycleBelowARootIsEnteredThroughItsFirstNode() {
+        DominatorTree tree = build(3, new int[][] {{0, 1}, {1, 2}, {2, 1}});
+
+        assertEquals(0, tree.getImmediateDominator(1));
+        assertEquals(1, tree.getImmediateDominator(2));
+        assertEquals(3 * SIZE, tree.getRetainedSize(0));
+    }
+
+    @Test
+    void unreachableCycleGetsOneRootEdge() {
+        DominatorTree tree = build(3, new int[][] {{0, 1}, {1, 2}, {2, 0}});
+
+        assertEquals(DominatorTree.ROOT, tree.getImmediateDominator(0));
+        assertEquals(0, tree.getImmediateDominator(1));
+        assertEquals(1, tree.getImmediateDominator(2));
+        assertEquals(3 * SIZE, tree.getRetainedSize(0));
+    }
+
+    @Test
+    void unreachableCycleReferencedByAnotherIsNotRooted() {
+        // Cycle {0, 1} is referenced only by cycle {2, 3}, which comes later in slot order
+        DominatorTree tree = build(4, new int[][] {{0, 1}, {1, 0}, {2, 3}, {3, 2}, {3, 0}});
+
+        assertEquals(DominatorTree.ROOT, tree.getImmediateDominator(2));
+        assertEquals(2, tree.getImmediateDominator(3));
+        assertEquals(3, tree.getImmediateDominator(0));
+        assertEquals(0, tree.getImmediateDominator(1));
+        assertEquals(4 * SIZE, tree.getRetainedSize(2));
+        assertEquals(2 * SIZE, tree.getRetainedSize(0));
+    }
+
+    @Test
+    void selfLoopIsASourceComponent() {
+        DominatorTree tree = build(2, new int[][] {{0, 0}, {0, 1}});
+
+        assertEquals(DominatorTree.ROOT, tree.getImmediateDominator(0));
+        assertEquals(0, tree.getImmediateDominator(1));
+        assertEquals(2 * SIZE, tree.getRetainedSize(0));
+    }
+
+    @Test
+    void classRetainedSizeCountsOutermostObjectsOfTheClass() {
+        // 0 (class 1) -> 1 (class 1) -> 2 (class 2); 3 (class 2) is separate
+        int[] classIds = {1, 1, 2, 2};
+        DominatorTree tree = build(classIds, new int[][] {{0, 1}, {1, 2}});
+
+        assertEquals(3 * SIZE, tree.getClassRetainedSize(1));
+        assertEquals(2 * SIZE, tree.getClassRetainedSize(2));
+        assertEquals(0, tree.getClassRetainedSize(7));
+    }
+
+    @Test
+    void lookupsByObjectId() {
+        DominatorTree tree = build(3, new int[][] {{0, 1}, {1, 2}});
+
+        assertEquals(1, tree.indexOf(101));
+        assertEquals(2 * SIZE, tree.getRetainedSizeById(101));
+        assertEquals(-1, tree.getRetainedSizeById(999));
+    }
+
+    @Test
+    void topDominatorsAreSortedByRetainedSize() {
+        DominatorTree tree = build(5, new int[][] {{0, 1}, {1, 2}, {1, 3}});
+
+        assertArrayEquals(new int[] {0, 1}, tree.getTopDominators(2));
+        assertEquals(5, tree.getTopDominators(10).length);
+    }
+
+    @Test
+    void checkpointRunsOnLargeGraphsWithoutChangingTheResult() {
+        int n = 100_000;
+        int[][] edges = new int[n - 1][];
+        for (int i = 0; i < n - 1; i++) {
+            edges[i] = new int[] {i, i + 1};
+        }
+        int[] checkpoints = new int[1];
+        DominatorTree tree = build(new int[n], edges, () -> checkpoints[0]++);
+
+        assertTrue(checkpoints[0] > 0);
+        assertEquals(n * SIZE, tree.getRetainedSize(0));
+        assertEquals(n - 2, tree.getImmediateDominator(n - 1));
+    }
+
+    private static DominatorTree build(int nodeCount, int[][] edges) {
+        return build(new int[nodeCount], edges);
+    }
+
+    private static DominatorTree build(int[] classIds, int[][] edges) {
+        return build(classIds, edges, null);
+    }
+
+    /**
+     * Builds a tree over nodes with IDs 100, 101, ... and shallow size {@link #SIZE}
+     * from a list of {source, target} edges.
+     */
+    private static DominatorTree build(int[] classIds, int[][] edges, Runnable checkpoint) {
+        int n = classIds.length;
+        long[] ids = new long[n];
+        long[] sizes = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = 100 + i;
+            sizes[i] = SIZE;
+        }
+
+        int[] edgeStart = new int[n + 1];
+        for (int[] edge : edges) {
+            edgeStart[edge[0] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            edgeStart[i + 1] += edgeStart[i];
+        }
+        int[] edgeTargets = new int[edges.length];
+        int[] fill = edgeStart.clone();
+        for (int[] edge : edges) {
+            edgeTargets[fill[edge[0]]++] = edge[1];
+        }
+        return DominatorTree.compute(ids, classIds, sizes, edgeStart, edgeTargets, checkpoint);
+    }
+}
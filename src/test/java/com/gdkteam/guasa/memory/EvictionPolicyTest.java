@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvictionPolicyTest {
+    private final TrackedObjectStore store = new TrackedObjectStore(false, 2);
+    private final IdentityObjectRegistry registry = new IdentityObjectRegistry(1);
+    private final List<Object> objects = new ArrayList<>();
+
+    @Test
+    void typesAreFoundByConfigName() {
+        assertSame(EvictionPolicy.Type.LRU, EvictionPolicy.Type.fromConfigName("lru"));
+        assertSame(EvictionPolicy.Type.RESERVOIR_PER_CLASS, EvictionPolicy.Type.fromConfigName("reservoir"));
+        assertSame(EvictionPolicy.Type.EVICT_OLDEST, EvictionPolicy.Type.fromConfigName("EVICT_OLDEST"));
+        assertThrows(IllegalArgumentException.class, () -> EvictionPolicy.Type.fromConfigName("fifo"));
+    }
+
+    @Test
+    void rejectNewNeverEvicts() {
+        EvictionPolicy policy = EvictionPolicy.create(EvictionPolicy.Type.REJECT_NEW, store);
+        track(policy, 1, 1000);
+
+        assertEquals(EvictionPolicy.REJECT, policy.selectVictim(1));
+    }
+
+    @Test
+    void evictOldestFollowsInsertionOrder() {
+        EvictionPolicy policy = EvictionPolicy.create(EvictionPolicy.Type.EVICT_OLDEST, store);
+        assertEquals(EvictionPolicy.REJECT, policy.selectVictim(1));
+        int first = track(policy, 1, 1000);
+        int second = track(policy, 2, 1000);
+        int third = track(policy, 1, 1000);
+
+        assertEquals(first, policy.selectVictim(2));
+        policy.onUntracked(first);
+        assertEquals(second, policy.selectVictim(2));
+        policy.onUntracked(third);
+        policy.onUntracked(second);
+        assertEquals(EvictionPolicy.REJECT, policy.selectVictim(2));
+    }
+
+    @Test
+    void lruGivesAccessedObjectsASecondChance() {
+        EvictionPolicy policy = EvictionPolicy.create(EvictionPolicy.Type.LRU, store);
+        int first = track(policy, 1, 1000);
+        int second = track(policy, 1, 1000);
+        int third = track(policy, 1, 1000);
+        store.recordAccess(first, store.getRef(first), 2000);
+
+        assertEquals(second, policy.selectVictim(1));
+        policy.onUntracked(second);
+        assertEquals(third, policy.selectVictim(1));
+        policy.onUntracked(third);
+        assertEquals(first, policy.selectVictim(1));
+    }
+
+    @Test
+    void clearForgetsEveryObject() {
+        for (EvictionPolicy.Type type : EvictionPolicy.Type.values()) {
+            EvictionPolicy policy = EvictionPolicy.create(type, store);
+            track(policy, 1, 1000);
+            policy.clear();
+
+            assertEquals(EvictionPolicy.REJECT, policy.selectVictim(1));
+            assertEquals(EvictionPolicy.REJECT, policy.selectVictim(2));
+        }
+    }
+
+    @Test
+    void reservoirOnlyReturnsTrackedMembers() {
+        EvictionPolicy policy = EvictionPolicy.create(EvictionPolicy.Type.RESERVOIR_PER_CLASS, store);
+        assertEquals(EvictionPolicy.REJECT, policy.selectVictim(1));
+        List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            slots.add(track(policy, i % 2 == 0 ? 1 : 2, 1000));
+        }
+        // Untrack from the middle and the ends, so removals swap the last member around
+        Set<Integer> remaining = new HashSet<>(slots);
+        for (int i = 0; i < slots.size(); i += 3) {
+            policy.onUntracked(slots.get(i));
+            policy.onUntracked(slots.get(i));
+            remaining.remove(slots.get(i));
+        }
+
+        Set<Integer> victims = new HashSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            int victim = policy.selectVictim(3);
+            assertTrue(remaining.contains(victim));
+            victims.add(victim);
+
+            int classVictim = policy.selectVictim(1);
+            if (classVictim != EvictionPolicy.REJECT) {
+                assertTrue(remaining.contains(classVictim));
+                assertEquals(1, store.getClassId(classVictim));
+            }
+        }
+        assertEquals(remaining, victims);
+    }
+
+    @Test
+    void reservoirReplacesMembersWithDecreasingProbability() {
+        EvictionPolicy policy = EvictionPolicy.create(EvictionPolicy.Type.RESERVOIR_PER_CLASS, store);
+        int k = 10;
+        for (int i = 0; i < k; i++) {
+            track(policy, 1, 1000);
+        }
+
+        int candidates = 10_000;
+        int replaced = 0;
+        for (int i = 0; i < candidates; i++) {
+            int victim = policy.selectVictim(1);
+            if (victim != EvictionPolicy.REJECT) {
+                policy.onUntracked(victim);
+                store.free(victim);
+                track(policy, 1, 1000);
+                replaced++;
+            }
+        }
+
+        // Algorithm R keeps the n-th candidate with probability k/n: about k ln((N + k) / k) = 69
+        assertTrue(replaced > 40 && replaced < 100, "replaced " + replaced);
+    }
+
+    private int track(EvictionPolicy policy, int classId, long timestamp) {
+        Object obj = new Object();
+        objects.add(obj);
+        int slot = store.reserve(TrackedObjectStore.NO_ID, classId, System.identityHashCode(obj), 16,
+            1.0f, StackTable.EMPTY_STACK, timestamp, store.getGeneration());
+        store.commit(slot, registry.register(obj, slot));
+        policy.onTracked(slot);
+        return slot;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import com.gdkteam.guasa.event.EventBus;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeapAnalyzerTest {
+
+    @Test
+    void ageRebuildDoesNotLoseObjectsCollectedBeforeTheScan() throws Exception {
+        ObjectTracker tracker = new ObjectTracker(new EventBus());
+        tracker.start();
+        tracker.setChangeLogCapacity(300);
+        HeapAnalyzer analyzer = new HeapAnalyzer(tracker, new EventBus());
+        analyzer.start();
+
+        Object[] kept = new Object[100];
+        for (int i = 0; i < kept.length; i++) {
+            kept[i] = new Object();
+            tracker.trackObject(kept[i]);
+        }
+        WeakReference<Object> collected = trackGarbage(tracker, 300);
+        awaitCollection(collected);
+
+        // A new log reports an overflow, so this rebuilds the cohorts from a scan
+        analyzer.updateAgeCohorts(System.currentTimeMillis());
+        analyzer.analyze();
+
+        HeapAnalyzer.HeapSnapshot snapshot = analyzer.getLastSnapshot();
+        assertEquals(kept.length, snapshot.getTrackedObjectCount());
+        assertEquals(kept.length, totalAgeCount(snapshot));
+        assertNotNull(kept);
+    }
+
+    private static WeakReference<Object> trackGarbage(ObjectTracker tracker, int count) {
+        Object last = null;
+        for (int i = 0; i < count; i++) {
+            last = new Object();
+            tracker.trackObject(last);
+        }
+        return new WeakReference<>(last);
+    }
+
+    private static void awaitCollection(WeakReference<Object> ref) throws InterruptedException {
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(ref.get());
+        // Give the reference handler time to enqueue the tracker's references
+        Thread.sleep(100);
+    }
+
+    private static long totalAgeCount(HeapAnalyzer.HeapSnapshot snapshot) {
+        long total = 0;
+        for (int i = 0; i < snapshot.getClassCount(); i++) {
+            LogHistogram.Snapshot ages = snapshot.getAgeHistogram(i);
+            if (ages != null) {
+                total += ages.getTotalCount();
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import com.gdkteam.guasa.event.EventBus;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeapTimeSeriesTest {
+    private static final int TOP_CLASSES = 2;
+    // 8-byte start, 4-byte sample count, min/max/sum of 4 metrics, and 16 bytes per top class
+    private static final long BUCKET_BYTES = 8 + 4 + 3 * 4 * 8 + TOP_CLASSES * 16;
+    private static final int CAPACITY = 4;
+
+    private final HeapTimeSeries series = new HeapTimeSeries(new EventBus(), 3 * CAPACITY * BUCKET_BYTES, TOP_CLASSES);
+
+    @Test
+    void budgetDeterminesTheRetention() {
+        assertEquals(CAPACITY * 1000L, series.getRetentionMillis(1000));
+        assertEquals(CAPACITY * 60_000L, series.getRetentionMillis(60_000));
+        assertArrayEquals(new long[] {1000, 10_000, 60_000}, series.getResolutions());
+        assertThrows(IllegalArgumentException.class, () -> series.getRetentionMillis(5000));
+    }
+
+    @Test
+    void budgetAndTopClassesAreValidated() {
+        assertThrows(IllegalArgumentException.class, () -> new HeapTimeSeries(new EventBus(), 3 * BUCKET_BYTES, TOP_CLASSES));
+        assertThrows(IllegalArgumentException.class, () -> new HeapTimeSeries(new EventBus(), 1 << 20, -1));
+    }
+
+    @Test
+    void snapshotsInOneBucketAreAggregated() {
+        series.record(Snapshots.of(1000, 100, new int[0], new int[0], new long[0]));
+        series.record(Snapshots.of(1500, 300, new int[0], new int[0], new long[0]));
+
+        HeapTimeSeries.Series points = series.query(0, 2000, 1000);
+        assertEquals(1, points.getPointCount());
+        assertEquals(1000, points.getTimestamp(0));
+        assertEquals(2, points.getSampleCount(0));
+        assertEquals(100, points.getMin(0, HeapTimeSeries.Metric.HEAP_USED));
+        assertEquals(300, points.getMax(0, HeapTimeSeries.Metric.HEAP_USED));
+        assertEquals(200.0, points.getAverage(0, HeapTimeSeries.Metric.HEAP_USED), 1e-9);
+        assertEquals(600, points.getMax(0, HeapTimeSeries.Metric.HEAP_COMMITTED));
+    }
+
+    @Test
+    void fullTiersOverwriteTheOldestBucket() {
+        for (int second = 0; second < 10; second++) {
+            series.record(Snapshots.of(second * 1000L, second, new int[0], new int[0], new long[0]));
+        }
+
+        HeapTimeSeries.Series fine = series.query(0, 10_000, 1000);
+        assertEquals(CAPACITY, fine.getPointCount());
+        for (int point = 0; point < CAPACITY; point++) {
+            assertEquals((6 + point) * 1000L, fine.getTimestamp(point));
+            assertEquals(6 + point, fine.getMin(point, HeapTimeSeries.Metric.HEAP_USED));
+        }
+
+        HeapTimeSeries.Series coarse = series.query(0, 10_000, 10_000);
+        assertEquals(1, coarse.getPointCount());
+        assertEquals(10, coarse.getSampleCount(0));
+        assertEquals(0, coarse.getMin(0, HeapTimeSeries.Metric.HEAP_USED));
+        assertEquals(9, coarse.getMax(0, HeapTimeSeries.Metric.HEAP_USED));
+    }
+
+    @Test
+    void queryFallsBackToACoarserTier() {
+        for (int second = 0; second < 10; second++) {
+            series.record(Snapshots.of(second * 1000L, second, new int[0], new int[0], new long[0]));
+        }
+
+        assertEquals(1000, series.query(7000, 9000).getResolutionMillis());
+        assertEquals(10_000, series.query(0, 9000).getResolutionMillis());
+        assertEquals(2, series.query(7000, 8500).getPointCount());
+    }
+
+    @Test
+    void lateSnapshotsGoIntoTheNewestBucket() {
+        series.record(Snapshots.of(5000, 10, new int[0], new int[0], new long[0]));
+        series.record(Snapshots.of(2000, 20, new int[0], new int[0], new long[0]));
+
+        HeapTimeSeries.Series points = series.query(0, 10_000, 1000);
+        assertEquals(1, points.getPointCount());
+        assertEquals(5000, points.getTimestamp(0));
+        assertEquals(20, points.getMax(0, HeapTimeSeries.Metric.HEAP_USED));
+    }
+
+    @Test
+    void bucketsKeepTheLargestClasses() {
+        series.record(Snapshots.of(1000, 0, new int[] {1, 2, 3}, new int[] {1, 2, 3}, new long[] {10, 30, 20}));
+        series.record(Snapshots.of(1200, 0, new int[] {1, 2, 3}, new int[] {4, 2, 3}, new long[] {50, 30, 20}));
+
+        HeapTimeSeries.Series points = series.query(0, 2000, 1000);
+        assertEquals(TOP_CLASSES, points.getTopClassCount(0));
+        assertEquals(1, points.getTopClassId(0, 0));
+        assertEquals(50, points.getTopClassMemorySize(0, 0));
+        assertEquals(4, points.getTopClassInstanceCount(0, 0));
+        assertEquals(2, points.getTopClassId(0, 1));
+        assertEquals(30, points.getTopClassMemorySize(0, 1));
+    }
+
+    @Test
+    void clearEmptiesEveryTier() {
+        series.record(Snapshots.of(1000, 10, new int[0], new int[0], new long[0]));
+        series.clear();
+
+        for (long resolution : series.getResolutions()) {
+            assertEquals(0, series.query(0, Long.MAX_VALUE, resolution).getPointCount());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdentityObjectRegistryTest {
+
+    @Test
+    void keysAreComparedByIdentity() {
+        IdentityObjectRegistry registry = new IdentityObjectRegistry(4);
+        String first = new String("guasa");
+        String second = new String("guasa");
+
+        IdentityObjectRegistry.Entry entry = registry.register(first, 1);
+        assertSame(entry, registry.find(first));
+        assertNull(registry.find(second));
+        assertEquals(2, registry.register(second, 2).getSlot());
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void registerReturnsTheExistingEntry() {
+        IdentityObjectRegistry registry = new IdentityObjectRegistry(4);
+        Object obj = new Object();
+        IdentityObjectRegistry.Entry entry = registry.register(obj, 1);
+
+        assertSame(entry, registry.register(obj, 2));
+        assertEquals(1, registry.find(obj).getSlot());
+        assertEquals(System.identityHashCode(obj), entry.getIdentityHashCode());
+    }
+
+    @Test
+    void removeAndUnregisterForgetTheObject() {
+        IdentityObjectRegistry registry = new IdentityObjectRegistry(4);
+        Object removed = new Object();
+        Object unregistered = new Object();
+        registry.register(removed, 1);
+        IdentityObjectRegistry.Entry entry = registry.register(unregistered, 2);
+
+        assertEquals(1, registry.remove(removed));
+        assertEquals(IdentityObjectRegistry.NO_SLOT, registry.remove(removed));
+        assertTrue(registry.unregister(entry));
+        assertFalse(registry.unregister(entry));
+        assertNull(entry.get());
+        assertNull(registry.find(unregistered));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void resizeKeepsEveryEntry() {
+        IdentityObjectRegistry registry = new IdentityObjectRegistry(2);
+        Object[] objects = new Object[20_000];
+        for (int i = 0; i < objects.length; i++) {
+            objects[i] = new Object();
+            registry.register(objects[i], i);
+        }
+
+        assertEquals(objects.length, registry.size());
+        for (int i = 0; i < objects.length; i++) {
+            assertEquals(i, registry.find(objects[i]).getSlot());
+        }
+    }
+
+    @Test
+    void collectedEntriesAreExpungedOnce() throws InterruptedException {
+        IdentityObjectRegistry registry = new IdentityObjectRegistry(4);
+        Object kept = new Object();
+        registry.register(kept, 0);
+        registerGarbage(registry, 100);
+        IdentityObjectRegistry.Entry unregistered = registry.register(new Object(), 200);
+        registry.unregister(unregistered);
+
+        List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < 100 && slots.size() < 100; i++) {
+            System.gc();
+            Thread.sleep(20);
+            registry.expungeStaleEntries(Integer.MAX_VALUE, entry -> slots.add(entry.getSlot()));
+        }
+
+        assertEquals(100, slots.size());
+        assertFalse(slots.contains(0));
+        assertFalse(slots.contains(200));
+        assertEquals(1, registry.size());
+        assertEquals(0, registry.expungeStaleEntries(Integer.MAX_VALUE, entry -> fail("expunged twice")));
+        assertSame(registry.find(kept), registry.register(kept, 5));
+    }
+
+    @Test
+    void expungeStopsAtTheLimit() throws InterruptedException {
+        IdentityObjectRegistry registry = new IdentityObjectRegistry(4);
+        registerGarbage(registry, 10);
+
+        int expunged = 0;
+        for (int i = 0; i < 100 && expunged < 10; i++) {
+            System.gc();
+            Thread.sleep(20);
+            int batch = registry.expungeStaleEntries(3, entry -> { });
+            assertTrue(batch <= 3);
+            expunged += batch;
+        }
+        assertEquals(10, expunged);
+    }
+
+    @Test
+    void clearRemovesEveryEntry() {
+        IdentityObjectRegistry registry = new IdentityObjectRegistry(4);
+        Object obj = new Object();
+        IdentityObjectRegistry.Entry entry = registry.register(obj, 1);
+        registry.clear();
+
+        assertEquals(0, registry.size());
+        assertNull(registry.find(obj));
+        assertNull(entry.get());
+        assertFalse(registry.unregister(entry));
+    }
+
+    private static void registerGarbage(IdentityObjectRegistry registry, int count) {
+        for (int i = 1; i <= count; i++) {
+            registry.register(new Object(), i);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdentitySetTest {
+
+    @Test
+    void addReportsNewObjectsOnce() {
+        IdentitySet set = new IdentitySet(1);
+        Object obj = new Object();
+
+        assertTrue(set.add(obj));
+        assertFalse(set.add(obj));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void objectsAreComparedByIdentity() {
+        IdentitySet set = new IdentitySet(1);
+        String first = new String("guasa");
+        String second = new String("guasa");
+
+        assertTrue(set.add(first));
+        assertTrue(set.add(second));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void rehashKeepsEveryObject() {
+        IdentitySet set = new IdentitySet(1);
+        Object[] objects = new Object[50_000];
+        for (int i = 0; i < objects.length; i++) {
+            objects[i] = new Object();
+            assertTrue(set.add(objects[i]));
+        }
+
+        assertEquals(objects.length, set.size());
+        for (Object obj : objects) {
+            assertFalse(set.add(obj));
+        }
+        assertEquals(objects.length, set.size());
+    }
+
+    @Test
+    void concurrentAddsAcceptEachObjectOnce() throws Exception {
+        int threads = 8;
+        IdentitySet set = new IdentitySet(threads);
+        Object[] shared = new Object[20_000];
+        for (int i = 0; i < shared.length; i++) {
+            shared[i] = new Object();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t * 997;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int added = 0;
+                    for (int i = 0; i < shared.length; i++) {
+                        if (set.add(shared[(i + offset) % shared.length])) {
+                            added++;
+                        }
+                        if (set.add(new Object())) {
+                            added++;
+                        }
+                    }
+                    return added;
+                }));
+            }
+            start.countDown();
+
+            long added = 0;
+            for (Future<Integer> result : results) {
+                added += result.get();
+            }
+            long expected = shared.length + (long) threads * shared.length;
+            assertEquals(expected, added);
+            assertEquals(expected, set.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntHashSetTest {
+
+    @Test
+    void addReportsNewValuesOnce() {
+        IntHashSet set = new IntHashSet();
+
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertFalse(set.contains(1));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void growthAndShrinkKeepEveryValue() {
+        IntHashSet set = new IntHashSet();
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(set.add(i * 7));
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            assertTrue(set.remove(i * 7));
+        }
+
+        assertEquals(5000, set.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i % 2 == 1, set.contains(i * 7));
+        }
+        for (int i = 1; i < 10_000; i += 2) {
+            assertTrue(set.remove(i * 7));
+        }
+        assertEquals(0, set.size());
+        assertFalse(set.remove(7));
+    }
+
+    @Test
+    void removeKeepsTheRestOfAProbeSequenceReachable() {
+        IntHashSet set = new IntHashSet();
+        for (int i = 0; i < 7; i++) {
+            set.add(i);
+        }
+        set.remove(3);
+
+        int[] values = set.toArray();
+        Arrays.sort(values);
+        assertArrayEquals(new int[] {0, 1, 2, 4, 5, 6}, values);
+        for (int value : values) {
+            assertTrue(set.contains(value));
+        }
+    }
+
+    @Test
+    void clearEmptiesTheSet() {
+        IntHashSet set = new IntHashSet();
+        set.add(5);
+        set.clear();
+
+        assertEquals(0, set.size());
+        assertFalse(set.contains(5));
+        assertEquals(0, set.toArray().length);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import com.gdkteam.guasa.event.EventBus;
+import com.gdkteam.guasa.event.GuasaEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeakDetectorTest {
+    private static final int CLASS_ID = 3;
+    private static final int WINDOW = 10;
+
+    private final EventBus eventBus = new EventBus();
+    private final List<GuasaEvent.LeakSuspected> events = new ArrayList<>();
+    private final LeakDetector detector = new LeakDetector(eventBus, WINDOW);
+
+    LeakDetectorTest() {
+        eventBus.subscribe(GuasaEvent.LeakSuspected.class, events::add);
+    }
+
+    @Test
+    void steadyGrowthIsSuspectedAfterTheMinimumSamples() {
+        // minSamples is max(5, window / 3)
+        for (int second = 0; second < 4; second++) {
+            detector.update(Snapshots.of(second * 1000L, CLASS_ID, 10 + second, 1000 + 100L * second));
+        }
+        assertTrue(detector.getSuspects().isEmpty());
+
+        detector.update(Snapshots.of(4000, CLASS_ID, 14, 1400));
+        assertEquals(1, events.size());
+        assertEquals(CLASS_ID, events.get(0).getClassId());
+        assertEquals(1400, events.get(0).getMemorySize());
+
+        LeakDetector.LeakSuspect suspect = detector.getSuspects().get(0);
+        assertEquals(CLASS_ID, suspect.getClassId());
+        assertEquals(14, suspect.getInstanceCount());
+        assertEquals(1.0, suspect.getGrowthScore(), 1e-9);
+    }
+
+    @Test
+    void regressionSlopeMatchesALinearTrend() {
+        for (int second = 0; second < 50; second++) {
+            detector.update(Snapshots.of(second * 2000L, CLASS_ID, 10 + second, 5000 + 300L * second));
+        }
+
+        // 300 bytes every two seconds
+        assertEquals(150.0, detector.getSuspects().get(0).getBytesPerSecond(), 1e-6);
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    void stableAndOscillatingClassesAreNotSuspected() {
+        for (int second = 0; second < 50; second++) {
+            long bytes = second % 2 == 0 ? 1000 : 1200;
+            detector.update(Snapshots.of(second * 1000L, 0, new int[] {1, 2},
+                new int[] {10, second % 2 == 0 ? 10 : 12}, new long[] {500, bytes}));
+        }
+
+        assertTrue(detector.getSuspects().isEmpty());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void slowGrowthBelowTheRelativeThresholdIsNotSuspected() {
+        // One byte per second on a megabyte stays under 5% above the weighted mean
+        for (int second = 0; second < 50; second++) {
+            detector.update(Snapshots.of(second * 1000L, CLASS_ID, 10 + second, 1_000_000 + second));
+        }
+
+        assertTrue(detector.getSuspects().isEmpty());
+    }
+
+    @Test
+    void suspicionClearsWhenGrowthStopsAndIsRaisedAgain() {
+        long time = 0;
+        long bytes = 1000;
+        int count = 10;
+        for (int i = 0; i < 10; i++, time += 1000) {
+            detector.update(Snapshots.of(time, CLASS_ID, count++, bytes += 100));
+        }
+        assertEquals(1, events.size());
+
+        for (int i = 0; i < 20; i++, time += 1000) {
+            detector.update(Snapshots.of(time, CLASS_ID, count--, bytes -= 50));
+        }
+        assertTrue(detector.getSuspects().isEmpty());
+
+        for (int i = 0; i < 20; i++, time += 1000) {
+            detector.update(Snapshots.of(time, CLASS_ID, count++, bytes += 200));
+        }
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    void absentClassesCountAsEmpty() {
+        for (int second = 0; second < 10; second++) {
+            detector.update(Snapshots.of(second * 1000L, CLASS_ID, 10 + second, 1000 + 100L * second));
+        }
+        assertEquals(1, detector.getSuspects().size());
+
+        for (int second = 10; second < 20; second++) {
+            detector.update(Snapshots.of(second * 1000L, 0, new int[0], new int[0], new long[0]));
+        }
+        assertTrue(detector.getSuspects().isEmpty());
+    }
+
+    @Test
+    void resetForgetsEveryClass() {
+        for (int second = 0; second < 10; second++) {
+            detector.update(Snapshots.of(second * 1000L, CLASS_ID, 10 + second, 1000 + 100L * second));
+        }
+        detector.reset();
+
+        assertTrue(detector.getSuspects().isEmpty());
+    }
+
+    @Test
+    void windowMustCoverTwoSnapshots() {
+        assertThrows(IllegalArgumentException.class, () -> new LeakDetector(eventBus, 1));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogHistogramTest {
+
+    @Test
+    void bucketsCoverEveryValueWithoutGaps() {
+        int subBucketBits = 3;
+        int lastIndex = LogHistogram.bucketIndex(subBucketBits, (1L << 40) - 1);
+        for (int index = 0; index < lastIndex; index++) {
+            assertEquals(LogHistogram.bucketUpperBound(subBucketBits, index) + 1,
+                LogHistogram.bucketLowerBound(subBucketBits, index + 1), "bucket " + index);
+        }
+    }
+
+    @Test
+    void valuesFallWithinTheirBucketBounds() {
+        Random random = new Random(42);
+        for (int subBucketBits = 0; subBucketBits <= 7; subBucketBits++) {
+            for (int i = 0; i < 10_000; i++) {
+                long value = i < 1000 ? i : random.nextLong() >>> (1 + random.nextInt(62));
+                int index = LogHistogram.bucketIndex(subBucketBits, value);
+                long lower = LogHistogram.bucketLowerBound(subBucketBits, index);
+                long upper = LogHistogram.bucketUpperBound(subBucketBits, index);
+                assertTrue(lower <= value && value <= upper, value + " outside [" + lower + ", " + upper + "]");
+                // Bucket width is at most 2^-subBucketBits of the lower bound
+                assertTrue(upper - lower <= lower >> subBucketBits, "bucket " + index + " too wide");
+            }
+        }
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LogHistogram histogram = new LogHistogram(7, 20);
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        LogHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(100, snapshot.getTotalCount());
+        assertEquals(1, snapshot.getMin());
+        assertEquals(100, snapshot.getMax());
+        assertEquals(50, snapshot.getValueAtPercentile(50));
+        assertEquals(99, snapshot.getValueAtPercentile(99));
+        assertEquals(100, snapshot.getValueAtPercentile(100));
+        assertEquals(1, snapshot.getValueAtPercentile(0));
+        assertEquals(50.5, snapshot.getMean(), 1e-9);
+    }
+
+    @Test
+    void percentilesOfLargeValuesStayWithinBucketPrecision() {
+        LogHistogram histogram = new LogHistogram(5, 40);
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+        LogHistogram.Snapshot snapshot = histogram.snapshot();
+
+        long median = snapshot.getValueAtPercentile(50);
+        assertTrue(median >= 50_000_000L && median <= 50_000_000L * 33 / 32, "median " + median);
+        assertEquals(100_000_000L, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    void outOfRangeValuesAreClamped() {
+        LogHistogram histogram = new LogHistogram(2, 10);
+        histogram.record(-5);
+        histogram.record(1L << 20);
+        LogHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(2, snapshot.getTotalCount());
+        assertEquals(0, snapshot.getMin());
+        assertEquals(1L << 20, snapshot.getMax());
+        assertEquals(1, snapshot.getBucketValueCount(snapshot.getBucketCount() - 1));
+    }
+
+    @Test
+    void removeTakesValuesBack() {
+        LogHistogram histogram = new LogHistogram(3, 20);
+        histogram.record(5);
+        histogram.record(5);
+        histogram.record(1000);
+        histogram.remove(5);
+        histogram.remove(1000);
+        LogHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1, snapshot.getTotalCount());
+        assertEquals(5, snapshot.getMin());
+        // The maximum is capped at the highest non-empty bucket once larger values are gone
+        assertEquals(5, snapshot.getMax());
+
+        histogram.remove(5);
+        assertTrue(histogram.snapshot().isEmpty());
+    }
+
+    @Test
+    void addMergesCounts() {
+        LogHistogram first = new LogHistogram(3, 20);
+        LogHistogram second = new LogHistogram(3, 20);
+        first.record(3);
+        second.record(3);
+        second.record(700);
+        first.add(second);
+        LogHistogram.Snapshot snapshot = first.snapshot();
+
+        assertEquals(3, snapshot.getTotalCount());
+        assertEquals(700, snapshot.getMax());
+        assertThrows(IllegalArgumentException.class, () -> first.add(new LogHistogram(4, 20)));
+    }
+
+    @Test
+    void resetEmptiesTheHistogram() {
+        LogHistogram histogram = new LogHistogram(3, 20);
+        histogram.record(42);
+        histogram.reset();
+        LogHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertTrue(snapshot.isEmpty());
+        assertEquals(0, snapshot.getValueAtPercentile(50));
+        assertEquals(0, snapshot.getMean(), 0);
+    }
+
+    @Test
+    void invalidPrecisionIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LogHistogram(10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new LogHistogram(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> new LogHistogram(3, 64));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntHashMapTest {
+
+    @Test
+    void putReplacesTheValueOfAKey() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        map.put(7, 1);
+        map.put(7, 2);
+
+        assertEquals(2, map.get(7));
+        assertEquals(LongIntHashMap.NO_VALUE, map.get(8));
+    }
+
+    @Test
+    void growthKeepsEveryEntry() {
+        LongIntHashMap map = new LongIntHashMap(1);
+        for (int i = 1; i <= 100_000; i++) {
+            map.put(i * 31L, i);
+        }
+
+        for (int i = 1; i <= 100_000; i++) {
+            assertEquals(i, map.get(i * 31L));
+        }
+    }
+
+    @Test
+    void removeKeepsTheRestOfAProbeSequenceReachable() {
+        LongIntHashMap map = new LongIntHashMap(16);
+        for (int i = 1; i <= 20; i++) {
+            map.put(i, i);
+        }
+        for (int i = 1; i <= 20; i += 2) {
+            map.remove(i);
+        }
+
+        for (int i = 1; i <= 20; i++) {
+            assertEquals(i % 2 == 0 ? i : LongIntHashMap.NO_VALUE, map.get(i));
+        }
+        map.remove(99);
+        map.put(1, 100);
+        assertEquals(100, map.get(1));
+    }
+
+    @Test
+    void clearRemovesEveryEntry() {
+        LongIntHashMap map = new LongIntHashMap(16);
+        for (int i = 1; i <= 5000; i++) {
+            map.put(i, i);
+        }
+        map.clear();
+
+        assertEquals(LongIntHashMap.NO_VALUE, map.get(1));
+        map.put(2, 3);
+        assertEquals(3, map.get(2));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.instrument.Instrumentation;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjectSizeEstimatorTest {
+    private static final ObjectSizeEstimator.JvmLayout COMPRESSED =
+        new ObjectSizeEstimator.JvmLayout(true, true, false, 8);
+    private static final ObjectSizeEstimator.JvmLayout UNCOMPRESSED =
+        new ObjectSizeEstimator.JvmLayout(false, false, false, 8);
+    private static final ObjectSizeEstimator.JvmLayout COMPACT_HEADERS =
+        new ObjectSizeEstimator.JvmLayout(true, true, true, 8);
+
+    @Test
+    void instancesAreSizedFromTheirFields() {
+        ObjectSizeEstimator compressed = new ObjectSizeEstimator(null, COMPRESSED);
+        ObjectSizeEstimator uncompressed = new ObjectSizeEstimator(null, UNCOMPRESSED);
+
+        assertEquals(16, compressed.estimate(new Object()));
+        assertEquals(16, uncompressed.estimate(new Object()));
+        // 12 header + 8 long + 4 int + 4 reference
+        assertEquals(32, compressed.estimate(new Fields()));
+        // 16 header + 8 long + 4 int + 8 reference
+        assertEquals(40, uncompressed.estimate(new Fields()));
+        // Inherited fields count too: 32 + 8 long
+        assertEquals(40, compressed.estimate(new MoreFields()));
+        assertEquals(8, new ObjectSizeEstimator(null, COMPACT_HEADERS).estimate(new Object()));
+    }
+
+    @Test
+    void arraysAreSizedFromTheirLength() {
+        ObjectSizeEstimator compressed = new ObjectSizeEstimator(null, COMPRESSED);
+        ObjectSizeEstimator uncompressed = new ObjectSizeEstimator(null, UNCOMPRESSED);
+
+        assertEquals(16, compressed.estimate(new int[0]));
+        assertEquals(32, compressed.estimate(new int[3]));
+        assertEquals(24, compressed.estimate(new long[1]));
+        assertEquals(24, compressed.estimate(new Object[2]));
+        assertEquals(24, compressed.estimate(new byte[8]));
+        // 20-byte header, aligned to the element size before the elements
+        assertEquals(32, uncompressed.estimate(new long[1]));
+        assertEquals(40, uncompressed.estimate(new Object[2]));
+        assertEquals(16, new ObjectSizeEstimator(null, COMPACT_HEADERS).estimate(new int[1]));
+    }
+
+    @Test
+    void nullHasNoSize() {
+        assertEquals(0, new ObjectSizeEstimator(null, COMPRESSED).estimate(null));
+    }
+
+    @Test
+    void instrumentationIsAskedOncePerClass() {
+        AtomicInteger calls = new AtomicInteger();
+        Instrumentation instrumentation = (Instrumentation) Proxy.newProxyInstance(
+            Instrumentation.class.getClassLoader(), new Class<?>[] {Instrumentation.class},
+            (proxy, method, args) -> {
+                assertEquals("getObjectSize", method.getName());
+                calls.incrementAndGet();
+                return 48L;
+            });
+        ObjectSizeEstimator estimator = new ObjectSizeEstimator(instrumentation, COMPRESSED);
+
+        assertTrue(estimator.isUsingInstrumentation());
+        assertEquals(48, estimator.estimate(new Fields()));
+        assertEquals(48, estimator.estimate(new Fields()));
+        assertEquals(1, calls.get());
+        // Arrays always use the layout model
+        assertEquals(32, estimator.estimate(new int[3]));
+        assertEquals(1, calls.get());
+    }
+
+    @SuppressWarnings("unused")
+    static class Fields {
+        private long longValue;
+        private int intValue;
+        private Object reference;
+        private static long ignored;
+    }
+
+    @SuppressWarnings("unused")
+    static final class MoreFields extends Fields {
+        private long extra;
+    }
+}
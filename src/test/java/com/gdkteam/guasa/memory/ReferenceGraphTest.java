@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import com.gdkteam.guasa.event.EventBus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceGraphTest {
+    private final ObjectTracker tracker = new ObjectTracker(new EventBus());
+    private final ReferenceGraph graph = new ReferenceGraph(tracker, new EventBus());
+
+    ReferenceGraphTest() {
+        tracker.start();
+        graph.start();
+    }
+
+    @Test
+    void fieldsAndArrayElementsBecomeLabelledEdges() {
+        Node leaf = new Node(null, null);
+        Node[] array = {null, leaf};
+        Node root = new Node(leaf, array);
+        long rootId = tracker.trackObject(root);
+        long leafId = tracker.trackObject(leaf);
+        long arrayId = tracker.trackObject(array);
+        graph.update();
+
+        Set<ReferenceGraph.ObjectReference> fromRoot = graph.getOutgoingReferences(rootId);
+        assertEquals(2, fromRoot.size());
+        assertTrue(fromRoot.contains(new ReferenceGraph.ObjectReference(rootId, leafId, "next", null, null)));
+        assertTrue(fromRoot.contains(new ReferenceGraph.ObjectReference(rootId, arrayId, "children", null, null)));
+        for (ReferenceGraph.ObjectReference ref : fromRoot) {
+            assertEquals(ReferenceGraph.ReferenceType.FIELD, ref.getType());
+        }
+
+        ReferenceGraph.ObjectReference element = graph.getOutgoingReferences(arrayId).iterator().next();
+        assertEquals("[1]", element.getFieldName());
+        assertEquals(ReferenceGraph.ReferenceType.ARRAY_ELEMENT, element.getType());
+        assertEquals(Node.class.getName(), element.getTargetClassName());
+        assertTrue(graph.getOutgoingReferences(leafId).isEmpty());
+    }
+
+    @Test
+    void incomingReferencesCountDistinctReferrers() {
+        Node leaf = new Node(null, null);
+        Node both = new Node(leaf, null);
+        both.other = leaf;
+        Node single = new Node(leaf, null);
+        long leafId = tracker.trackObject(leaf);
+        long bothId = tracker.trackObject(both);
+        long singleId = tracker.trackObject(single);
+        graph.update();
+
+        assertEquals(Set.of(bothId, singleId), graph.getIncomingReferences(leafId));
+        assertEquals(2, graph.getReferenceCount(leafId));
+        assertEquals(0, graph.getReferenceCount(bothId));
+        assertEquals(3, graph.getOutgoingReferences(bothId).size() + graph.getOutgoingReferences(singleId).size());
+    }
+
+    @Test
+    void untrackedTargetsAreNotEdges() {
+        Node root = new Node(new Node(null, null), null);
+        long rootId = tracker.trackObject(root);
+        graph.update();
+
+        assertTrue(graph.getOutgoingReferences(rootId).isEmpty());
+        assertEquals(1, graph.getFullGraph().size());
+    }
+
+    @Test
+    void pathToRootStartsAtAnUnreferencedObject() {
+        Node leaf = new Node(null, null);
+        Node middle = new Node(leaf, null);
+        Node root = new Node(middle, null);
+        Node cycleA = new Node(leaf, null);
+        Node cycleB = new Node(cycleA, null);
+        cycleA.other = cycleB;
+        long leafId = tracker.trackObject(leaf);
+        long middleId = tracker.trackObject(middle);
+        long rootId = tracker.trackObject(root);
+        tracker.trackObject(cycleA);
+        tracker.trackObject(cycleB);
+        graph.update();
+
+        assertEquals(List.of(rootId, middleId, leafId), graph.findPathToRoot(leafId));
+        assertEquals(List.of(rootId), graph.findPathToRoot(rootId));
+        assertEquals(List.of(42L), graph.findPathToRoot(42L));
+    }
+
+    @Test
+    void pathThroughACycleOnlyIsEmpty() {
+        Node a = new Node(null, null);
+        Node b = new Node(a, null);
+        a.next = b;
+        long aId = tracker.trackObject(a);
+        tracker.trackObject(b);
+        graph.update();
+
+        assertTrue(graph.findPathToRoot(aId).isEmpty());
+    }
+
+    @Test
+    void dominatorTreeUsesTheScannedEdges() {
+        Node leaf = new Node(null, null);
+        Node root = new Node(leaf, null);
+        long leafId = tracker.trackObject(leaf);
+        long rootId = tracker.trackObject(root);
+        graph.update();
+
+        DominatorTree tree = graph.getDominatorTree();
+        assertEquals(2, tree.getNodeCount());
+        assertEquals(tree.indexOf(rootId), tree.getImmediateDominator(tree.indexOf(leafId)));
+        assertEquals(tree.getShallowSize(tree.indexOf(rootId)) + tree.getShallowSize(tree.indexOf(leafId)),
+            tree.getRetainedSizeById(rootId));
+    }
+
+    @Test
+    void parallelScanBuildsTheSameGraph() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            graph.setWorkerPool(pool, 4);
+            Node[] nodes = new Node[5000];
+            long[] ids = new long[nodes.length];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = new Node(i > 0 ? nodes[i - 1] : null, null);
+                ids[i] = tracker.trackObject(nodes[i]);
+            }
+            graph.update();
+
+            for (int i = 1; i < nodes.length; i++) {
+                assertEquals(Set.of(ids[i]), graph.getIncomingReferences(ids[i - 1]));
+            }
+            assertEquals(nodes.length, graph.findPathToRoot(ids[0]).size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void clearForgetsTheGraph() {
+        Node leaf = new Node(null, null);
+        long rootId = tracker.trackObject(new Node(leaf, null));
+        long leafId = tracker.trackObject(leaf);
+        graph.update();
+        graph.clear();
+
+        assertTrue(graph.getOutgoingReferences(rootId).isEmpty());
+        assertEquals(0, graph.getReferenceCount(leafId));
+        assertEquals(0, graph.getDominatorTree().getNodeCount());
+    }
+
+    private static final class Node {
+        Node next;
+        Node[] children;
+        Node other;
+
+        Node(Node next, Node[] children) {
+            this.next = next;
+            this.children = children;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotDiffTest {
+
+    @Test
+    void classesAreMergedInIdOrder() {
+        HeapAnalyzer.HeapSnapshot baseline = Snapshots.of(1000, 1000,
+            new int[] {1, 3, 5, 7}, new int[] {10, 5, 2, 4}, new long[] {100, 50, 20, 40});
+        HeapAnalyzer.HeapSnapshot current = Snapshots.of(3000, 1500,
+            new int[] {1, 2, 5, 7}, new int[] {10, 1, 4, 3}, new long[] {100, 8, 40, 60});
+
+        SnapshotDiff diff = SnapshotDiff.compute(baseline, current);
+
+        assertEquals(5, diff.getClassCount());
+        assertArrayEquals(new int[] {1, 2, 3, 5, 7}, classIds(diff));
+        assertEquals(SnapshotDiff.Change.UNCHANGED, diff.getChange(0));
+        assertEquals(SnapshotDiff.Change.NEW, diff.getChange(1));
+        assertEquals(SnapshotDiff.Change.VANISHED, diff.getChange(2));
+        assertEquals(SnapshotDiff.Change.GREW, diff.getChange(3));
+        // Fewer instances but more bytes: bytes decide
+        assertEquals(SnapshotDiff.Change.GREW, diff.getChange(4));
+        assertEquals(1, diff.getNewClassCount());
+        assertEquals(1, diff.getVanishedClassCount());
+    }
+
+    @Test
+    void deltasAndRatesUseTheElapsedTime() {
+        HeapAnalyzer.HeapSnapshot baseline = Snapshots.of(1000, 4, 10, 100);
+        HeapAnalyzer.HeapSnapshot current = Snapshots.of(3000, 4, 14, 300);
+
+        SnapshotDiff diff = SnapshotDiff.compute(baseline, current);
+        int index = diff.indexOfClass(4);
+
+        assertEquals(2000, diff.getElapsedMillis());
+        assertEquals(4, diff.getInstanceCountDelta(index));
+        assertEquals(200, diff.getMemorySizeDelta(index));
+        assertEquals(200, diff.getEstimatedMemorySizeDelta(index));
+        assertEquals(2.0, diff.getInstanceGrowthRate(index), 1e-9);
+        assertEquals(100.0, diff.getMemoryGrowthRate(index), 1e-9);
+        assertEquals(4, diff.getTrackedObjectDelta());
+        assertEquals(200, diff.getTrackedMemoryDelta());
+        assertEquals(100.0, diff.getTrackedMemoryGrowthRate(), 1e-9);
+        assertEquals(200, diff.getHeapUsedDelta());
+    }
+
+    @Test
+    void shrinkingClassesAreReported() {
+        SnapshotDiff diff = SnapshotDiff.compute(Snapshots.of(0, 2, 10, 100), Snapshots.of(1000, 2, 10, 80));
+
+        assertEquals(SnapshotDiff.Change.SHRANK, diff.getChange(0));
+        assertEquals(-20.0, diff.getMemoryGrowthRate(0), 1e-9);
+    }
+
+    @Test
+    void classesWithoutInstancesAreSkipped() {
+        HeapAnalyzer.HeapSnapshot baseline = Snapshots.of(0, 0, new int[] {1, 2}, new int[] {0, 3}, new long[] {0, 30});
+        HeapAnalyzer.HeapSnapshot current = Snapshots.of(0, 0, new int[] {1, 2}, new int[] {0, 3}, new long[] {0, 30});
+
+        SnapshotDiff diff = SnapshotDiff.compute(baseline, current);
+
+        assertEquals(1, diff.getClassCount());
+        assertTrue(diff.indexOfClass(1) < 0);
+        assertEquals(SnapshotDiff.Change.UNCHANGED, diff.getChange(diff.indexOfClass(2)));
+        // No time elapsed, so no rate
+        assertEquals(0.0, diff.getMemoryGrowthRate(0), 0.0);
+    }
+
+    @Test
+    void emptySnapshotsGiveAnEmptyDiff() {
+        HeapAnalyzer.HeapSnapshot empty = Snapshots.of(0, 0, new int[0], new int[0], new long[0]);
+
+        SnapshotDiff diff = SnapshotDiff.compute(empty, empty);
+        assertEquals(0, diff.getClassCount());
+        assertEquals(0, diff.getNewClassCount());
+    }
+
+    private static int[] classIds(SnapshotDiff diff) {
+        int[] ids = new int[diff.getClassCount()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = diff.getClassId(i);
+        }
+        return ids;
+    }
+}
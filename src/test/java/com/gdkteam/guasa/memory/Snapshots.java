@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+/**
+ * Builds synthetic heap snapshots for tests.
+ */
+final class Snapshots {
+
+    private Snapshots() {
+    }
+
+    /**
+     * Returns a snapshot of unsampled classes, with {@code classIds} in ascending order.
+     */
+    static HeapAnalyzer.HeapSnapshot of(long timestamp, long heapUsed, int[] classIds, int[] counts, long[] sizes) {
+        int classCount = classIds.length;
+        long[] estimatedCounts = new long[classCount];
+        long trackedObjects = 0;
+        long trackedMemory = 0;
+        for (int i = 0; i < classCount; i++) {
+            estimatedCounts[i] = counts[i];
+            trackedObjects += counts[i];
+            trackedMemory += sizes[i];
+        }
+        return new HeapAnalyzer.HeapSnapshot(heapUsed, heapUsed * 4, heapUsed * 2, 0,
+            new HeapAnalyzer.MemoryPoolStats[0], 0, 0, (int) trackedObjects, trackedMemory,
+            trackedObjects, trackedMemory, classIds.clone(), counts.clone(), sizes.clone(), estimatedCounts,
+            sizes.clone(), new LogHistogram.Snapshot[classCount], new LogHistogram.Snapshot[classCount],
+            new LogHistogram.Snapshot[classCount], new String[0], new long[0], new long[0],
+            AllocationSampler.MAX_SAMPLING_RATE, timestamp);
+    }
+
+    /**
+     * Returns a snapshot holding a single class.
+     */
+    static HeapAnalyzer.HeapSnapshot of(long timestamp, int classId, int count, long size) {
+        return of(timestamp, size, new int[] {classId}, new int[] {count}, new long[] {size});
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StackTableTest {
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    @Test
+    void identicalStacksShareAnId() {
+        StackTable table = new StackTable();
+        int first = table.intern(fromA());
+        int second = table.intern(fromA());
+
+        assertEquals(first, second);
+        assertTrue(first != StackTable.EMPTY_STACK);
+        assertEquals(3, table.getStackCount());
+        assertEquals(2, table.getFrameCount());
+    }
+
+    @Test
+    void stacksShareTheirInnermostPrefix() {
+        StackTable table = new StackTable();
+        int a = table.intern(fromA());
+        int b = table.intern(fromB());
+
+        assertTrue(a != b);
+        // Root, the shared capture frame, and one node per caller
+        assertEquals(4, table.getStackCount());
+        assertEquals(3, table.getFrameCount());
+    }
+
+    @Test
+    void framesAreReturnedInnermostFirst() {
+        StackTable table = new StackTable();
+        List<StackTraceElement> frames = table.getFrames(table.intern(fromB()));
+
+        assertEquals(2, frames.size());
+        assertEquals("capture", frames.get(0).getMethodName());
+        assertEquals("fromB", frames.get(1).getMethodName());
+        assertEquals(StackTableTest.class.getName(), frames.get(1).getClassName());
+    }
+
+    @Test
+    void emptyStacksMapToTheRoot() {
+        StackTable table = new StackTable();
+
+        assertEquals(StackTable.EMPTY_STACK, table.intern(new StackWalker.StackFrame[0]));
+        assertTrue(table.getFrames(StackTable.EMPTY_STACK).isEmpty());
+        assertTrue(table.getFrames(12345).isEmpty());
+    }
+
+    @Test
+    void manyStacksGrowTheTable() {
+        StackTable table = new StackTable();
+        StackWalker.StackFrame[] a = fromA();
+        StackWalker.StackFrame[] b = fromB();
+        int previous = StackTable.EMPTY_STACK;
+        // Each stack extends the previous one by a frame
+        for (int depth = 1; depth <= 3000; depth++) {
+            StackWalker.StackFrame[] stack = new StackWalker.StackFrame[depth];
+            for (int i = 0; i < depth; i++) {
+                stack[i] = (i & 1) == 0 ? a[1] : b[1];
+            }
+            int id = table.intern(stack);
+            assertTrue(id > previous);
+            previous = id;
+        }
+
+        assertEquals(3001, table.getStackCount());
+        assertEquals(3000, table.getFrames(previous).size());
+    }
+
+    private static StackWalker.StackFrame[] fromA() {
+        return capture();
+    }
+
+    private static StackWalker.StackFrame[] fromB() {
+        return capture();
+    }
+
+    private static StackWalker.StackFrame[] capture() {
+        return WALKER.walk(stream -> stream.limit(2).toArray(StackWalker.StackFrame[]::new));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagIndexTest {
+
+    @Test
+    void tagsAreInternedToDenseIds() {
+        TagIndex index = new TagIndex();
+        int cache = index.intern("cache");
+        int session = index.intern("session");
+
+        assertEquals(0, cache);
+        assertEquals(1, session);
+        assertEquals(cache, index.intern("cache"));
+        assertEquals(session, index.getTagId("session"));
+        assertEquals(TagIndex.NO_TAG, index.getTagId("missing"));
+        assertEquals("session", index.getTagName(session));
+        assertEquals(2, index.getTagCount());
+    }
+
+    @Test
+    void taggingUpdatesMembersAndCounters() {
+        TagIndex index = new TagIndex();
+        int cache = index.intern("cache");
+
+        assertTrue(index.tag(4, cache, 32, 1.0f));
+        assertFalse(index.tag(4, cache, 32, 1.0f));
+        assertTrue(index.tag(9, cache, 16, 1.0f));
+
+        assertTrue(index.hasTag(4, cache));
+        assertFalse(index.hasTag(5, cache));
+        assertFalse(index.hasTag(4, 7));
+        assertEquals(2, index.getLiveCount(cache));
+        assertEquals(48, index.getLiveBytes(cache));
+        int[] slots = index.getSlots(cache);
+        Arrays.sort(slots);
+        assertArrayEquals(new int[] {4, 9}, slots);
+        assertEquals(0, index.getSlots(TagIndex.NO_TAG).length);
+    }
+
+    @Test
+    void untagAllRemovesEveryTagOfASlot() {
+        TagIndex index = new TagIndex();
+        int first = index.intern("first");
+        int second = index.intern("second");
+        int third = index.intern("third");
+        index.tag(2, first, 24, 1.0f);
+        index.tag(2, second, 24, 1.0f);
+        index.tag(2, third, 24, 1.0f);
+        index.tag(3, second, 8, 1.0f);
+
+        index.untagAll(2, 24, 1.0f);
+        index.untagAll(2, 24, 1.0f);
+
+        assertFalse(index.hasTag(2, first));
+        assertFalse(index.hasTag(2, second));
+        assertFalse(index.hasTag(2, third));
+        assertEquals(0, index.getLiveCount(first));
+        assertEquals(1, index.getLiveCount(second));
+        assertEquals(8, index.getLiveBytes(second));
+        assertArrayEquals(new int[] {3}, index.getSlots(second));
+    }
+
+    @Test
+    void releasedSlotsCanBeTaggedAgain() {
+        TagIndex index = new TagIndex();
+        int first = index.intern("first");
+        int second = index.intern("second");
+        index.tag(2, first, 24, 1.0f);
+        index.tag(2, second, 24, 1.0f);
+        index.untagAll(2, 24, 1.0f);
+
+        index.tag(2, second, 16, 1.0f);
+        assertFalse(index.hasTag(2, first));
+        assertTrue(index.hasTag(2, second));
+        index.untagAll(2, 16, 1.0f);
+        assertEquals(0, index.getLiveCount(second));
+    }
+
+    @Test
+    void clearKeepsInternedTags() {
+        TagIndex index = new TagIndex();
+        int cache = index.intern("cache");
+        index.tag(1, cache, 8, 1.0f);
+        index.clear();
+
+        assertEquals(cache, index.getTagId("cache"));
+        assertFalse(index.hasTag(1, cache));
+        assertEquals(0, index.getLiveCount(cache));
+        assertTrue(index.tag(1, cache, 8, 1.0f));
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import com.gdkteam.guasa.event.EventBus;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackedObjectCursorTest {
+
+    @Test
+    void cursorVisitsEveryTrackedObject() {
+        ObjectTracker tracker = newTracker();
+        Object[] objects = track(tracker, 100);
+
+        Set<Long> ids = new HashSet<>();
+        TrackedObjectCursor cursor = tracker.cursor();
+        while (cursor.next()) {
+            Object obj = cursor.peekObject();
+            assertNotNull(obj);
+            assertEquals(tracker.getObjectId(obj).longValue(), cursor.getId());
+            assertEquals(ClassRegistry.getId(Object.class), cursor.getClassId());
+            assertTrue(cursor.isCurrent());
+            ids.add(cursor.getId());
+        }
+        assertEquals(objects.length, ids.size());
+    }
+
+    @Test
+    void releasedRowsAreNotCurrent() {
+        ObjectTracker tracker = newTracker();
+        track(tracker, 1);
+
+        TrackedObjectCursor cursor = tracker.cursor();
+        assertTrue(cursor.next());
+        long id = cursor.getId();
+        tracker.untrackObject(id);
+
+        assertFalse(cursor.isCurrent());
+        assertNull(cursor.peekObject());
+        assertNull(cursor.getObject());
+        assertNull(cursor.toTrackedObject());
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    void reusedRowsDoNotReturnTheNewObject() {
+        TrackedObjectStore store = new TrackedObjectStore(false, 1);
+        IdentityObjectRegistry registry = new IdentityObjectRegistry(1);
+        Object original = new Object();
+        int slot = add(store, registry, original);
+
+        TrackedObjectCursor cursor = new TrackedObjectCursor(store, 0, store.getHighWaterMark());
+        assertTrue(cursor.next());
+        assertSame(original, cursor.peekObject());
+        store.free(slot);
+        Object replacement = new Object();
+        assertEquals(slot, add(store, registry, replacement));
+
+        assertFalse(cursor.isCurrent());
+        assertNull(cursor.peekObject());
+        assertNull(cursor.toTrackedObject());
+    }
+
+    @Test
+    void cursorsSplitTheSlotsIntoDisjointRanges() {
+        ObjectTracker tracker = newTracker();
+        Object[] objects = track(tracker, 5000);
+
+        Set<Long> ids = new HashSet<>();
+        int visited = 0;
+        for (TrackedObjectCursor cursor : tracker.cursors(4)) {
+            while (cursor.next()) {
+                ids.add(cursor.getId());
+                visited++;
+            }
+        }
+        assertEquals(objects.length, visited);
+        assertEquals(objects.length, ids.size());
+        assertEquals(objects.length, tracker.parallelStream().count());
+    }
+
+    @Test
+    void pagesCoverEveryObjectOnce() {
+        ObjectTracker tracker = newTracker();
+        Object[] objects = track(tracker, 25);
+
+        Set<Long> ids = new HashSet<>();
+        long token = ObjectTracker.TrackedObjectPage.FIRST_PAGE;
+        int pages = 0;
+        do {
+            ObjectTracker.TrackedObjectPage page = tracker.getTrackedObjectPage(token, 10);
+            for (ObjectTracker.TrackedObject tracked : page.getItems()) {
+                assertTrue(ids.add(tracked.getId()));
+            }
+            token = page.getNextPageToken();
+            pages++;
+        } while (token != ObjectTracker.TrackedObjectPage.NO_MORE_PAGES);
+
+        assertEquals(objects.length, ids.size());
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void pagingSkipsObjectsReleasedBetweenPages() {
+        ObjectTracker tracker = newTracker();
+        track(tracker, 20);
+
+        ObjectTracker.TrackedObjectPage first = tracker.getTrackedObjectPage(ObjectTracker.TrackedObjectPage.FIRST_PAGE, 10);
+        ObjectTracker.TrackedObjectPage peek = tracker.getTrackedObjectPage(first.getNextPageToken(), 10);
+        tracker.untrackObject(peek.getItems().get(0).getId());
+
+        ObjectTracker.TrackedObjectPage second = tracker.getTrackedObjectPage(first.getNextPageToken(), 10);
+        assertEquals(9, second.getItems().size());
+        assertFalse(second.hasNextPage());
+    }
+
+    @Test
+    void tokensFromBeforeAClearRestartFromTheBeginning() {
+        ObjectTracker tracker = newTracker();
+        track(tracker, 20);
+        long token = tracker.getTrackedObjectPage(ObjectTracker.TrackedObjectPage.FIRST_PAGE, 10).getNextPageToken();
+
+        tracker.clearAllTracking();
+        Object[] objects = track(tracker, 5);
+        ObjectTracker.TrackedObjectPage page = tracker.getTrackedObjectPage(token, 10);
+
+        assertEquals(objects.length, page.getItems().size());
+        assertFalse(page.hasNextPage());
+    }
+
+    private static ObjectTracker newTracker() {
+        ObjectTracker tracker = new ObjectTracker(new EventBus());
+        tracker.start();
+        return tracker;
+    }
+
+    private static int add(TrackedObjectStore store, IdentityObjectRegistry registry, Object obj) {
+        int slot = store.reserve(TrackedObjectStore.NO_ID, 0, System.identityHashCode(obj), 16, 1.0f,
+            StackTable.EMPTY_STACK, 1000, store.getGeneration());
+        store.commit(slot, registry.register(obj, slot));
+        return slot;
+    }
+
+    private static Object[] track(ObjectTracker tracker, int count) {
+        Object[] objects = new Object[count];
+        for (int i = 0; i < count; i++) {
+            objects[i] = new Object();
+            tracker.trackObject(objects[i]);
+        }
+        return objects;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackedObjectStoreTest {
+    private final IdentityObjectRegistry registry = new IdentityObjectRegistry(1);
+    private final List<Object> objects = new ArrayList<>();
+
+    @Test
+    void committedRowsAreVisibleById() {
+        for (boolean offHeap : new boolean[] {false, true}) {
+            TrackedObjectStore store = new TrackedObjectStore(offHeap, 4);
+            int slot = reserve(store, TrackedObjectStore.NO_ID);
+            long id = store.getId(slot);
+            assertEquals(TrackedObjectStore.NO_SLOT, store.slotOf(id));
+            assertEquals(0, store.size());
+
+            IdentityObjectRegistry.Entry entry = commit(store, slot);
+            assertEquals(slot, store.slotOf(id));
+            assertSame(entry, store.getRef(slot));
+            assertEquals(1, store.size());
+            assertEquals(3, store.getClassId(slot));
+            assertEquals(24, store.getShallowSize(slot));
+            assertEquals(2.0, store.getSampleWeight(slot), 0.0);
+            assertEquals(5, store.getSiteId(slot));
+            assertEquals(1000, store.getTrackingTimestamp(slot));
+            assertEquals(1000, store.getLastAccessTime(slot));
+            assertEquals(System.identityHashCode(entry.get()), store.getIdentityHashCode(slot));
+        }
+    }
+
+    @Test
+    void abortReturnsTheSlotUnused() {
+        TrackedObjectStore store = new TrackedObjectStore(false, 1);
+        int slot = reserve(store, TrackedObjectStore.NO_ID);
+        long id = store.getId(slot);
+        store.abort(slot);
+
+        assertEquals(0, store.size());
+        int reused = reserve(store, TrackedObjectStore.NO_ID);
+        assertEquals(slot, reused);
+        assertNotEquals(id, store.getId(reused));
+    }
+
+    @Test
+    void reserveFailsAfterAClear() {
+        TrackedObjectStore store = new TrackedObjectStore(false, 1);
+        int generation = store.getGeneration();
+        store.clear();
+
+        assertEquals(TrackedObjectStore.NO_SLOT, store.reserve(TrackedObjectStore.NO_ID, 3,
+            1, 24, 2.0f, 5, 1000, generation));
+        assertTrue(store.getGeneration() != generation);
+    }
+
+    @Test
+    void freedSlotsAreReusedWithNewIds() {
+        TrackedObjectStore store = new TrackedObjectStore(false, 1);
+        int slot = reserve(store, TrackedObjectStore.NO_ID);
+        commit(store, slot);
+        long id = store.getId(slot);
+
+        assertTrue(store.free(slot));
+        assertFalse(store.free(slot));
+        assertEquals(TrackedObjectStore.NO_SLOT, store.slotOf(id));
+
+        int reused = reserve(store, TrackedObjectStore.NO_ID);
+        commit(store, reused);
+        assertEquals(slot, reused);
+        assertNotEquals(id, store.getId(reused));
+        assertEquals(TrackedObjectStore.NO_SLOT, store.slotOf(id));
+        assertEquals(reused, store.slotOf(store.getId(reused)));
+    }
+
+    @Test
+    void idsAreNotReusedAfterAClear() {
+        TrackedObjectStore store = new TrackedObjectStore(false, 1);
+        int slot = reserve(store, TrackedObjectStore.NO_ID);
+        commit(store, slot);
+        long id = store.getId(slot);
+        store.clear();
+
+        int reused = reserve(store, TrackedObjectStore.NO_ID);
+        commit(store, reused);
+        assertEquals(slot, reused);
+        assertNotEquals(id, store.getId(reused));
+        assertEquals(TrackedObjectStore.NO_SLOT, store.slotOf(id));
+    }
+
+    @Test
+    void presetIdsAreKeptAndResolved() {
+        TrackedObjectStore store = new TrackedObjectStore(false, 4);
+        int slot = reserve(store, 42);
+        commit(store, slot);
+
+        assertEquals(42, store.getId(slot));
+        assertEquals(42 & 3, store.getStripe(slot));
+        assertEquals(slot, store.slotOf(42));
+
+        assertTrue(store.free(slot));
+        assertEquals(TrackedObjectStore.NO_SLOT, store.slotOf(42));
+        int reused = reserve(store, 46);
+        commit(store, reused);
+        assertEquals(slot, reused);
+        assertEquals(46, store.getId(reused));
+        assertEquals(TrackedObjectStore.NO_SLOT, store.slotOf(42));
+
+        assertTrue(store.free(reused));
+        int assigned = reserve(store, TrackedObjectStore.NO_ID);
+        commit(store, assigned);
+        assertEquals(assigned, store.slotOf(store.getId(assigned)));
+        assertEquals(TrackedObjectStore.NO_SLOT, store.slotOf(46));
+    }
+
+    @Test
+    void growthKeepsRowsAndIds() {
+        for (boolean offHeap : new boolean[] {false, true}) {
+            TrackedObjectStore store = new TrackedObjectStore(offHeap, 2);
+            int[] slots = new int[5000];
+            Set<Long> ids = new HashSet<>();
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = reserve(store, i % 3 == 0 ? i + 1 : TrackedObjectStore.NO_ID);
+                commit(store, slots[i]);
+                assertTrue(ids.add(store.getId(slots[i])));
+            }
+
+            assertEquals(slots.length, store.size());
+            assertTrue(store.getHighWaterMark() >= slots.length);
+            for (int slot : slots) {
+                assertEquals(slot, store.slotOf(store.getId(slot)));
+                assertEquals(3, store.getClassId(slot));
+            }
+        }
+    }
+
+    @Test
+    void accessesAreRecordedForTheCurrentRowOnly() {
+        TrackedObjectStore store = new TrackedObjectStore(false, 1);
+        int slot = reserve(store, TrackedObjectStore.NO_ID);
+        IdentityObjectRegistry.Entry entry = commit(store, slot);
+
+        store.recordAccess(slot, entry, 4000);
+        assertEquals(4000, store.getLastAccessTime(slot));
+        assertEquals(1, store.getAccessCount(slot));
+
+        store.free(slot);
+        store.recordAccess(slot, entry, 5000);
+        assertEquals(1, store.getAccessCount(slot));
+    }
+
+    private int reserve(TrackedObjectStore store, long presetId) {
+        Object obj = new Object();
+        objects.add(obj);
+        return store.reserve(presetId, 3, System.identityHashCode(obj), 24, 2.0f, 5, 1000,
+            store.getGeneration());
+    }
+
+    private IdentityObjectRegistry.Entry commit(TrackedObjectStore store, int slot) {
+        IdentityObjectRegistry.Entry entry = registry.register(objects.get(objects.size() - 1), slot);
+        store.commit(slot, entry);
+        return entry;
+    }
+}
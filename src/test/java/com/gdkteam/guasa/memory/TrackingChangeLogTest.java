@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2025 GDK Team. All rights reserved.
+ *
+ * This software is the proprietary information of GDK Team.
+ * Use is subject to license terms.
+ */
+
+package com.gdkteam.guasa.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackingChangeLogTest {
+
+    @Test
+    void newLogReportsAnOverflow() {
+        TrackingChangeLog log = new TrackingChangeLog(4);
+        log.recordTracked(0, 1, 100);
+        Recorder recorder = new Recorder();
+
+        assertFalse(log.drain(recorder));
+        assertTrue(recorder.changes.isEmpty());
+        assertTrue(log.drain(recorder));
+    }
+
+    @Test
+    void drainReplaysChangesInOrder() {
+        TrackingChangeLog log = started(new TrackingChangeLog(8));
+        log.recordTracked(0, 1, 100);
+        log.recordTracked(0, 2, 200);
+        log.recordReleased(0, 1, 100);
+        Recorder recorder = new Recorder();
+
+        assertTrue(log.drain(recorder));
+        assertEquals(List.of("+1@100", "+2@200", "-1@100"), recorder.changes);
+
+        recorder.changes.clear();
+        assertTrue(log.drain(recorder));
+        assertTrue(recorder.changes.isEmpty());
+    }
+
+    @Test
+    void overflowDiscardsTheChangesOnce() {
+        TrackingChangeLog log = started(new TrackingChangeLog(4));
+        for (int i = 0; i < 5; i++) {
+            log.recordTracked(0, i, i);
+        }
+        Recorder recorder = new Recorder();
+
+        assertFalse(log.drain(recorder));
+        assertTrue(recorder.changes.isEmpty());
+
+        log.recordTracked(0, 7, 700);
+        assertTrue(log.drain(recorder));
+        assertEquals(List.of("+7@700"), recorder.changes);
+    }
+
+    @Test
+    void fillingTheLogExactlyIsNoOverflow() {
+        TrackingChangeLog log = started(new TrackingChangeLog(4));
+        for (int i = 0; i < 4; i++) {
+            log.recordTracked(0, i, i);
+        }
+        Recorder recorder = new Recorder();
+
+        assertTrue(log.drain(recorder));
+        assertEquals(4, recorder.changes.size());
+    }
+
+    @Test
+    void overflowOfOneStripeFailsTheWholeDrain() {
+        TrackingChangeLog log = started(new TrackingChangeLog(8, 2));
+        log.recordTracked(0, 1, 100);
+        for (int i = 0; i < 5; i++) {
+            log.recordTracked(1, i, i);
+        }
+        Recorder recorder = new Recorder();
+
+        assertFalse(log.drain(recorder));
+        assertTrue(recorder.changes.isEmpty());
+        assertTrue(log.drain(recorder));
+    }
+
+    @Test
+    void stripesAreReplayedTogether() {
+        TrackingChangeLog log = started(new TrackingChangeLog(8, 2));
+        log.recordTracked(0, 1, 100);
+        log.recordTracked(1, 2, 200);
+        log.recordReleased(0, 1, 100);
+        Recorder recorder = new Recorder();
+
+        assertTrue(log.drain(recorder));
+        assertEquals(List.of("+1@100", "-1@100", "+2@200"), recorder.changes);
+    }
+
+    @Test
+    void invalidateForcesAnOverflow() {
+        TrackingChangeLog log = started(new TrackingChangeLog(4));
+        log.recordTracked(0, 1, 100);
+        log.invalidate();
+        log.recordTracked(0, 2, 200);
+        Recorder recorder = new Recorder();
+
+        assertFalse(log.drain(recorder));
+        assertTrue(recorder.changes.isEmpty());
+    }
+
+    @Test
+    void resetClearsAnOverflow() {
+        TrackingChangeLog log = new TrackingChangeLog(4);
+        for (int i = 0; i < 5; i++) {
+            log.recordTracked(0, i, i);
+        }
+        log.reset();
+        log.recordReleased(0, 3, 300);
+        Recorder recorder = new Recorder();
+
+        assertTrue(log.drain(recorder));
+        assertEquals(List.of("-3@300"), recorder.changes);
+    }
+
+    @Test
+    void capacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new TrackingChangeLog(0));
+    }
+
+    /**
+     * Drains the initial overflow of a new log.
+     */
+    private static TrackingChangeLog started(TrackingChangeLog log) {
+        assertFalse(log.drain(new Recorder()));
+        return log;
+    }
+
+    private static final class Recorder implements TrackingChangeLog.Sink {
+        final List<String> changes = new ArrayList<>();
+
+        @Override
+        public void accept(int classId, long trackingTimestamp, boolean tracked) {
+            changes.add((tracked ? "+" : "-") + classId + "@" + trackingTimestamp);
+        }
+    }
+}